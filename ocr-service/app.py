@@ -2,11 +2,11 @@ from flask import Flask, request, jsonify
 from flask_cors import CORS
 import logging
 import os
-from typing import Dict
+from typing import Dict, List
 from pydantic import BaseModel, ValidationError
 
 from config import Config
-from ocr_processor import OCRProcessor
+from ocr_processor import OCRProcessor, DEPENDENCY_ERRORS
 from field_extractor import FieldExtractor
 from file_downloader import FileDownloader
 
@@ -34,6 +34,15 @@ class ParseBillRequest(BaseModel):
     use_easyocr: bool = False
 
 
+class ParseBillsRequest(BaseModel):
+    file_urls: List[str]
+    use_easyocr: bool = False
+
+
+class UnsupportedFileTypeError(ValueError):
+    pass
+
+
 class ParseBillResponse(BaseModel):
     success: bool
     data: Dict = None
@@ -80,45 +89,138 @@ def parse_bill():
         }
     }
     """
-    temp_file_path = None
-    
     try:
-        # Validate request
+        request_data = ParseBillRequest(**request.get_json())
+    except ValidationError as e:
+        return jsonify({
+            'success': False,
+            'error': f'Invalid request: {str(e)}'
+        }), 400
+
+    try:
+        response_data = parse_single_bill(request_data.file_url, request_data.use_easyocr)
+        return jsonify({
+            'success': True,
+            'data': response_data
+        }), 200
+
+    except UnsupportedFileTypeError as e:
+        return jsonify({
+            'success': False,
+            'error': str(e)
+        }), 400
+
+    except DEPENDENCY_ERRORS as e:
+        logger.error(f"Dependency error: {e}")
+        return jsonify({
+            'success': False,
+            'error': str(e),
+            'code': 'DEPENDENCY_MISSING'
+        }), 503
+
+    except Exception as e:
+        logger.error(f"Error parsing bill: {e}", exc_info=True)
+        return jsonify({
+            'success': False,
+            'error': str(e)
+        }), 500
+
+
+@app.route('/api/parse-bills', methods=['POST'])
+def parse_bills():
+    """
+    Parse a batch of bills in one call. Results are returned in request order;
+    a failure on one bill does not fail the others.
+
+    Request Body:
+    {
+        "file_urls": ["https://supabase.co/storage/...", "..."],
+        "use_easyocr": false
+    }
+
+    Response:
+    {
+        "success": true,
+        "results": [
+            {"success": true, "data": {...}},
+            {"success": false, "error": "Unsupported file type: .docx"}
+        ]
+    }
+    """
+    try:
+        request_data = ParseBillsRequest(**request.get_json())
+    except ValidationError as e:
+        return jsonify({
+            'success': False,
+            'error': f'Invalid request: {str(e)}'
+        }), 400
+
+    if len(request_data.file_urls) > Config.MAX_BATCH_SIZE:
+        return jsonify({
+            'success': False,
+            'error': f'Batch too large: max {Config.MAX_BATCH_SIZE} files'
+        }), 400
+
+    logger.info(f"Parsing batch of {len(request_data.file_urls)} bills")
+
+    results = []
+    for file_url in request_data.file_urls:
         try:
-            request_data = ParseBillRequest(**request.get_json())
-        except ValidationError as e:
+            results.append({
+                'success': True,
+                'data': parse_single_bill(file_url, request_data.use_easyocr)
+            })
+        except DEPENDENCY_ERRORS as e:
+            # Missing OCR dependency affects every item, fail the whole batch;
+            # any other error (including pytesseract.TesseractError) is per item
+            logger.error(f"Dependency error: {e}")
             return jsonify({
                 'success': False,
-                'error': f'Invalid request: {str(e)}'
-            }), 400
-        
-        logger.info(f"Parsing bill from URL: {request_data.file_url}")
-        
+                'error': str(e),
+                'code': 'DEPENDENCY_MISSING'
+            }), 503
+        except Exception as e:
+            logger.error(f"Error parsing bill {file_url}: {e}", exc_info=True)
+            results.append({
+                'success': False,
+                'error': str(e)
+            })
+
+    return jsonify({
+        'success': True,
+        'results': results
+    }), 200
+
+
+def parse_single_bill(file_url: str, use_easyocr: bool) -> Dict:
+    """Download, OCR and extract fields for one bill. Raises on failure."""
+    temp_file_path = None
+
+    try:
+        logger.info(f"Parsing bill from URL: {file_url}")
+
         # Download file
-        temp_file_path = FileDownloader.download_from_url(request_data.file_url)
-        
+        temp_file_path = FileDownloader.download_from_url(file_url)
+
         # Determine file type
         file_extension = os.path.splitext(temp_file_path)[1].lower()
-        
+
         # Extract text based on file type
         if file_extension == '.pdf':
             extracted_text = ocr_processor.extract_text_from_pdf(temp_file_path)
         elif file_extension in ['.png', '.jpg', '.jpeg', '.tiff', '.bmp']:
             extracted_text = ocr_processor.extract_text_from_image(
                 temp_file_path,
-                use_easyocr=request_data.use_easyocr
+                use_easyocr=use_easyocr
             )
         else:
-            return jsonify({
-                'success': False,
-                'error': f'Unsupported file type: {file_extension}'
-            }), 400
-        
+            raise UnsupportedFileTypeError(f'Unsupported file type: {file_extension}')
+
         logger.info(f"Extracted text length: {len(extracted_text)} characters")
-        
+
         # Extract fields
         extracted_fields = field_extractor.extract_fields(extracted_text)
-        
+
         # Calculate overall confidence
         confidences = []
         for key, value in extracted_fields.items():
@@ -126,36 +228,16 @@ def parse_bill():
                 confidences.append(value['confidence'])
             elif key == 'biller_info' and isinstance(value, dict):
                 confidences.append(value.get('confidence', 0))
-        
+
         overall_confidence = sum(confidences) / len(confidences) if confidences else 0
-        
-        response_data = {
+
+        logger.info(f"Parsing completed. Overall confidence: {overall_confidence:.2f}")
+
+        return {
             **extracted_fields,
             'overall_confidence': round(overall_confidence, 2)
         }
-        
-        logger.info(f"Parsing completed. Overall confidence: {overall_confidence:.2f}")
-        
-        return jsonify({
-            'success': True,
-            'data': response_data
-        }), 200
-    
-    except RuntimeError as e:
-        logger.error(f"Dependency error: {e}")
-        return jsonify({
-            'success': False,
-            'error': str(e),
-            'code': 'DEPENDENCY_MISSING'
-        }), 503
-    
-    except Exception as e:
-        logger.error(f"Error parsing bill: {e}", exc_info=True)
-        return jsonify({
-            'success': False,
-            'error': str(e)
-        }), 500
-    
+
     finally:
         # Cleanup temporary file
         if temp_file_path:
@@ -200,7 +282,7 @@ def parse_bill_base64():
             'data': extracted_fields
         }), 200
     
-    except RuntimeError as e:
+    except DEPENDENCY_ERRORS as e:
         logger.error(f"Dependency error: {e}")
         return jsonify({
             'success': False,
@@ -16,6 +16,7 @@ class Config:
     TESSERACT_CMD = os.getenv('TESSERACT_CMD', 'tesseract')
     OCR_LANGUAGE = os.getenv('OCR_LANGUAGE', 'eng')
     OCR_CONFIDENCE_THRESHOLD = float(os.getenv('OCR_CONFIDENCE_THRESHOLD', 0.6))
+    MAX_BATCH_SIZE = int(os.getenv('OCR_MAX_BATCH_SIZE', 32))
     
     # Supabase / S3
     SUPABASE_PUBLIC_URL = os.getenv('SUPABASE_PUBLIC_URL', '')
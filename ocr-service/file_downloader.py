@@ -1,9 +1,10 @@
 import os
+import shutil
 import tempfile
 import requests
 import logging
 from typing import Optional
-from urllib.parse import urlparse
+from urllib.parse import urlparse, unquote
 
 logger = logging.getLogger(__name__)
 
@@ -24,6 +25,11 @@ class FileDownloader:
             Path to downloaded file
         """
         logger.info(f"Downloading file from: {url}")
+
+        parsed = urlparse(url)
+        if parsed.scheme == 'file':
+            # Local storage backend on a shared volume: copy instead of fetching over HTTP
+            return FileDownloader._copy_local_file(unquote(parsed.path), output_path)
         
         try:
             # Make request
@@ -55,6 +61,21 @@ class FileDownloader:
             logger.error(f"Error downloading file: {e}")
             raise
     
+    @staticmethod
+    def _copy_local_file(source_path: str, output_path: Optional[str] = None) -> str:
+        """Copy a file from the shared local storage volume to a temp file"""
+        if output_path is None:
+            temp_file = tempfile.NamedTemporaryFile(
+                delete=False,
+                suffix=os.path.splitext(source_path)[1]
+            )
+            output_path = temp_file.name
+            temp_file.close()
+
+        shutil.copyfile(source_path, output_path)
+        logger.info(f"Local file copied successfully to: {output_path}")
+        return output_path
+
     @staticmethod
     def _get_file_extension(url: str, response: requests.Response) -> str:
         """Determine file extension from URL or content-type"""
@@ -13,6 +13,15 @@ from config import Config
 logger = logging.getLogger(__name__)
 
 
+class DependencyMissingError(RuntimeError):
+    """Tesseract or Poppler is not installed; affects every request, not one file"""
+    pass
+
+
+# pytesseract.TesseractError is also a RuntimeError but is raised per image
+DEPENDENCY_ERRORS = (DependencyMissingError, pytesseract.TesseractNotFoundError)
+
+
 class OCRProcessor:
     """Process images/PDFs and extract text using Tesseract and EasyOCR"""
     
@@ -28,7 +37,7 @@ class OCRProcessor:
         
         # Check Tesseract
         if not shutil.which(Config.TESSERACT_CMD) and not os.path.exists(Config.TESSERACT_CMD):
-            raise RuntimeError(
+            raise DependencyMissingError(
                 f"Tesseract not found at {Config.TESSERACT_CMD}. "
                 "Please install Tesseract OCR and add it to PATH or update .env"
             )
@@ -36,7 +45,7 @@ class OCRProcessor:
         # Check Poppler for PDF
         if file_type == '.pdf':
             if not shutil.which('pdftoppm') and not shutil.which('pdfinfo'):
-                raise RuntimeError(
+                raise DependencyMissingError(
                     "Poppler not found. Please install Poppler for PDF processing. "
                     "(apt-get install poppler-utils or download for Windows)"
                 )
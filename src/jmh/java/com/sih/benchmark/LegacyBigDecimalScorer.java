@@ -0,0 +1,64 @@
+package com.sih.benchmark;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Verbatim copy of the BigDecimal scoring that ScoringService used before
+ * {@code ScoringKernel}. Kept as the baseline for throughput and parity.
+ */
+final class LegacyBigDecimalScorer {
+
+    private LegacyBigDecimalScorer() {
+    }
+
+    record Result(BigDecimal rawIncomeScore, BigDecimal adjustedIncomeScore, BigDecimal creditRiskScore,
+            BigDecimal compositeScore, String riskBand, String eligibilityStatus) {
+    }
+
+    static Result score(BigDecimal rawIncome, BigDecimal regionalFactor, boolean profileVerified,
+            Integer literacyScore) {
+        BigDecimal rawIncomeScore = calculateIncomeScore(rawIncome);
+        BigDecimal adjustedIncome = rawIncome.multiply(regionalFactor);
+        BigDecimal adjustedIncomeScore = calculateIncomeScore(adjustedIncome);
+        BigDecimal creditRiskScore = calculateCreditRiskScore(profileVerified, literacyScore);
+
+        BigDecimal compositeScore = rawIncomeScore.multiply(BigDecimal.valueOf(0.4))
+                .add(adjustedIncomeScore.multiply(BigDecimal.valueOf(0.3)))
+                .add(creditRiskScore.multiply(BigDecimal.valueOf(0.3)))
+                .setScale(2, RoundingMode.HALF_UP);
+
+        return new Result(rawIncomeScore, adjustedIncomeScore, creditRiskScore, compositeScore,
+                determineRiskBand(compositeScore), determineEligibility(compositeScore));
+    }
+
+    private static BigDecimal calculateIncomeScore(BigDecimal income) {
+        if (income.compareTo(BigDecimal.ZERO) == 0)
+            return BigDecimal.ZERO;
+        BigDecimal score = income.divide(BigDecimal.valueOf(5000), 2, RoundingMode.HALF_UP);
+        return score.min(BigDecimal.valueOf(100));
+    }
+
+    private static BigDecimal calculateCreditRiskScore(boolean profileVerified, Integer literacyScore) {
+        BigDecimal baseScore = BigDecimal.valueOf(50);
+        if (profileVerified) {
+            baseScore = baseScore.add(BigDecimal.valueOf(20));
+        }
+        if (literacyScore != null && literacyScore > 50) {
+            baseScore = baseScore.add(BigDecimal.valueOf(10));
+        }
+        return baseScore.min(BigDecimal.valueOf(100));
+    }
+
+    private static String determineRiskBand(BigDecimal score) {
+        if (score.compareTo(BigDecimal.valueOf(70)) >= 0)
+            return "LOW";
+        if (score.compareTo(BigDecimal.valueOf(40)) >= 0)
+            return "MEDIUM";
+        return "HIGH";
+    }
+
+    private static String determineEligibility(BigDecimal score) {
+        return score.compareTo(BigDecimal.valueOf(50)) >= 0 ? "ELIGIBLE" : "NOT_ELIGIBLE";
+    }
+}
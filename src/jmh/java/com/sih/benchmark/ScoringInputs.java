@@ -0,0 +1,38 @@
+package com.sih.benchmark;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic applicant population, in both BigDecimal and scaled-long form.
+ */
+final class ScoringInputs {
+
+    final BigDecimal[] incomes;
+    final BigDecimal[] factors;
+    final long[] incomePaise;
+    final long[] factorScale4;
+    final boolean[] verified;
+    final int[] literacy;
+
+    ScoringInputs(int size, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        incomes = new BigDecimal[size];
+        factors = new BigDecimal[size];
+        incomePaise = new long[size];
+        factorScale4 = new long[size];
+        verified = new boolean[size];
+        literacy = new int[size];
+        for (int i = 0; i < size; i++) {
+            // mostly sub-5 lakh incomes with a tail above the score cap, some exact zeros
+            long paise = random.nextInt(20) == 0 ? 0 : random.nextLong(100_000_000L);
+            long factor = 5_000 + random.nextLong(10_000);
+            incomePaise[i] = paise;
+            factorScale4[i] = factor;
+            incomes[i] = BigDecimal.valueOf(paise, 2);
+            factors[i] = BigDecimal.valueOf(factor, 4);
+            verified[i] = random.nextBoolean();
+            literacy[i] = random.nextInt(101);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.sih.benchmark;
+
+import com.sih.module.scoring.service.ScoringKernel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the scaled-long kernel against the BigDecimal baseline,
+ * scoring the same batch of applicants per invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScoringKernelBenchmark {
+
+    private static final int BATCH = 10_000;
+
+    private ScoringInputs inputs;
+
+    @Setup
+    public void setUp() {
+        inputs = new ScoringInputs(BATCH, 7L);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void bigDecimalBaseline(Blackhole blackhole) {
+        for (int i = 0; i < BATCH; i++) {
+            blackhole.consume(LegacyBigDecimalScorer.score(inputs.incomes[i], inputs.factors[i],
+                    inputs.verified[i], inputs.literacy[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void scaledLongKernel(Blackhole blackhole) {
+        for (int i = 0; i < BATCH; i++) {
+            long income = inputs.incomePaise[i];
+            int raw = ScoringKernel.incomeScore(income);
+            int adjusted = ScoringKernel.adjustedIncomeScore(income, inputs.factorScale4[i]);
+            int risk = ScoringKernel.creditRiskScore(inputs.verified[i], inputs.literacy[i]);
+            int composite = ScoringKernel.compositeScore(raw, adjusted, risk);
+            blackhole.consume(composite);
+            blackhole.consume(ScoringKernel.riskBand(composite));
+            blackhole.consume(ScoringKernel.eligibility(composite));
+        }
+    }
+}
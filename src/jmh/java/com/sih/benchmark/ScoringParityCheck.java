@@ -0,0 +1,69 @@
+package com.sih.benchmark;
+
+import com.sih.module.scoring.service.ScoringKernel;
+
+import java.math.BigDecimal;
+
+/**
+ * Fails the benchmark run if the kernel disagrees with the BigDecimal baseline
+ * on any synthetic input or boundary case.
+ */
+public final class ScoringParityCheck {
+
+    private static final int SAMPLES = 2_000_000;
+
+    private ScoringParityCheck() {
+    }
+
+    public static void main(String[] args) {
+        ScoringInputs inputs = new ScoringInputs(SAMPLES, 42L);
+        int mismatches = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            mismatches += check(inputs.incomePaise[i], inputs.factorScale4[i], inputs.verified[i], inputs.literacy[i]);
+        }
+        // rounding and cap boundaries
+        long[] edgeIncomes = { 0, 1, 2_499, 2_500, 2_501, 49_999_999, 50_000_000, 50_000_001, 1_000_000_000_000L,
+                99_999_999_999_999L };
+        long[] edgeFactors = { 0, 1, 5_000, 9_999, 10_000, 10_001, 99_999 };
+        for (long income : edgeIncomes) {
+            for (long factor : edgeFactors) {
+                for (int literacy : new int[] { 0, 50, 51, 100 }) {
+                    mismatches += check(income, factor, true, literacy);
+                    mismatches += check(income, factor, false, literacy);
+                }
+            }
+        }
+        if (mismatches > 0) {
+            System.err.println("Scoring parity FAILED: " + mismatches + " mismatches");
+            System.exit(1);
+        }
+        System.out.println("Scoring parity OK: kernel matches BigDecimal baseline on " + SAMPLES + " samples");
+    }
+
+    private static int check(long incomePaise, long factorScale4, boolean verified, int literacy) {
+        LegacyBigDecimalScorer.Result expected = LegacyBigDecimalScorer.score(
+                BigDecimal.valueOf(incomePaise, 2), BigDecimal.valueOf(factorScale4, 4), verified, literacy);
+
+        int raw = ScoringKernel.incomeScore(incomePaise);
+        int adjusted = ScoringKernel.adjustedIncomeScore(incomePaise, factorScale4);
+        int risk = ScoringKernel.creditRiskScore(verified, literacy);
+        int composite = ScoringKernel.compositeScore(raw, adjusted, risk);
+
+        boolean same = equal(expected.rawIncomeScore(), raw)
+                && equal(expected.adjustedIncomeScore(), adjusted)
+                && equal(expected.creditRiskScore(), risk)
+                && equal(expected.compositeScore(), composite)
+                && expected.riskBand().equals(ScoringKernel.riskBand(composite))
+                && expected.eligibilityStatus().equals(ScoringKernel.eligibility(composite));
+        if (!same) {
+            System.err.printf("Mismatch income=%d factor=%d verified=%b literacy=%d: expected %s, got %d/%d/%d/%d%n",
+                    incomePaise, factorScale4, verified, literacy, expected, raw, adjusted, risk, composite);
+            return 1;
+        }
+        return 0;
+    }
+
+    private static boolean equal(BigDecimal expected, int hundredths) {
+        return expected.compareTo(BigDecimal.valueOf(hundredths, 2)) == 0;
+    }
+}
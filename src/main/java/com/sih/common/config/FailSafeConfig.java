@@ -32,6 +32,10 @@ public class FailSafeConfig {
         return featureFlagService.isEnabled("rescore_cron_enabled");
     }
     
+    public boolean isDpdJobEnabled() {
+        return featureFlagService.isEnabled("dpd_job_enabled");
+    }
+    
     public boolean isS3Enabled() {
         return featureFlagService.isEnabled("s3_enabled");
     }
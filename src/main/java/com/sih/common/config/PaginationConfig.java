@@ -0,0 +1,33 @@
+package com.sih.common.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Page size limits for cursor-paginated list endpoints.
+ */
+@Component
+public class PaginationConfig {
+
+    @Value("${app.pagination.default-page-size:10}")
+    private int defaultPageSize;
+
+    @Value("${app.pagination.max-page-size:100}")
+    private int maxPageSize;
+
+    public int resolvePageSize(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(requested, maxPageSize);
+    }
+
+    /**
+     * Limit for a keyset query: one row more than the page, to detect a next page.
+     */
+    public Pageable keysetLimit(int pageSize) {
+        return PageRequest.of(0, pageSize + 1);
+    }
+}
@@ -0,0 +1,43 @@
+package com.sih.common.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing. Pass {@code nextCursor} back as
+ * {@code cursor} to fetch the following page; it is null on the last page.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+    private Boolean hasMore;
+    private Integer size;
+
+    /**
+     * Build a page from rows fetched with a limit of {@code pageSize + 1};
+     * the extra row only signals that another page exists.
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int pageSize, Function<E, Long> keyExtractor,
+            Function<E, T> mapper) {
+        boolean hasMore = rows.size() > pageSize;
+        List<E> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+        List<T> items = pageRows.stream().map(mapper).toList();
+        String nextCursor = hasMore ? KeysetCursor.encode(keyExtractor.apply(pageRows.get(pageSize - 1))) : null;
+
+        return CursorPage.<T>builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .size(items.size())
+                .build();
+    }
+}
@@ -0,0 +1,40 @@
+package com.sih.common.dto;
+
+import com.sih.common.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque cursor for keyset pagination: the last seen primary key, Base64url encoded.
+ */
+public final class KeysetCursor {
+
+    private static final String PREFIX = "k1:";
+
+    private KeysetCursor() {
+    }
+
+    public static String encode(Long key) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + key).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the key encoded in {@code cursor}, or {@code defaultKey} when no cursor is given
+     */
+    public static long decode(String cursor, long defaultKey) {
+        if (cursor == null || cursor.isBlank()) {
+            return defaultKey;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(PREFIX)) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return Long.parseLong(decoded.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.sih.common.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Base32 geohash encoding plus the grid arithmetic used for spatial lookups.
+ * A hash of precision {@code p} names a cell of a fixed lat/long grid, and
+ * every longer hash with the same prefix lies inside it, so prefix ranges on
+ * an ordinary B-tree index answer "everything in this cell".
+ */
+public final class GeoHash {
+
+    public static final int MAX_PRECISION = 12;
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+    private static final int[] DECODE = new int[128];
+
+    static {
+        Arrays.fill(DECODE, -1);
+        for (int i = 0; i < BASE32.length; i++) {
+            DECODE[BASE32[i]] = i;
+        }
+    }
+
+    private GeoHash() {
+    }
+
+    /**
+     * Encode by bisection; points on a cell edge go to the upper cell, same as
+     * the backfill function in V29.
+     */
+    public static String encode(double lat, double lon, int precision) {
+        checkPrecision(precision);
+        double latLo = -90, latHi = 90, lonLo = -180, lonHi = 180;
+        char[] out = new char[precision];
+        boolean even = true;
+        int bit = 0;
+        int ch = 0;
+        int length = 0;
+        while (length < precision) {
+            if (even) {
+                double mid = (lonLo + lonHi) / 2;
+                if (lon >= mid) {
+                    ch = (ch << 1) | 1;
+                    lonLo = mid;
+                } else {
+                    ch <<= 1;
+                    lonHi = mid;
+                }
+            } else {
+                double mid = (latLo + latHi) / 2;
+                if (lat >= mid) {
+                    ch = (ch << 1) | 1;
+                    latLo = mid;
+                } else {
+                    ch <<= 1;
+                    latHi = mid;
+                }
+            }
+            even = !even;
+            if (++bit == 5) {
+                out[length++] = BASE32[ch];
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return new String(out);
+    }
+
+    /**
+     * Cell bounds of a hash.
+     */
+    public static BoundingBox bounds(String hash) {
+        int precision = hash.length();
+        checkPrecision(precision);
+        long ix = 0;
+        long iy = 0;
+        int position = 0;
+        for (int i = 0; i < precision; i++) {
+            char c = hash.charAt(i);
+            int value = c < DECODE.length ? DECODE[c] : -1;
+            if (value < 0) {
+                throw new IllegalArgumentException("Invalid geohash: " + hash);
+            }
+            for (int b = 4; b >= 0; b--, position++) {
+                long bitValue = (value >> b) & 1;
+                if ((position & 1) == 0) {
+                    ix = (ix << 1) | bitValue;
+                } else {
+                    iy = (iy << 1) | bitValue;
+                }
+            }
+        }
+        double width = cellWidth(precision);
+        double height = cellHeight(precision);
+        return new BoundingBox(-90 + iy * height, -180 + ix * width,
+                -90 + (iy + 1) * height, -180 + (ix + 1) * width);
+    }
+
+    /**
+     * Cells of the given precision that together cover the box.
+     */
+    public static List<String> cover(BoundingBox box, int precision) {
+        checkPrecision(precision);
+        long maxX = (1L << lonBits(precision)) - 1;
+        long maxY = (1L << latBits(precision)) - 1;
+        double width = cellWidth(precision);
+        double height = cellHeight(precision);
+        long x0 = clamp((long) Math.floor((box.minLong() + 180) / width), maxX);
+        long x1 = clamp((long) Math.floor((box.maxLong() + 180) / width), maxX);
+        long y0 = clamp((long) Math.floor((box.minLat() + 90) / height), maxY);
+        long y1 = clamp((long) Math.floor((box.maxLat() + 90) / height), maxY);
+
+        List<String> cells = new ArrayList<>((int) ((x1 - x0 + 1) * (y1 - y0 + 1)));
+        for (long x = x0; x <= x1; x++) {
+            for (long y = y0; y <= y1; y++) {
+                cells.add(cellHash(x, y, precision));
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Finest precision whose cover of the box has at most {@code maxCells} cells.
+     */
+    public static int coverPrecision(BoundingBox box, int maxCells) {
+        int best = 1;
+        for (int precision = 2; precision <= MAX_PRECISION; precision++) {
+            if (coverSize(box, precision) > maxCells) {
+                break;
+            }
+            best = precision;
+        }
+        return best;
+    }
+
+    /**
+     * Great-circle distance in kilometres.
+     */
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static long coverSize(BoundingBox box, int precision) {
+        double width = cellWidth(precision);
+        double height = cellHeight(precision);
+        long columns = (long) Math.floor((box.maxLong() + 180) / width) - (long) Math.floor((box.minLong() + 180) / width) + 1;
+        long rows = (long) Math.floor((box.maxLat() + 90) / height) - (long) Math.floor((box.minLat() + 90) / height) + 1;
+        return columns * rows;
+    }
+
+    private static String cellHash(long x, long y, int precision) {
+        int lonBits = lonBits(precision);
+        int latBits = latBits(precision);
+        char[] out = new char[precision];
+        int ch = 0;
+        for (int position = 0; position < precision * 5; position++) {
+            long bitValue = (position & 1) == 0
+                    ? (x >> (--lonBits)) & 1
+                    : (y >> (--latBits)) & 1;
+            ch = (ch << 1) | (int) bitValue;
+            if (position % 5 == 4) {
+                out[position / 5] = BASE32[ch];
+                ch = 0;
+            }
+        }
+        return new String(out);
+    }
+
+    private static int lonBits(int precision) {
+        return (precision * 5 + 1) / 2;
+    }
+
+    private static int latBits(int precision) {
+        return precision * 5 / 2;
+    }
+
+    private static double cellWidth(int precision) {
+        return 360.0 / (1L << lonBits(precision));
+    }
+
+    private static double cellHeight(int precision) {
+        return 180.0 / (1L << latBits(precision));
+    }
+
+    private static long clamp(long value, long max) {
+        return Math.max(0, Math.min(max, value));
+    }
+
+    private static void checkPrecision(int precision) {
+        if (precision < 1 || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Geohash precision must be between 1 and " + MAX_PRECISION);
+        }
+    }
+
+    /**
+     * Lat/long rectangle; boxes crossing the antimeridian are not supported.
+     */
+    public record BoundingBox(double minLat, double minLong, double maxLat, double maxLong) {
+
+        public BoundingBox {
+            if (minLat > maxLat || minLong > maxLong) {
+                throw new IllegalArgumentException("Bounding box min must not exceed max");
+            }
+        }
+
+        /**
+         * Box around a point, large enough to hold every point within the radius.
+         */
+        public static BoundingBox around(double lat, double lon, double radiusKm) {
+            double latDelta = Math.toDegrees(radiusKm / EARTH_RADIUS_KM);
+            double cos = Math.cos(Math.toRadians(lat));
+            double lonDelta = cos < 1e-6 ? 180 : Math.min(180, latDelta / cos);
+            return new BoundingBox(Math.max(-90, lat - latDelta), Math.max(-180, lon - lonDelta),
+                    Math.min(90, lat + latDelta), Math.min(180, lon + lonDelta));
+        }
+
+        public boolean contains(double lat, double lon) {
+            return lat >= minLat && lat <= maxLat && lon >= minLong && lon <= maxLong;
+        }
+    }
+}
@@ -1,9 +1,120 @@
 package com.sih.config;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Bounded executors for the bill verification pipeline.
+ * Each stage (OCR -> BBPS -> persist) gets its own pool and queue so that
+ * OCR throughput can be sized independently of BBPS throughput.
+ */
+@Slf4j
 @Configuration
 @EnableAsync
 public class AsyncConfig {
+
+    public static final String OCR_EXECUTOR = "ocrExecutor";
+    public static final String BBPS_EXECUTOR = "bbpsExecutor";
+    public static final String PERSIST_EXECUTOR = "verificationPersistExecutor";
+    public static final String BATCH_INGEST_EXECUTOR = "batchIngestExecutor";
+    public static final String RESCORE_EXECUTOR = "rescoreExecutor";
+
+    @Value("${app.verification.pipeline.ocr.pool-size:4}")
+    private int ocrPoolSize;
+
+    @Value("${app.verification.pipeline.ocr.queue-capacity:200}")
+    private int ocrQueueCapacity;
+
+    @Value("${app.verification.pipeline.bbps.pool-size:4}")
+    private int bbpsPoolSize;
+
+    @Value("${app.verification.pipeline.bbps.queue-capacity:200}")
+    private int bbpsQueueCapacity;
+
+    @Value("${app.verification.pipeline.persist.pool-size:2}")
+    private int persistPoolSize;
+
+    @Value("${app.verification.pipeline.persist.queue-capacity:500}")
+    private int persistQueueCapacity;
+
+    @Value("${app.consumption.batch.parallelism:8}")
+    private int batchParallelism;
+
+    @Value("${app.consumption.batch.queue-capacity:100}")
+    private int batchQueueCapacity;
+
+    /**
+     * Default executor for plain {@code @Async} methods (e.g. email delivery).
+     * Declared explicitly because defining the stage executors below disables
+     * Spring Boot's auto-configured one.
+     */
+    @Bean(name = "taskExecutor")
+    public ThreadPoolTaskExecutor taskExecutor() {
+        return buildExecutor("async-", 8, 100, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Entry stage. Rejects when full so the upload thread never blocks;
+     * the pipeline leaves the entry PENDING for manual verification instead.
+     */
+    @Bean(name = OCR_EXECUTOR)
+    public ThreadPoolTaskExecutor ocrExecutor() {
+        return buildExecutor("ocr-", ocrPoolSize, ocrQueueCapacity, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Downstream stages push back on the stage feeding them (caller runs)
+     * instead of dropping work that has already paid for an OCR call.
+     */
+    @Bean(name = BBPS_EXECUTOR)
+    public ThreadPoolTaskExecutor bbpsExecutor() {
+        return buildExecutor("bbps-", bbpsPoolSize, bbpsQueueCapacity, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @Bean(name = PERSIST_EXECUTOR)
+    public ThreadPoolTaskExecutor verificationPersistExecutor() {
+        return buildExecutor("verify-persist-", persistPoolSize, persistQueueCapacity,
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Fan-out pool for multi-file batch uploads. Pool size is the global cap on
+     * concurrent file ingests; when saturated the request thread ingests itself.
+     */
+    @Bean(name = BATCH_INGEST_EXECUTOR)
+    public ThreadPoolTaskExecutor batchIngestExecutor() {
+        return buildExecutor("batch-ingest-", batchParallelism, batchQueueCapacity,
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Single thread for admin-triggered rescores, so a full-portfolio run never
+     * holds a request thread. Only one rescore runs at a time anyway.
+     */
+    @Bean(name = RESCORE_EXECUTOR)
+    public ThreadPoolTaskExecutor rescoreExecutor() {
+        return buildExecutor("rescore-", 1, 0, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    private ThreadPoolTaskExecutor buildExecutor(String prefix, int poolSize, int queueCapacity,
+            RejectedExecutionHandler rejectionHandler) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(prefix);
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(rejectionHandler);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        log.info("Initialized {} executor: poolSize={}, queueCapacity={}", prefix, poolSize, queueCapacity);
+        return executor;
+    }
 }
@@ -1,6 +1,7 @@
 package com.sih.module.application.controller;
 
 import com.sih.common.dto.ApiResponse;
+import com.sih.common.dto.CursorPage;
 import com.sih.module.application.dto.*;
 import com.sih.module.application.service.ApplicationService;
 import jakarta.validation.Valid;
@@ -65,8 +66,10 @@ public class ApplicationController {
     }
     
     @GetMapping("/officer/pending")
-    public ResponseEntity<ApiResponse<List<ApplicationResponse>>> getPendingApplications() {
-        List<ApplicationResponse> applications = applicationService.getPendingApplications();
+    public ResponseEntity<ApiResponse<CursorPage<ApplicationResponse>>> getPendingApplications(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<ApplicationResponse> applications = applicationService.getPendingApplications(cursor, size);
         return ResponseEntity.ok(ApiResponse.success(applications));
     }
     
@@ -1,6 +1,7 @@
 package com.sih.module.application.repository;
 
 import com.sih.module.application.entity.LoanApplication;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -10,6 +11,8 @@ import java.util.List;
 public interface LoanApplicationRepository extends JpaRepository<LoanApplication, Long> {
     List<LoanApplication> findByUserUserId(Long userId);
     List<LoanApplication> findByStatus(String status);
+    List<LoanApplication> findByStatusAndApplicationIdGreaterThanOrderByApplicationIdAsc(String status,
+            Long applicationId, Pageable pageable);
     List<LoanApplication> findByGroupGroupId(Long groupId);
 }
 
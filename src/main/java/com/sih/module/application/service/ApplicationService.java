@@ -1,6 +1,9 @@
 package com.sih.module.application.service;
 
 import com.sih.common.config.FailSafeConfig;
+import com.sih.common.config.PaginationConfig;
+import com.sih.common.dto.CursorPage;
+import com.sih.common.dto.KeysetCursor;
 import com.sih.common.exception.BadRequestException;
 import com.sih.common.exception.ResourceNotFoundException;
 import com.sih.module.application.dto.*;
@@ -8,6 +11,7 @@ import com.sih.module.application.entity.LoanApplication;
 import com.sih.module.application.repository.LoanApplicationRepository;
 import com.sih.module.auth.entity.User;
 import com.sih.module.auth.repository.UserRepository;
+import com.sih.module.fraud.service.FraudService;
 import com.sih.module.group.entity.BorrowerGroup;
 import com.sih.module.group.repository.BorrowerGroupRepository;
 import com.sih.module.scheme.entity.LoanScheme;
@@ -30,7 +34,9 @@ public class ApplicationService {
     private final UserRepository userRepository;
     private final BorrowerGroupRepository groupRepository;
     private final LoanSchemeRepository schemeRepository;
+    private final FraudService fraudService;
     private final FailSafeConfig failSafeConfig;
+    private final PaginationConfig paginationConfig;
     
     @Transactional
     public ApplicationResponse createApplication(Long userId, ApplicationRequest request) {
@@ -128,6 +134,7 @@ public class ApplicationService {
         application.setStageTimestamp(java.time.OffsetDateTime.now());
         
         application = applicationRepository.save(application);
+        fraudService.onApplicationSubmitted(userId, applicationId);
         log.info("Application {} submitted", applicationId);
         
         // Fail-safe: Auto-trigger scoring if enabled, otherwise manual review
@@ -168,10 +175,14 @@ public class ApplicationService {
         return mapToResponse(application);
     }
     
-    public List<ApplicationResponse> getPendingApplications() {
-        return applicationRepository.findByStatus("SUBMITTED").stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    /**
+     * Review queue, oldest submission first.
+     */
+    public CursorPage<ApplicationResponse> getPendingApplications(String cursor, Integer size) {
+        int pageSize = paginationConfig.resolvePageSize(size);
+        List<LoanApplication> rows = applicationRepository.findByStatusAndApplicationIdGreaterThanOrderByApplicationIdAsc(
+                "SUBMITTED", KeysetCursor.decode(cursor, 0L), paginationConfig.keysetLimit(pageSize));
+        return CursorPage.of(rows, pageSize, LoanApplication::getApplicationId, this::mapToResponse);
     }
     
     @Transactional
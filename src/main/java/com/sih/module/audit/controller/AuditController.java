@@ -1,6 +1,7 @@
 package com.sih.module.audit.controller;
 
 import com.sih.common.dto.ApiResponse;
+import com.sih.common.dto.CursorPage;
 import com.sih.module.audit.entity.AuditLog;
 import com.sih.module.audit.service.AuditService;
 import lombok.RequiredArgsConstructor;
@@ -9,7 +10,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.OffsetDateTime;
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/audit")
@@ -19,13 +19,16 @@ public class AuditController {
     private final AuditService auditService;
     
     @GetMapping("/logs")
-    public ResponseEntity<ApiResponse<List<AuditLog>>> searchLogs(
+    public ResponseEntity<ApiResponse<CursorPage<AuditLog>>> searchLogs(
             @RequestParam(required = false) Long userId,
             @RequestParam(required = false) String actionType,
             @RequestParam(required = false) String entityType,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime endDate) {
-        List<AuditLog> logs = auditService.searchLogs(userId, actionType, entityType, startDate, endDate);
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<AuditLog> logs = auditService.searchLogs(
+                userId, actionType, entityType, startDate, endDate, cursor, size);
         return ResponseEntity.ok(ApiResponse.success(logs));
     }
     
@@ -1,6 +1,7 @@
 package com.sih.module.audit.repository;
 
 import com.sih.module.audit.entity.AuditLog;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -13,5 +14,12 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
     List<AuditLog> findByActionType(String actionType);
     List<AuditLog> findByEntityTypeAndEntityId(String entityType, Long entityId);
     List<AuditLog> findByTimestampBetween(OffsetDateTime start, OffsetDateTime end);
+
+    List<AuditLog> findByLogIdLessThanOrderByLogIdDesc(Long logId, Pageable pageable);
+    List<AuditLog> findByActionByUserIdAndLogIdLessThanOrderByLogIdDesc(Long userId, Long logId, Pageable pageable);
+    List<AuditLog> findByActionTypeAndLogIdLessThanOrderByLogIdDesc(String actionType, Long logId,
+            Pageable pageable);
+    List<AuditLog> findByTimestampBetweenAndLogIdLessThanOrderByLogIdDesc(OffsetDateTime start, OffsetDateTime end,
+            Long logId, Pageable pageable);
 }
 
@@ -1,11 +1,15 @@
 package com.sih.module.audit.service;
 
+import com.sih.common.config.PaginationConfig;
+import com.sih.common.dto.CursorPage;
+import com.sih.common.dto.KeysetCursor;
 import com.sih.module.audit.entity.AuditLog;
 import com.sih.module.audit.repository.AuditLogRepository;
 import com.sih.module.auth.entity.User;
 import com.sih.module.auth.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,6 +24,7 @@ public class AuditService {
     
     private final AuditLogRepository auditLogRepository;
     private final UserRepository userRepository;
+    private final PaginationConfig paginationConfig;
     
     @Transactional
     public void logAction(Long userId, String actionType, String entityType, Long entityId,
@@ -41,19 +46,26 @@ public class AuditService {
         auditLogRepository.save(log);
     }
     
-    public List<AuditLog> searchLogs(Long userId, String actionType, String entityType, 
-                                     OffsetDateTime startDate, OffsetDateTime endDate) {
+    public CursorPage<AuditLog> searchLogs(Long userId, String actionType, String entityType, 
+                                           OffsetDateTime startDate, OffsetDateTime endDate,
+                                           String cursor, Integer size) {
+        int pageSize = paginationConfig.resolvePageSize(size);
+        long after = KeysetCursor.decode(cursor, Long.MAX_VALUE);
+        Pageable limit = paginationConfig.keysetLimit(pageSize);
+
         // Simplified search - in production, use Specification or QueryDSL
+        List<AuditLog> rows;
         if (userId != null) {
-            return auditLogRepository.findByActionByUserId(userId);
-        }
-        if (actionType != null) {
-            return auditLogRepository.findByActionType(actionType);
-        }
-        if (startDate != null && endDate != null) {
-            return auditLogRepository.findByTimestampBetween(startDate, endDate);
+            rows = auditLogRepository.findByActionByUserIdAndLogIdLessThanOrderByLogIdDesc(userId, after, limit);
+        } else if (actionType != null) {
+            rows = auditLogRepository.findByActionTypeAndLogIdLessThanOrderByLogIdDesc(actionType, after, limit);
+        } else if (startDate != null && endDate != null) {
+            rows = auditLogRepository.findByTimestampBetweenAndLogIdLessThanOrderByLogIdDesc(
+                    startDate, endDate, after, limit);
+        } else {
+            rows = auditLogRepository.findByLogIdLessThanOrderByLogIdDesc(after, limit);
         }
-        return auditLogRepository.findAll();
+        return CursorPage.of(rows, pageSize, AuditLog::getLogId, log -> log);
     }
     
     public AuditLog getLogById(Long logId) {
@@ -3,10 +3,13 @@ package com.sih.module.beneficiary.controller;
 import com.sih.common.dto.ApiResponse;
 import com.sih.module.beneficiary.dto.ClusterResponse;
 import com.sih.module.beneficiary.dto.DemographicStatsResponse;
+import com.sih.module.beneficiary.dto.GeoClusterResponse;
+import com.sih.module.beneficiary.dto.GeoPointResponse;
 import com.sih.module.beneficiary.dto.HeatmapResponse;
 import com.sih.module.beneficiary.service.AnalyticsService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -37,6 +40,38 @@ public class AnalyticsController {
         return ResponseEntity.ok(ApiResponse.success(clusters));
     }
     
+    @GetMapping("/geo/clusters")
+    public ResponseEntity<ApiResponse<List<GeoClusterResponse>>> getGeoClusters(
+            @RequestParam int zoom,
+            @RequestParam(required = false) Double minLat,
+            @RequestParam(required = false) Double minLong,
+            @RequestParam(required = false) Double maxLat,
+            @RequestParam(required = false) Double maxLong) {
+        List<GeoClusterResponse> clusters = analyticsService.getGeoClusters(zoom, minLat, minLong, maxLat, maxLong);
+        return ResponseEntity.ok(ApiResponse.success(clusters));
+    }
+    
+    @GetMapping("/geo/beneficiaries")
+    @PreAuthorize("hasAnyRole('ADMIN', 'LOAN_OFFICER')")
+    public ResponseEntity<ApiResponse<List<GeoPointResponse>>> getBeneficiariesInBox(
+            @RequestParam double minLat,
+            @RequestParam double minLong,
+            @RequestParam double maxLat,
+            @RequestParam double maxLong) {
+        List<GeoPointResponse> points = analyticsService.getBeneficiariesInBox(minLat, minLong, maxLat, maxLong);
+        return ResponseEntity.ok(ApiResponse.success(points));
+    }
+    
+    @GetMapping("/geo/beneficiaries/nearby")
+    @PreAuthorize("hasAnyRole('ADMIN', 'LOAN_OFFICER')")
+    public ResponseEntity<ApiResponse<List<GeoPointResponse>>> getBeneficiariesNear(
+            @RequestParam double lat,
+            @RequestParam("long") double lon,
+            @RequestParam double radiusKm) {
+        List<GeoPointResponse> points = analyticsService.getBeneficiariesNear(lat, lon, radiusKm);
+        return ResponseEntity.ok(ApiResponse.success(points));
+    }
+    
     @GetMapping("/beneficiaries/stats/demographics")
     public ResponseEntity<ApiResponse<DemographicStatsResponse>> getDemographicStats() {
         DemographicStatsResponse stats = analyticsService.getDemographicStats();
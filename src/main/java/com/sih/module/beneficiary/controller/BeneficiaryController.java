@@ -12,7 +12,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -83,9 +85,9 @@ public class BeneficiaryController {
     public ResponseEntity<ApiResponse<String>> uploadCertificate(
             @AuthenticationPrincipal Long userId,
             @RequestParam("file") MultipartFile file) {
-        try {
+        try (InputStream fileStream = file.getInputStream()) {
             String result = beneficiaryService.uploadCertificate(
-                    userId, file.getBytes(), file.getOriginalFilename());
+                    userId, fileStream, file.getSize(), file.getOriginalFilename());
             return ResponseEntity.ok(ApiResponse.success(result));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -94,8 +96,8 @@ public class BeneficiaryController {
     }
 
     @GetMapping("/certificate/download")
-    public ResponseEntity<byte[]> downloadCertificate(@AuthenticationPrincipal Long userId) {
-        byte[] certificate = beneficiaryService.downloadCertificate(userId);
+    public ResponseEntity<StreamingResponseBody> downloadCertificate(@AuthenticationPrincipal Long userId) {
+        StreamingResponseBody certificate = beneficiaryService.downloadCertificate(userId);
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_PDF);
@@ -110,9 +112,9 @@ public class BeneficiaryController {
     public ResponseEntity<ApiResponse<String>> uploadIdentityProof(
             @AuthenticationPrincipal Long userId,
             @RequestParam("file") MultipartFile file) {
-        try {
+        try (InputStream fileStream = file.getInputStream()) {
             String result = beneficiaryService.uploadIdentityProof(
-                    userId, file.getBytes(), file.getOriginalFilename());
+                    userId, fileStream, file.getSize(), file.getOriginalFilename());
             return ResponseEntity.ok(ApiResponse.success(result));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -121,8 +123,8 @@ public class BeneficiaryController {
     }
 
     @GetMapping("/identity/download")
-    public ResponseEntity<byte[]> downloadIdentityProof(@AuthenticationPrincipal Long userId) {
-        byte[] identityProof = beneficiaryService.downloadIdentityProof(userId);
+    public ResponseEntity<StreamingResponseBody> downloadIdentityProof(@AuthenticationPrincipal Long userId) {
+        StreamingResponseBody identityProof = beneficiaryService.downloadIdentityProof(userId);
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_PDF);
@@ -0,0 +1,23 @@
+package com.sih.module.beneficiary.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeoClusterResponse {
+    private String geohash;
+    private Integer zoom;
+    private Long beneficiaryCount;
+    private BigDecimal averageIncome;
+    private String riskLevel; // 'HIGH', 'MEDIUM', 'LOW'
+    private List<BigDecimal> coordinates; // centroid [lat, long]
+    private List<BigDecimal> bounds; // cell [minLat, minLong, maxLat, maxLong]
+}
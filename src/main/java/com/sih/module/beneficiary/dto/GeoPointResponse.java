@@ -0,0 +1,24 @@
+package com.sih.module.beneficiary.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeoPointResponse {
+    private Long profileId;
+    private Long userId;
+    private String pincode;
+    private String district;
+    private String state;
+    private String geohash;
+    private List<BigDecimal> coordinates; // [lat, long]
+    private BigDecimal distanceKm; // Only set for radius queries
+}
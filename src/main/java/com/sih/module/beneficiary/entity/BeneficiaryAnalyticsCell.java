@@ -0,0 +1,73 @@
+package com.sih.module.beneficiary.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+/**
+ * One cell of the beneficiary analytics cube. Written only through the delta
+ * upsert in {@code BeneficiaryAnalyticsCubeRepository}; missing dimension
+ * values are stored as empty strings.
+ */
+@Entity
+@Table(name = "beneficiary_analytics_cube", indexes = {
+    @Index(name = "idx_analytics_cube_verified_state", columnList = "is_verified, state")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeneficiaryAnalyticsCell {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "cell_id")
+    private Long cellId;
+
+    @Column(name = "state", length = 100, nullable = false)
+    private String state;
+
+    @Column(name = "district", length = 100, nullable = false)
+    private String district;
+
+    @Column(name = "pincode", length = 20, nullable = false)
+    private String pincode;
+
+    @Column(name = "caste_category", length = 50, nullable = false)
+    private String casteCategory;
+
+    @Column(name = "gender", length = 20, nullable = false)
+    private String gender;
+
+    @Column(name = "region_type", length = 20, nullable = false)
+    private String regionType;
+
+    @Column(name = "is_verified", nullable = false)
+    private Boolean isVerified;
+
+    @Column(name = "beneficiary_count", nullable = false)
+    private Long beneficiaryCount;
+
+    @Column(name = "income_count", nullable = false)
+    private Long incomeCount;
+
+    @Column(name = "income_sum", precision = 20, scale = 2, nullable = false)
+    private BigDecimal incomeSum;
+
+    @Column(name = "geo_count", nullable = false)
+    private Long geoCount;
+
+    @Column(name = "lat_sum", precision = 20, scale = 8, nullable = false)
+    private BigDecimal latSum;
+
+    @Column(name = "long_sum", precision = 20, scale = 8, nullable = false)
+    private BigDecimal longSum;
+
+    @Column(name = "updated_at")
+    private OffsetDateTime updatedAt;
+}
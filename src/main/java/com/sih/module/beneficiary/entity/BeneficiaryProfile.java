@@ -1,6 +1,7 @@
 package com.sih.module.beneficiary.entity;
 
 import com.sih.common.entity.BaseEntity;
+import com.sih.common.util.GeoHash;
 import com.sih.module.auth.entity.User;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -15,7 +16,8 @@ import java.time.LocalDate;
 @Table(name = "beneficiary_profiles", indexes = {
         @Index(name = "idx_benef_user", columnList = "user_id"),
         @Index(name = "idx_benef_geo", columnList = "state, district, pincode"),
-        @Index(name = "idx_benef_verified", columnList = "is_profile_verified")
+        @Index(name = "idx_benef_verified", columnList = "is_profile_verified"),
+        @Index(name = "idx_benef_geohash", columnList = "geohash")
 })
 @Data
 @Builder
@@ -69,6 +71,10 @@ public class BeneficiaryProfile extends BaseEntity {
     @Column(name = "geo_long", precision = 11, scale = 8)
     private BigDecimal geoLong;
 
+    // Derived from geoLat/geoLong on every write, see updateGeohash()
+    @Column(name = "geohash", length = 12)
+    private String geohash;
+
     // Financial Metrics
     @Column(name = "literacy_score")
     @Builder.Default
@@ -127,4 +133,12 @@ public class BeneficiaryProfile extends BaseEntity {
     @Column(name = "is_graduate")
     @Builder.Default
     private Boolean isGraduate = false; // Whether the beneficiary is a graduate
+
+    @PrePersist
+    @PreUpdate
+    void updateGeohash() {
+        geohash = geoLat != null && geoLong != null
+                ? GeoHash.encode(geoLat.doubleValue(), geoLong.doubleValue(), GeoHash.MAX_PRECISION)
+                : null;
+    }
 }
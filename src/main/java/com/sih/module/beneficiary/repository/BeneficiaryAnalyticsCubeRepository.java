@@ -0,0 +1,116 @@
+package com.sih.module.beneficiary.repository;
+
+import com.sih.module.beneficiary.entity.BeneficiaryAnalyticsCell;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface BeneficiaryAnalyticsCubeRepository extends JpaRepository<BeneficiaryAnalyticsCell, Long> {
+
+    /**
+     * Atomically add deltas to a cube cell, creating it if needed.
+     * Dimension values must already be normalized (null -> '').
+     */
+    @Modifying
+    @Query(value = "INSERT INTO beneficiary_analytics_cube " +
+            "(state, district, pincode, caste_category, gender, region_type, is_verified, " +
+            "beneficiary_count, income_count, income_sum, geo_count, lat_sum, long_sum, updated_at) " +
+            "VALUES (:state, :district, :pincode, :casteCategory, :gender, :regionType, :verified, " +
+            ":countDelta, :incomeCountDelta, :incomeDelta, :geoCountDelta, :latDelta, :longDelta, now()) " +
+            "ON CONFLICT ON CONSTRAINT uq_analytics_cube_cell DO UPDATE SET " +
+            "beneficiary_count = beneficiary_analytics_cube.beneficiary_count + EXCLUDED.beneficiary_count, " +
+            "income_count = beneficiary_analytics_cube.income_count + EXCLUDED.income_count, " +
+            "income_sum = beneficiary_analytics_cube.income_sum + EXCLUDED.income_sum, " +
+            "geo_count = beneficiary_analytics_cube.geo_count + EXCLUDED.geo_count, " +
+            "lat_sum = beneficiary_analytics_cube.lat_sum + EXCLUDED.lat_sum, " +
+            "long_sum = beneficiary_analytics_cube.long_sum + EXCLUDED.long_sum, " +
+            "updated_at = now()", nativeQuery = true)
+    void applyDelta(
+        @Param("state") String state,
+        @Param("district") String district,
+        @Param("pincode") String pincode,
+        @Param("casteCategory") String casteCategory,
+        @Param("gender") String gender,
+        @Param("regionType") String regionType,
+        @Param("verified") boolean verified,
+        @Param("countDelta") long countDelta,
+        @Param("incomeCountDelta") long incomeCountDelta,
+        @Param("incomeDelta") BigDecimal incomeDelta,
+        @Param("geoCountDelta") long geoCountDelta,
+        @Param("latDelta") BigDecimal latDelta,
+        @Param("longDelta") BigDecimal longDelta
+    );
+
+    @Query(value = "SELECT NULLIF(state, '') AS \"region\", CAST(SUM(beneficiary_count) AS BIGINT) AS \"beneficiaryCount\", " +
+            "CAST(SUM(income_count) AS BIGINT) AS \"incomeCount\", SUM(income_sum) AS \"incomeSum\" " +
+            "FROM beneficiary_analytics_cube WHERE is_verified = TRUE " +
+            "GROUP BY state HAVING SUM(beneficiary_count) > 0", nativeQuery = true)
+    List<RegionStatsView> getStateWiseStats();
+
+    @Query(value = "SELECT NULLIF(district, '') AS \"region\", CAST(SUM(beneficiary_count) AS BIGINT) AS \"beneficiaryCount\", " +
+            "CAST(SUM(income_count) AS BIGINT) AS \"incomeCount\", SUM(income_sum) AS \"incomeSum\" " +
+            "FROM beneficiary_analytics_cube WHERE is_verified = TRUE AND state = :state " +
+            "GROUP BY district HAVING SUM(beneficiary_count) > 0", nativeQuery = true)
+    List<RegionStatsView> getDistrictWiseStats(@Param("state") String state);
+
+    /**
+     * Per-pincode rollup of verified profiles for the risk cluster view.
+     */
+    @Query(value = "SELECT pincode AS \"pincode\", MIN(NULLIF(district, '')) AS \"district\", " +
+            "MIN(NULLIF(state, '')) AS \"state\", CAST(SUM(beneficiary_count) AS BIGINT) AS \"beneficiaryCount\", " +
+            "SUM(income_sum) AS \"incomeSum\", CAST(SUM(geo_count) AS BIGINT) AS \"geoCount\", " +
+            "SUM(lat_sum) AS \"latSum\", SUM(long_sum) AS \"longSum\" " +
+            "FROM beneficiary_analytics_cube WHERE is_verified = TRUE AND pincode <> '' " +
+            "GROUP BY pincode HAVING SUM(beneficiary_count) > 0", nativeQuery = true)
+    List<PincodeClusterView> getPincodeClusters();
+
+    /**
+     * All demographic distributions in one pass. {@code groupingId} is the
+     * GROUPING() bitmask of (state, caste_category, gender, region_type):
+     * 7 = by state, 11 = by caste, 13 = by gender, 14 = by region type, 15 = grand total.
+     */
+    @Query(value = "SELECT GROUPING(state, caste_category, gender, region_type) AS \"groupingId\", " +
+            "NULLIF(state, '') AS \"state\", NULLIF(caste_category, '') AS \"casteCategory\", " +
+            "NULLIF(gender, '') AS \"gender\", NULLIF(region_type, '') AS \"regionType\", " +
+            "CAST(COALESCE(SUM(beneficiary_count), 0) AS BIGINT) AS \"total\", " +
+            "CAST(COALESCE(SUM(beneficiary_count) FILTER (WHERE is_verified), 0) AS BIGINT) AS \"verified\" " +
+            "FROM beneficiary_analytics_cube " +
+            "GROUP BY GROUPING SETS ((state), (caste_category), (gender), (region_type), ()) " +
+            "HAVING SUM(beneficiary_count) > 0 OR GROUPING(state, caste_category, gender, region_type) = 15",
+            nativeQuery = true)
+    List<DemographicBucketView> getDemographicBuckets();
+
+    interface RegionStatsView {
+        String getRegion();
+        Long getBeneficiaryCount();
+        Long getIncomeCount();
+        BigDecimal getIncomeSum();
+    }
+
+    interface PincodeClusterView {
+        String getPincode();
+        String getDistrict();
+        String getState();
+        Long getBeneficiaryCount();
+        BigDecimal getIncomeSum();
+        Long getGeoCount();
+        BigDecimal getLatSum();
+        BigDecimal getLongSum();
+    }
+
+    interface DemographicBucketView {
+        Integer getGroupingId();
+        String getState();
+        String getCasteCategory();
+        String getGender();
+        String getRegionType();
+        Long getTotal();
+        Long getVerified();
+    }
+}
@@ -0,0 +1,103 @@
+package com.sih.module.beneficiary.repository;
+
+import com.sih.common.util.GeoHash;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Spatial reads over beneficiary_profiles.geohash. A bounding box is turned
+ * into a handful of geohash cells, each cell into a prefix range on the
+ * geohash index, and the exact lat/long filter is applied to what those
+ * ranges return.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BeneficiaryGeoJdbcRepository {
+
+    // Sorts after every base32 character, so [prefix, prefix + '~') is the whole cell
+    private static final String RANGE_END = "~";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Verified profiles inside the box, in geohash order.
+     *
+     * @param cells cover of the box, see {@link GeoHash#cover}
+     */
+    public List<GeoPoint> findInBox(List<String> cells, GeoHash.BoundingBox box, int limit) {
+        List<Object> args = new ArrayList<>();
+        String sql = "SELECT profile_id, user_id, pincode, district, state, geo_lat, geo_long, geohash " +
+                "FROM beneficiary_profiles WHERE is_profile_verified = TRUE AND " + cellRanges(cells, args) +
+                " AND " + boxFilter(box, args) +
+                " ORDER BY geohash LIMIT ?";
+        args.add(limit);
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new GeoPoint(
+                rs.getLong("profile_id"),
+                rs.getLong("user_id"),
+                rs.getString("pincode"),
+                rs.getString("district"),
+                rs.getString("state"),
+                rs.getBigDecimal("geo_lat"),
+                rs.getBigDecimal("geo_long"),
+                rs.getString("geohash")), args.toArray());
+    }
+
+    /**
+     * Verified profiles grouped by geohash prefix of the given length. With a
+     * box, only profiles inside it are counted; without one, the whole table is binned.
+     */
+    public List<GeoCell> clusterByCell(int precision, List<String> cells, GeoHash.BoundingBox box) {
+        List<Object> args = new ArrayList<>();
+        args.add(precision);
+        StringBuilder sql = new StringBuilder(
+                "SELECT LEFT(geohash, ?) AS cell, COUNT(*) AS beneficiary_count, " +
+                "AVG(geo_lat) AS avg_lat, AVG(geo_long) AS avg_long, " +
+                "COUNT(verified_annual_income) AS income_count, SUM(verified_annual_income) AS income_sum " +
+                "FROM beneficiary_profiles WHERE is_profile_verified = TRUE AND geohash IS NOT NULL");
+        if (box != null) {
+            sql.append(" AND ").append(cellRanges(cells, args)).append(" AND ").append(boxFilter(box, args));
+        }
+        sql.append(" GROUP BY 1");
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new GeoCell(
+                rs.getString("cell"),
+                rs.getLong("beneficiary_count"),
+                rs.getBigDecimal("avg_lat"),
+                rs.getBigDecimal("avg_long"),
+                rs.getLong("income_count"),
+                rs.getBigDecimal("income_sum")), args.toArray());
+    }
+
+    private static String cellRanges(List<String> cells, List<Object> args) {
+        StringBuilder ranges = new StringBuilder("(");
+        for (int i = 0; i < cells.size(); i++) {
+            if (i > 0) {
+                ranges.append(" OR ");
+            }
+            ranges.append("(geohash >= ? AND geohash < ?)");
+            args.add(cells.get(i));
+            args.add(cells.get(i) + RANGE_END);
+        }
+        return ranges.append(")").toString();
+    }
+
+    private static String boxFilter(GeoHash.BoundingBox box, List<Object> args) {
+        args.add(box.minLat());
+        args.add(box.maxLat());
+        args.add(box.minLong());
+        args.add(box.maxLong());
+        return "geo_lat BETWEEN ? AND ? AND geo_long BETWEEN ? AND ?";
+    }
+
+    public record GeoPoint(Long profileId, Long userId, String pincode, String district, String state,
+            BigDecimal geoLat, BigDecimal geoLong, String geohash) {
+    }
+
+    public record GeoCell(String cell, long beneficiaryCount, BigDecimal avgLat, BigDecimal avgLong,
+            long incomeCount, BigDecimal incomeSum) {
+    }
+}
@@ -1,7 +1,9 @@
 package com.sih.module.beneficiary.repository;
 
 import com.sih.module.beneficiary.entity.BeneficiaryProfile;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -12,6 +14,19 @@ import java.util.Optional;
 @Repository
 public interface BeneficiaryProfileRepository extends JpaRepository<BeneficiaryProfile, Long> {
     Optional<BeneficiaryProfile> findByUserUserId(Long userId);
+
+    /**
+     * Row-locked loads for writes that feed beneficiary_analytics_cube: the "before"
+     * snapshot must not be read by two concurrent writers, or both retract it.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM BeneficiaryProfile b WHERE b.user.userId = :userId")
+    Optional<BeneficiaryProfile> findByUserUserIdForUpdate(@Param("userId") Long userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM BeneficiaryProfile b WHERE b.profileId = :profileId")
+    Optional<BeneficiaryProfile> findByIdForUpdate(@Param("profileId") Long profileId);
+
     List<BeneficiaryProfile> findByState(String state);
     List<BeneficiaryProfile> findByStateAndDistrict(String state, String district);
     List<BeneficiaryProfile> findByIsProfileVerified(Boolean isVerified);
@@ -25,17 +40,4 @@ public interface BeneficiaryProfileRepository extends JpaRepository<BeneficiaryP
         @Param("district") String district,
         @Param("pincode") String pincode
     );
-    
-    @Query("SELECT b.state, COUNT(b), AVG(b.verifiedAnnualIncome) " +
-           "FROM BeneficiaryProfile b " +
-           "WHERE b.isProfileVerified = true " +
-           "GROUP BY b.state")
-    List<Object[]> getStateWiseStats();
-    
-    @Query("SELECT b.district, COUNT(b), AVG(b.verifiedAnnualIncome) " +
-           "FROM BeneficiaryProfile b " +
-           "WHERE b.isProfileVerified = true AND b.state = :state " +
-           "GROUP BY b.district")
-    List<Object[]> getDistrictWiseStats(@Param("state") String state);
 }
-
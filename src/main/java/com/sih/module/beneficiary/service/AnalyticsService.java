@@ -1,13 +1,17 @@
 package com.sih.module.beneficiary.service;
 
+import com.sih.common.exception.BadRequestException;
+import com.sih.common.util.GeoHash;
 import com.sih.module.beneficiary.dto.ClusterResponse;
 import com.sih.module.beneficiary.dto.DemographicStatsResponse;
+import com.sih.module.beneficiary.dto.GeoClusterResponse;
+import com.sih.module.beneficiary.dto.GeoPointResponse;
 import com.sih.module.beneficiary.dto.HeatmapResponse;
-import com.sih.module.beneficiary.entity.BeneficiaryProfile;
-import com.sih.module.beneficiary.repository.BeneficiaryProfileRepository;
+import com.sih.module.beneficiary.repository.BeneficiaryAnalyticsCubeRepository;
+import com.sih.module.beneficiary.repository.BeneficiaryGeoJdbcRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -20,136 +24,228 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AnalyticsService {
     
-    private final BeneficiaryProfileRepository profileRepository;
+    private final BeneficiaryAnalyticsCubeRepository cubeRepository;
+    private final BeneficiaryGeoJdbcRepository geoRepository;
     
-    @Cacheable(value = "heatmap", key = "'state-wise'")
+    @Value("${app.analytics.geo.max-results:5000}")
+    private int geoMaxResults;
+    
+    @Value("${app.analytics.geo.max-cover-cells:16}")
+    private int geoMaxCoverCells;
+    
+    @Value("${app.analytics.geo.max-radius-km:200}")
+    private double geoMaxRadiusKm;
+    
+    // Geohash length used for clustering at each map zoom level (0-20); a cell is roughly one screen tile
+    private static final int[] ZOOM_PRECISION = {1, 1, 1, 2, 2, 2, 3, 3, 4, 4, 4, 5, 5, 6, 6, 6, 7, 7, 8, 8, 8};
+    
+    // GROUPING(state, caste_category, gender, region_type) bitmasks, see getDemographicBuckets
+    private static final int GROUPED_BY_STATE = 7;
+    private static final int GROUPED_BY_CASTE = 11;
+    private static final int GROUPED_BY_GENDER = 13;
+    private static final int GROUPED_BY_REGION = 14;
+    private static final int GRAND_TOTAL = 15;
+    
+    // Served straight from the incrementally maintained cube, so no cache is needed
     public List<HeatmapResponse> getStateWiseHeatmap() {
-        List<Object[]> stats = profileRepository.getStateWiseStats();
-        
-        return stats.stream().map(stat -> {
-            String state = (String) stat[0];
-            Long count = ((Number) stat[1]).longValue();
-            BigDecimal avgIncome = (BigDecimal) stat[2];
-            
-            // Calculate risk score (inverse of income - lower income = higher risk)
-            BigDecimal riskScore = calculateRiskScore(avgIncome);
-            String colorCode = getColorCode(riskScore);
-            
-            return HeatmapResponse.builder()
-                    .region(state)
-                    .riskScore(riskScore)
-                    .beneficiaryCount(count)
-                    .colorCode(colorCode)
-                    .averageIncome(avgIncome)
-                    .build();
-        }).collect(Collectors.toList());
-    }
-    
-    @Cacheable(value = "heatmap", key = "'district-wise-' + #state")
+        return cubeRepository.getStateWiseStats().stream()
+                .map(this::toHeatmap)
+                .collect(Collectors.toList());
+    }
+    
     public List<HeatmapResponse> getDistrictWiseHeatmap(String state) {
-        List<Object[]> stats = profileRepository.getDistrictWiseStats(state);
-        
-        return stats.stream().map(stat -> {
-            String district = (String) stat[0];
-            Long count = ((Number) stat[1]).longValue();
-            BigDecimal avgIncome = (BigDecimal) stat[2];
-            
-            BigDecimal riskScore = calculateRiskScore(avgIncome);
-            String colorCode = getColorCode(riskScore);
-            
-            return HeatmapResponse.builder()
-                    .region(district)
-                    .riskScore(riskScore)
-                    .beneficiaryCount(count)
-                    .colorCode(colorCode)
-                    .averageIncome(avgIncome)
-                    .build();
-        }).collect(Collectors.toList());
+        return cubeRepository.getDistrictWiseStats(state).stream()
+                .map(this::toHeatmap)
+                .collect(Collectors.toList());
     }
     
-    public List<ClusterResponse> getRiskClusters() {
-        List<BeneficiaryProfile> profiles = profileRepository.findByIsProfileVerified(true);
+    private HeatmapResponse toHeatmap(BeneficiaryAnalyticsCubeRepository.RegionStatsView stat) {
+        // Average over profiles that carry an income, matching AVG() semantics
+        BigDecimal avgIncome = stat.getIncomeCount() != null && stat.getIncomeCount() > 0
+                ? stat.getIncomeSum().divide(BigDecimal.valueOf(stat.getIncomeCount()), 2, RoundingMode.HALF_UP)
+                : null;
         
-        // Group by pincode
-        Map<String, List<BeneficiaryProfile>> byPincode = profiles.stream()
-                .filter(p -> p.getPincode() != null)
-                .collect(Collectors.groupingBy(BeneficiaryProfile::getPincode));
+        // Calculate risk score (inverse of income - lower income = higher risk)
+        BigDecimal riskScore = calculateRiskScore(avgIncome);
+        String colorCode = getColorCode(riskScore);
         
-        return byPincode.entrySet().stream()
-                .map(entry -> {
-                    String pincode = entry.getKey();
-                    List<BeneficiaryProfile> clusterProfiles = entry.getValue();
-                    
-                    if (clusterProfiles.isEmpty()) return null;
-                    
-                    BeneficiaryProfile first = clusterProfiles.get(0);
-                    Long count = (long) clusterProfiles.size();
-                    
-                    BigDecimal avgIncome = clusterProfiles.stream()
-                            .filter(p -> p.getVerifiedAnnualIncome() != null)
-                            .map(BeneficiaryProfile::getVerifiedAnnualIncome)
-                            .reduce(BigDecimal.ZERO, BigDecimal::add)
-                            .divide(BigDecimal.valueOf(clusterProfiles.size()), 2, RoundingMode.HALF_UP);
-                    
+        return HeatmapResponse.builder()
+                .region(stat.getRegion())
+                .riskScore(riskScore)
+                .beneficiaryCount(stat.getBeneficiaryCount())
+                .colorCode(colorCode)
+                .averageIncome(avgIncome)
+                .build();
+    }
+    
+    public List<ClusterResponse> getRiskClusters() {
+        return cubeRepository.getPincodeClusters().stream()
+                .map(cluster -> {
+                    BigDecimal incomeSum = cluster.getIncomeSum() != null ? cluster.getIncomeSum() : BigDecimal.ZERO;
+                    BigDecimal avgIncome = incomeSum.divide(BigDecimal.valueOf(cluster.getBeneficiaryCount()),
+                            2, RoundingMode.HALF_UP);
+
                     BigDecimal riskScore = calculateRiskScore(avgIncome);
                     String riskLevel = getRiskLevel(riskScore);
-                    
+
+                    // Cluster centroid of the profiles that have coordinates
                     List<BigDecimal> coordinates = new ArrayList<>();
-                    if (first.getGeoLat() != null && first.getGeoLong() != null) {
-                        coordinates.add(first.getGeoLat());
-                        coordinates.add(first.getGeoLong());
+                    if (cluster.getGeoCount() != null && cluster.getGeoCount() > 0) {
+                        BigDecimal geoCount = BigDecimal.valueOf(cluster.getGeoCount());
+                        coordinates.add(cluster.getLatSum().divide(geoCount, 8, RoundingMode.HALF_UP));
+                        coordinates.add(cluster.getLongSum().divide(geoCount, 8, RoundingMode.HALF_UP));
                     }
-                    
+
                     return ClusterResponse.builder()
-                            .pincode(pincode)
-                            .district(first.getDistrict())
-                            .state(first.getState())
-                            .beneficiaryCount(count)
+                            .pincode(cluster.getPincode())
+                            .district(cluster.getDistrict())
+                            .state(cluster.getState())
+                            .beneficiaryCount(cluster.getBeneficiaryCount())
                             .averageIncome(avgIncome)
                             .riskLevel(riskLevel)
                             .coordinates(coordinates)
                             .build();
                 })
-                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
     
-    public DemographicStatsResponse getDemographicStats() {
-        List<BeneficiaryProfile> allProfiles = profileRepository.findAll();
-        List<BeneficiaryProfile> verified = profileRepository.findByIsProfileVerified(true);
-        
-        Map<String, Long> stateWise = allProfiles.stream()
-                .filter(p -> p.getState() != null)
-                .collect(Collectors.groupingBy(
-                    BeneficiaryProfile::getState,
-                    Collectors.counting()
-                ));
+    public List<GeoPointResponse> getBeneficiariesInBox(double minLat, double minLong, double maxLat, double maxLong) {
+        GeoHash.BoundingBox box = boundingBox(minLat, minLong, maxLat, maxLong);
+        return findInBox(box).stream()
+                .map(point -> toGeoPoint(point, null))
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Profiles within {@code radiusKm} of a point, nearest first. The radius is
+     * first widened to a box for the index lookup, then filtered by great-circle distance.
+     */
+    public List<GeoPointResponse> getBeneficiariesNear(double lat, double lon, double radiusKm) {
+        validatePoint(lat, lon);
+        if (radiusKm <= 0 || radiusKm > geoMaxRadiusKm) {
+            throw new BadRequestException("Radius must be between 0 and " + geoMaxRadiusKm + " km");
+        }
+        GeoHash.BoundingBox box = GeoHash.BoundingBox.around(lat, lon, radiusKm);
+        List<GeoPointResponse> nearby = new ArrayList<>();
+        for (BeneficiaryGeoJdbcRepository.GeoPoint point : findInBox(box)) {
+            double distance = GeoHash.distanceKm(lat, lon,
+                    point.geoLat().doubleValue(), point.geoLong().doubleValue());
+            if (distance <= radiusKm) {
+                nearby.add(toGeoPoint(point, BigDecimal.valueOf(distance).setScale(3, RoundingMode.HALF_UP)));
+            }
+        }
+        nearby.sort(Comparator.comparing(GeoPointResponse::getDistanceKm));
+        return nearby;
+    }
+    
+    /**
+     * Pre-binned clusters for a map view: profiles are grouped by geohash cell
+     * at the zoom level's precision, optionally restricted to the visible box.
+     */
+    public List<GeoClusterResponse> getGeoClusters(int zoom, Double minLat, Double minLong, Double maxLat, Double maxLong) {
+        if (zoom < 0 || zoom >= ZOOM_PRECISION.length) {
+            throw new BadRequestException("Zoom must be between 0 and " + (ZOOM_PRECISION.length - 1));
+        }
+        int precision = ZOOM_PRECISION[zoom];
         
-        Map<String, Long> casteWise = allProfiles.stream()
-                .filter(p -> p.getCasteCategory() != null)
-                .collect(Collectors.groupingBy(
-                    BeneficiaryProfile::getCasteCategory,
-                    Collectors.counting()
-                ));
+        GeoHash.BoundingBox box = null;
+        List<String> cells = List.of();
+        if (minLat != null || minLong != null || maxLat != null || maxLong != null) {
+            if (minLat == null || minLong == null || maxLat == null || maxLong == null) {
+                throw new BadRequestException("Bounding box needs minLat, minLong, maxLat and maxLong");
+            }
+            box = boundingBox(minLat, minLong, maxLat, maxLong);
+            cells = coverCells(box);
+        }
         
-        Map<String, Long> genderWise = allProfiles.stream()
-                .filter(p -> p.getGender() != null)
-                .collect(Collectors.groupingBy(
-                    BeneficiaryProfile::getGender,
-                    Collectors.counting()
-                ));
+        return geoRepository.clusterByCell(precision, cells, box).stream()
+                .map(cell -> {
+                    BigDecimal avgIncome = cell.incomeCount() > 0
+                            ? cell.incomeSum().divide(BigDecimal.valueOf(cell.incomeCount()), 2, RoundingMode.HALF_UP)
+                            : null;
+                    GeoHash.BoundingBox bounds = GeoHash.bounds(cell.cell());
+                    return GeoClusterResponse.builder()
+                            .geohash(cell.cell())
+                            .zoom(zoom)
+                            .beneficiaryCount(cell.beneficiaryCount())
+                            .averageIncome(avgIncome)
+                            .riskLevel(getRiskLevel(calculateRiskScore(avgIncome)))
+                            .coordinates(List.of(cell.avgLat().setScale(8, RoundingMode.HALF_UP),
+                                    cell.avgLong().setScale(8, RoundingMode.HALF_UP)))
+                            .bounds(List.of(BigDecimal.valueOf(bounds.minLat()), BigDecimal.valueOf(bounds.minLong()),
+                                    BigDecimal.valueOf(bounds.maxLat()), BigDecimal.valueOf(bounds.maxLong())))
+                            .build();
+                })
+                .collect(Collectors.toList());
+    }
+    
+    private List<BeneficiaryGeoJdbcRepository.GeoPoint> findInBox(GeoHash.BoundingBox box) {
+        List<BeneficiaryGeoJdbcRepository.GeoPoint> points = geoRepository.findInBox(coverCells(box), box, geoMaxResults + 1);
+        if (points.size() > geoMaxResults) {
+            throw new BadRequestException("Area contains more than " + geoMaxResults
+                    + " beneficiaries, zoom in or use the cluster view");
+        }
+        return points;
+    }
+    
+    private List<String> coverCells(GeoHash.BoundingBox box) {
+        return GeoHash.cover(box, GeoHash.coverPrecision(box, geoMaxCoverCells));
+    }
+    
+    private GeoHash.BoundingBox boundingBox(double minLat, double minLong, double maxLat, double maxLong) {
+        validatePoint(minLat, minLong);
+        validatePoint(maxLat, maxLong);
+        if (minLat > maxLat || minLong > maxLong) {
+            throw new BadRequestException("Bounding box min must not exceed max");
+        }
+        return new GeoHash.BoundingBox(minLat, minLong, maxLat, maxLong);
+    }
+    
+    private static void validatePoint(double lat, double lon) {
+        if (lat < -90 || lat > 90 || lon < -180 || lon > 180) {
+            throw new BadRequestException("Latitude must be within [-90, 90] and longitude within [-180, 180]");
+        }
+    }
+    
+    private static GeoPointResponse toGeoPoint(BeneficiaryGeoJdbcRepository.GeoPoint point, BigDecimal distanceKm) {
+        return GeoPointResponse.builder()
+                .profileId(point.profileId())
+                .userId(point.userId())
+                .pincode(point.pincode())
+                .district(point.district())
+                .state(point.state())
+                .geohash(point.geohash())
+                .coordinates(List.of(point.geoLat(), point.geoLong()))
+                .distanceKm(distanceKm)
+                .build();
+    }
+    
+    public DemographicStatsResponse getDemographicStats() {
+        Map<String, Long> stateWise = new HashMap<>();
+        Map<String, Long> casteWise = new HashMap<>();
+        Map<String, Long> genderWise = new HashMap<>();
+        Map<String, Long> regionWise = new HashMap<>();
+        long total = 0;
+        long verified = 0;
         
-        Map<String, Long> regionWise = allProfiles.stream()
-                .filter(p -> p.getRegionType() != null)
-                .collect(Collectors.groupingBy(
-                    BeneficiaryProfile::getRegionType,
-                    Collectors.counting()
-                ));
+        for (BeneficiaryAnalyticsCubeRepository.DemographicBucketView bucket : cubeRepository.getDemographicBuckets()) {
+            switch (bucket.getGroupingId()) {
+                case GROUPED_BY_STATE -> putIfKeyed(stateWise, bucket.getState(), bucket.getTotal());
+                case GROUPED_BY_CASTE -> putIfKeyed(casteWise, bucket.getCasteCategory(), bucket.getTotal());
+                case GROUPED_BY_GENDER -> putIfKeyed(genderWise, bucket.getGender(), bucket.getTotal());
+                case GROUPED_BY_REGION -> putIfKeyed(regionWise, bucket.getRegionType(), bucket.getTotal());
+                case GRAND_TOTAL -> {
+                    total = bucket.getTotal();
+                    verified = bucket.getVerified();
+                }
+                default -> log.warn("Unexpected demographic grouping id {}", bucket.getGroupingId());
+            }
+        }
         
         return DemographicStatsResponse.builder()
-                .totalBeneficiaries((long) allProfiles.size())
-                .verifiedCount((long) verified.size())
-                .unverifiedCount((long) (allProfiles.size() - verified.size()))
+                .totalBeneficiaries(total)
+                .verifiedCount(verified)
+                .unverifiedCount(total - verified)
                 .stateWiseDistribution(stateWise)
                 .casteCategoryDistribution(casteWise)
                 .genderDistribution(genderWise)
@@ -157,6 +253,13 @@ public class AnalyticsService {
                 .build();
     }
     
+    private static void putIfKeyed(Map<String, Long> distribution, String key, Long count) {
+        // Profiles without a value for the dimension are left out, as before
+        if (key != null) {
+            distribution.put(key, count);
+        }
+    }
+    
     private BigDecimal calculateRiskScore(BigDecimal avgIncome) {
         if (avgIncome == null || avgIncome.compareTo(BigDecimal.ZERO) == 0) {
             return BigDecimal.valueOf(100); // High risk
@@ -0,0 +1,82 @@
+package com.sih.module.beneficiary.service;
+
+import com.sih.module.beneficiary.entity.BeneficiaryProfile;
+import com.sih.module.beneficiary.repository.BeneficiaryAnalyticsCubeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Keeps the beneficiary analytics cube in step with profile writes. Callers
+ * take a {@link Snapshot} before mutating a profile and hand both states in;
+ * the profile is retracted from its old cell and added to its new one.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BeneficiaryAnalyticsRollupService {
+
+    private final BeneficiaryAnalyticsCubeRepository cubeRepository;
+
+    @Transactional
+    public void onCreated(BeneficiaryProfile profile) {
+        apply(null, Snapshot.of(profile));
+    }
+
+    @Transactional
+    public void onUpdated(BeneficiaryProfile profile, Snapshot before) {
+        apply(before, Snapshot.of(profile));
+    }
+
+    private void apply(Snapshot before, Snapshot after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        if (before != null) {
+            applyCell(before, -1);
+        }
+        if (after != null) {
+            applyCell(after, 1);
+        }
+        log.debug("Analytics cube updated");
+    }
+
+    private void applyCell(Snapshot s, int sign) {
+        boolean hasIncome = s.income() != null;
+        boolean hasGeo = s.geoLat() != null && s.geoLong() != null;
+        cubeRepository.applyDelta(
+                key(s.state()), key(s.district()), key(s.pincode()), key(s.casteCategory()),
+                key(s.gender()), key(s.regionType()), s.verified(),
+                sign,
+                hasIncome ? sign : 0,
+                hasIncome ? signed(s.income(), sign) : BigDecimal.ZERO,
+                hasGeo ? sign : 0,
+                hasGeo ? signed(s.geoLat(), sign) : BigDecimal.ZERO,
+                hasGeo ? signed(s.geoLong(), sign) : BigDecimal.ZERO);
+    }
+
+    private static String key(String value) {
+        return value != null ? value : "";
+    }
+
+    private static BigDecimal signed(BigDecimal value, int sign) {
+        return sign < 0 ? value.negate() : value;
+    }
+
+    /**
+     * The parts of a profile that feed the cube.
+     */
+    public record Snapshot(String state, String district, String pincode, String casteCategory, String gender,
+            String regionType, boolean verified, BigDecimal income, BigDecimal geoLat, BigDecimal geoLong) {
+        public static Snapshot of(BeneficiaryProfile profile) {
+            return new Snapshot(profile.getState(), profile.getDistrict(), profile.getPincode(),
+                    profile.getCasteCategory(), profile.getGender(), profile.getRegionType(),
+                    Boolean.TRUE.equals(profile.getIsProfileVerified()), profile.getVerifiedAnnualIncome(),
+                    profile.getGeoLat(), profile.getGeoLong());
+        }
+    }
+}
@@ -12,7 +12,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -23,7 +26,8 @@ public class BeneficiaryService {
 
     private final BeneficiaryProfileRepository profileRepository;
     private final UserRepository userRepository;
-    private final SupabaseStorageService supabaseStorageService;
+    private final StorageService storageService;
+    private final BeneficiaryAnalyticsRollupService analyticsRollupService;
 
     @Transactional
     public ProfileResponse createProfile(Long userId, CreateProfileRequest request) {
@@ -59,6 +63,7 @@ public class BeneficiaryService {
                 .build();
 
         profile = profileRepository.save(profile);
+        analyticsRollupService.onCreated(profile);
         log.info("Profile created for user: {}", userId);
 
         return mapToResponse(profile);
@@ -101,17 +106,15 @@ public class BeneficiaryService {
                 .build();
 
         profile = profileRepository.save(profile);
+        analyticsRollupService.onCreated(profile);
         log.info("Profile created for user: {}", userId);
 
         // Upload caste certificate if provided
         if (casteCertificate != null && !casteCertificate.isEmpty()) {
             try {
-                String fileUrl = supabaseStorageService.uploadFile(
-                        casteCertificate.getBytes(),
-                        casteCertificate.getOriginalFilename(),
-                        "beneficiaries/caste");
+                String fileUrl = uploadMultipart(casteCertificate, "beneficiaries/caste");
                 profile.setCasteCertificateUrl(fileUrl);
-                profile.setCertificateStorageType("S3");
+                profile.setCertificateStorageType(storageService.getStorageType());
                 log.info("Caste certificate uploaded for user: {}", userId);
             } catch (Exception e) {
                 log.error("Failed to upload caste certificate for user {}: {}", userId, e.getMessage());
@@ -122,12 +125,9 @@ public class BeneficiaryService {
         // Upload identity proof if provided
         if (identityProof != null && !identityProof.isEmpty()) {
             try {
-                String fileUrl = supabaseStorageService.uploadFile(
-                        identityProof.getBytes(),
-                        identityProof.getOriginalFilename(),
-                        "beneficiaries/identity");
+                String fileUrl = uploadMultipart(identityProof, "beneficiaries/identity");
                 profile.setIdentityProofUrl(fileUrl);
-                profile.setIdentityStorageType("S3");
+                profile.setIdentityStorageType(storageService.getStorageType());
                 log.info("Identity proof uploaded for user: {}", userId);
             } catch (Exception e) {
                 log.error("Failed to upload identity proof for user {}: {}", userId, e.getMessage());
@@ -149,8 +149,9 @@ public class BeneficiaryService {
 
     @Transactional
     public ProfileResponse updateProfile(Long userId, UpdateProfileRequest request) {
-        BeneficiaryProfile profile = profileRepository.findByUserUserId(userId)
+        BeneficiaryProfile profile = profileRepository.findByUserUserIdForUpdate(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Profile not found"));
+        BeneficiaryAnalyticsRollupService.Snapshot before = BeneficiaryAnalyticsRollupService.Snapshot.of(profile);
 
         if (request.getFullName() != null)
             profile.setFullName(request.getFullName());
@@ -190,6 +191,7 @@ public class BeneficiaryService {
             profile.setIsGraduate(request.getIsGraduate());
 
         profile = profileRepository.save(profile);
+        analyticsRollupService.onUpdated(profile, before);
         log.info("Profile updated for user: {}", userId);
 
         return mapToResponse(profile);
@@ -199,8 +201,9 @@ public class BeneficiaryService {
     public ProfileResponse updateProfileWithFiles(Long userId, UpdateProfileWithFilesRequest request,
             org.springframework.web.multipart.MultipartFile casteCertificate,
             org.springframework.web.multipart.MultipartFile identityProof) {
-        BeneficiaryProfile profile = profileRepository.findByUserUserId(userId)
+        BeneficiaryProfile profile = profileRepository.findByUserUserIdForUpdate(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Profile not found"));
+        BeneficiaryAnalyticsRollupService.Snapshot before = BeneficiaryAnalyticsRollupService.Snapshot.of(profile);
 
         // Update basic profile fields
         if (request.getFullName() != null)
@@ -245,12 +248,9 @@ public class BeneficiaryService {
         // Upload caste certificate if provided
         if (casteCertificate != null && !casteCertificate.isEmpty()) {
             try {
-                String fileUrl = supabaseStorageService.uploadFile(
-                        casteCertificate.getBytes(),
-                        casteCertificate.getOriginalFilename(),
-                        "beneficiaries/caste");
+                String fileUrl = uploadMultipart(casteCertificate, "beneficiaries/caste");
                 profile.setCasteCertificateUrl(fileUrl);
-                profile.setCertificateStorageType("S3");
+                profile.setCertificateStorageType(storageService.getStorageType());
                 profile.setCertificateBlob(null); // Clear blob to save space
                 log.info("Caste certificate uploaded for user: {}", userId);
             } catch (Exception e) {
@@ -262,12 +262,9 @@ public class BeneficiaryService {
         // Upload identity proof if provided
         if (identityProof != null && !identityProof.isEmpty()) {
             try {
-                String fileUrl = supabaseStorageService.uploadFile(
-                        identityProof.getBytes(),
-                        identityProof.getOriginalFilename(),
-                        "beneficiaries/identity");
+                String fileUrl = uploadMultipart(identityProof, "beneficiaries/identity");
                 profile.setIdentityProofUrl(fileUrl);
-                profile.setIdentityStorageType("S3");
+                profile.setIdentityStorageType(storageService.getStorageType());
                 profile.setIdentityProofBlob(null); // Clear blob to save space
                 log.info("Identity proof uploaded for user: {}", userId);
             } catch (Exception e) {
@@ -277,6 +274,7 @@ public class BeneficiaryService {
         }
 
         profile = profileRepository.save(profile);
+        analyticsRollupService.onUpdated(profile, before);
         log.info("Profile updated with files for user: {}", userId);
 
         return mapToResponse(profile);
@@ -284,17 +282,19 @@ public class BeneficiaryService {
 
     @Transactional
     public ProfileResponse verifyProfile(Long profileId, Long officerId, VerifyRequest request) {
-        BeneficiaryProfile profile = profileRepository.findById(profileId)
+        BeneficiaryProfile profile = profileRepository.findByIdForUpdate(profileId)
                 .orElseThrow(() -> new ResourceNotFoundException("Profile not found"));
 
         User officer = userRepository.findById(officerId)
                 .orElseThrow(() -> new ResourceNotFoundException("Officer not found"));
+        BeneficiaryAnalyticsRollupService.Snapshot before = BeneficiaryAnalyticsRollupService.Snapshot.of(profile);
 
         profile.setVerifiedAnnualIncome(request.getVerifiedAnnualIncome());
         profile.setIsProfileVerified(true);
         profile.setVerifiedBy(officer);
 
         profile = profileRepository.save(profile);
+        analyticsRollupService.onUpdated(profile, before);
         log.info("Profile verified: {} by officer: {}", profileId, officerId);
 
         return mapToResponse(profile);
@@ -314,17 +314,18 @@ public class BeneficiaryService {
     }
 
     @Transactional
-    public String uploadCertificate(Long userId, byte[] fileData, String fileName) {
+    public String uploadCertificate(Long userId, InputStream fileData, long fileSize, String fileName) {
         BeneficiaryProfile profile = profileRepository.findByUserUserId(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Profile not found"));
 
         try {
             // Upload to Supabase S3 - caste folder
-            String fileUrl = supabaseStorageService.uploadFile(fileData, fileName, "beneficiaries/caste");
+            String fileUrl = storageService
+                    .uploadStream(fileData, fileSize, fileName, "beneficiaries/caste").fileUrl();
 
             // Update profile with URL
             profile.setCasteCertificateUrl(fileUrl);
-            profile.setCertificateStorageType("S3");
+            profile.setCertificateStorageType(storageService.getStorageType());
             profile.setCertificateBlob(null); // Clear blob to save space
 
             profileRepository.save(profile);
@@ -338,17 +339,18 @@ public class BeneficiaryService {
     }
 
     @Transactional
-    public String uploadIdentityProof(Long userId, byte[] fileData, String fileName) {
+    public String uploadIdentityProof(Long userId, InputStream fileData, long fileSize, String fileName) {
         BeneficiaryProfile profile = profileRepository.findByUserUserId(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Profile not found"));
 
         try {
             // Upload to Supabase S3 - identity folder
-            String fileUrl = supabaseStorageService.uploadFile(fileData, fileName, "beneficiaries/identity");
+            String fileUrl = storageService
+                    .uploadStream(fileData, fileSize, fileName, "beneficiaries/identity").fileUrl();
 
             // Update profile with URL
             profile.setIdentityProofUrl(fileUrl);
-            profile.setIdentityStorageType("S3");
+            profile.setIdentityStorageType(storageService.getStorageType());
             profile.setIdentityProofBlob(null);
 
             profileRepository.save(profile);
@@ -361,36 +363,53 @@ public class BeneficiaryService {
         }
     }
 
-    public byte[] downloadCertificate(Long userId) {
+    /**
+     * Streams the certificate from storage straight into the response body.
+     */
+    public StreamingResponseBody downloadCertificate(Long userId) {
         BeneficiaryProfile profile = profileRepository.findByUserUserId(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Profile not found"));
 
-        if ("S3".equals(profile.getCertificateStorageType()) && profile.getCasteCertificateUrl() != null) {
-            return supabaseStorageService.downloadFile(profile.getCasteCertificateUrl());
+        if (storageService.getStorageType().equals(profile.getCertificateStorageType())
+                && profile.getCasteCertificateUrl() != null) {
+            String fileUrl = profile.getCasteCertificateUrl();
+            return out -> storageService.copyTo(fileUrl, out);
         }
 
         if (profile.getCertificateBlob() != null) {
-            return profile.getCertificateBlob();
+            byte[] blob = profile.getCertificateBlob();
+            return out -> out.write(blob);
         }
 
         throw new ResourceNotFoundException("Certificate not found");
     }
 
-    public byte[] downloadIdentityProof(Long userId) {
+    public StreamingResponseBody downloadIdentityProof(Long userId) {
         BeneficiaryProfile profile = profileRepository.findByUserUserId(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Profile not found"));
 
-        if ("S3".equals(profile.getIdentityStorageType()) && profile.getIdentityProofUrl() != null) {
-            return supabaseStorageService.downloadFile(profile.getIdentityProofUrl());
+        if (storageService.getStorageType().equals(profile.getIdentityStorageType())
+                && profile.getIdentityProofUrl() != null) {
+            String fileUrl = profile.getIdentityProofUrl();
+            return out -> storageService.copyTo(fileUrl, out);
         }
 
         if (profile.getIdentityProofBlob() != null) {
-            return profile.getIdentityProofBlob();
+            byte[] blob = profile.getIdentityProofBlob();
+            return out -> out.write(blob);
         }
 
         throw new ResourceNotFoundException("Identity proof not found");
     }
 
+    private String uploadMultipart(org.springframework.web.multipart.MultipartFile file, String folder)
+            throws IOException {
+        try (InputStream fileStream = file.getInputStream()) {
+            return storageService
+                    .uploadStream(fileStream, file.getSize(), file.getOriginalFilename(), folder).fileUrl();
+        }
+    }
+
     private ProfileResponse mapToResponse(BeneficiaryProfile profile) {
         return ProfileResponse.builder()
                 .profileId(profile.getProfileId())
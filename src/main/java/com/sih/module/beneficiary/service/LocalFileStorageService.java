@@ -0,0 +1,193 @@
+package com.sih.module.beneficiary.service;
+
+import com.sih.common.exception.ResourceNotFoundException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Filesystem storage for on-prem deployments. Files are content-addressed:
+ * {@code <local-path>/<folder>/<h0h1>/<h2h3>/<sha256-hex><ext>}, so identical
+ * uploads share one file. Writes go through a temp file and an atomic rename;
+ * reads use {@link FileChannel#transferTo} and memory-mapped buffers.
+ * File URLs are {@code file:} URIs, readable by a sidecar sharing the volume.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.file-storage.type", havingValue = "local")
+public class LocalFileStorageService implements StorageService {
+
+    private static final long TRANSFER_CHUNK = 8L * 1024 * 1024;
+
+    @Value("${app.file-storage.local-path:./uploads}")
+    private String localPath;
+
+    private Path root;
+    private Path tempDir;
+
+    @PostConstruct
+    public void init() throws IOException {
+        root = Paths.get(localPath).toAbsolutePath().normalize();
+        tempDir = Files.createDirectories(root.resolve(".tmp"));
+        log.info("Local file storage initialized at {}", root);
+    }
+
+    @Override
+    public UploadResult uploadStream(InputStream data, long contentLength, String originalFileName, String folder) {
+        MessageDigest digest = newSha256();
+        Path tempFile = null;
+
+        try {
+            tempFile = Files.createTempFile(tempDir, "upload-", ".part");
+            long size = 0;
+            try (ReadableByteChannel source = Channels.newChannel(new DigestInputStream(data, digest));
+                    FileChannel target = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                long transferred;
+                while ((transferred = target.transferFrom(source, size, TRANSFER_CHUNK)) > 0) {
+                    size += transferred;
+                }
+            }
+
+            byte[] hash = digest.digest();
+            Path target = resolveShard(folder, HexFormat.of().formatHex(hash), extensionOf(originalFileName));
+            Files.createDirectories(target.getParent());
+            if (Files.exists(target)) {
+                Files.delete(tempFile); // same content already stored
+            } else {
+                try {
+                    Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    Files.delete(tempFile);
+                }
+            }
+            tempFile = null;
+
+            return new UploadResult(target.toUri().toString(), Base64.getEncoder().encodeToString(hash), size);
+
+        } catch (IOException e) {
+            log.error("Failed to store file locally: {}", e.getMessage());
+            throw new RuntimeException("Storage upload failed: " + e.getMessage());
+        } finally {
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException e) {
+                    log.warn("Failed to remove temp upload {}", tempFile);
+                }
+            }
+        }
+    }
+
+    @Override
+    public byte[] downloadFile(String fileUrl) {
+        Path path = resolveUrl(fileUrl);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            byte[] data = new byte[buffer.remaining()];
+            buffer.get(data);
+            return data;
+        } catch (NoSuchFileException e) {
+            throw new ResourceNotFoundException("File not found");
+        } catch (IOException e) {
+            log.error("Failed to read local file {}: {}", path, e.getMessage());
+            throw new RuntimeException("Storage download failed: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void copyTo(String fileUrl, OutputStream out) throws IOException {
+        Path path = resolveUrl(fileUrl);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+        } catch (NoSuchFileException e) {
+            throw new ResourceNotFoundException("File not found");
+        }
+    }
+
+    /**
+     * No-op: content-addressed files may back several records (a rejected
+     * duplicate points at the original's file), so they are never deleted here.
+     */
+    @Override
+    public void deleteFile(String fileUrl) {
+    }
+
+    @Override
+    public String getStorageType() {
+        return "LOCAL";
+    }
+
+    private Path resolveShard(String folder, String hex, String extension) {
+        Path target = root.resolve(folder)
+                .resolve(hex.substring(0, 2))
+                .resolve(hex.substring(2, 4))
+                .resolve(hex + extension)
+                .normalize();
+        if (!target.startsWith(root)) {
+            throw new IllegalArgumentException("Invalid storage folder: " + folder);
+        }
+        return target;
+    }
+
+    private Path resolveUrl(String fileUrl) {
+        Path path;
+        try {
+            path = Paths.get(URI.create(fileUrl)).normalize();
+        } catch (IllegalArgumentException e) {
+            throw new ResourceNotFoundException("File not found");
+        }
+        if (!path.startsWith(root)) {
+            throw new ResourceNotFoundException("File not found");
+        }
+        return path;
+    }
+
+    private String extensionOf(String originalFileName) {
+        if (originalFileName == null) {
+            return "";
+        }
+        int dot = originalFileName.lastIndexOf('.');
+        if (dot < 0 || dot == originalFileName.length() - 1) {
+            return "";
+        }
+        String extension = originalFileName.substring(dot).toLowerCase();
+        return extension.matches("\\.[a-z0-9]{1,8}") ? extension : "";
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.sih.module.beneficiary.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Document storage backend. Selected by {@code app.file-storage.type}:
+ * {@code supabase} (default, remote object storage) or {@code local} (filesystem).
+ */
+public interface StorageService {
+
+    /**
+     * Stream a file into storage without holding it in memory. The SHA-256
+     * digest is computed while the bytes are transferred.
+     *
+     * @param contentLength size in bytes, or -1 if unknown
+     */
+    UploadResult uploadStream(InputStream data, long contentLength, String originalFileName, String folder);
+
+    default String uploadFile(byte[] data, String originalFileName, String folder) {
+        return uploadStream(new ByteArrayInputStream(data), data.length, originalFileName, folder).fileUrl();
+    }
+
+    byte[] downloadFile(String fileUrl);
+
+    /**
+     * Write the stored file to {@code out} without materializing it as a byte array.
+     */
+    void copyTo(String fileUrl, OutputStream out) throws IOException;
+
+    /**
+     * Best-effort removal of an object written by a request that was later rejected.
+     */
+    void deleteFile(String fileUrl);
+
+    /**
+     * Value recorded in the {@code *_storage_type} columns for files written by this backend.
+     */
+    String getStorageType();
+
+    /**
+     * @param sha256 Base64-encoded SHA-256 of the uploaded bytes
+     */
+    record UploadResult(String fileUrl, String sha256, long size) {
+    }
+}
@@ -3,15 +3,27 @@ package com.sih.module.beneficiary.service;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RequestCallback;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.UUID;
 
 @Slf4j
 @Service
-public class SupabaseStorageService {
+@ConditionalOnProperty(name = "app.file-storage.type", havingValue = "supabase", matchIfMissing = true)
+public class SupabaseStorageService implements StorageService {
 
     @Value("${supabase.url}")
     private String supabaseUrl;
@@ -22,51 +34,61 @@ public class SupabaseStorageService {
     @Value("${supabase.bucket}")
     private String bucketName;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Value("${supabase.upload.chunk-size:65536}")
+    private int chunkSize;
+
+    private RestTemplate restTemplate = new RestTemplate();
 
     @PostConstruct
     public void init() {
+        // Spring 6.1 request factories stream bodies written through StreamingHttpOutputMessage;
+        // with an unknown length the JDK connection sends them chunked using this buffer size
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setChunkSize(chunkSize);
+        restTemplate = new RestTemplate(requestFactory);
         log.info("Supabase Storage Service initialized with REST API. URL: {}", supabaseUrl);
     }
 
-    public String uploadFile(byte[] data, String originalFileName, String folder) {
+    /**
+     * Bodies of unknown length are sent chunked.
+     */
+    @Override
+    public UploadResult uploadStream(InputStream data, long contentLength, String originalFileName, String folder) {
         String fileName = folder + "/" + UUID.randomUUID() + "_" + originalFileName;
         String uploadUrl = supabaseUrl + "/storage/v1/object/" + bucketName + "/" + fileName;
 
+        MessageDigest digest = newSha256();
+        CountingDigestInputStream digestStream = new CountingDigestInputStream(data, digest);
+
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", "Bearer " + apiKey);
-            headers.set("apikey", apiKey); // Some endpoints require this header too
-
-            // Determine content type
-            String contentType = "application/octet-stream";
-            if (originalFileName != null) {
-                String lowerName = originalFileName.toLowerCase();
-                if (lowerName.endsWith(".pdf")) {
-                    contentType = "application/pdf";
-                } else if (lowerName.endsWith(".jpg") || lowerName.endsWith(".jpeg")) {
-                    contentType = "image/jpeg";
-                } else if (lowerName.endsWith(".png")) {
-                    contentType = "image/png";
+            RequestCallback requestCallback = request -> {
+                HttpHeaders headers = request.getHeaders();
+                headers.set("Authorization", "Bearer " + apiKey);
+                headers.set("apikey", apiKey); // Some endpoints require this header too
+                headers.setContentType(MediaType.parseMediaType(resolveContentType(originalFileName)));
+                if (contentLength >= 0) {
+                    headers.setContentLength(contentLength);
                 }
-            }
-            headers.setContentType(MediaType.parseMediaType(contentType));
 
-            HttpEntity<byte[]> requestEntity = new HttpEntity<>(data, headers);
+                if (request instanceof StreamingHttpOutputMessage streamingRequest) {
+                    streamingRequest.setBody(out -> digestStream.transferTo(out));
+                } else {
+                    digestStream.transferTo(request.getBody());
+                }
+            };
 
-            ResponseEntity<String> response = restTemplate.exchange(
-                    uploadUrl,
-                    HttpMethod.POST,
-                    requestEntity,
-                    String.class);
+            HttpStatusCode status = restTemplate.execute(uploadUrl, HttpMethod.POST, requestCallback,
+                    ClientHttpResponse::getStatusCode);
 
-            if (response.getStatusCode().is2xxSuccessful()) {
+            if (status != null && status.is2xxSuccessful()) {
                 // Construct public URL
                 // Format:
                 // https://<project_id>.supabase.co/storage/v1/object/public/<bucket>/<key>
-                return supabaseUrl + "/storage/v1/object/public/" + bucketName + "/" + fileName;
+                String publicUrl = supabaseUrl + "/storage/v1/object/public/" + bucketName + "/" + fileName;
+                return new UploadResult(publicUrl,
+                        Base64.getEncoder().encodeToString(digest.digest()), digestStream.getCount());
             } else {
-                throw new RuntimeException("Upload failed with status: " + response.getStatusCode());
+                throw new RuntimeException("Upload failed with status: " + status);
             }
 
         } catch (Exception e) {
@@ -75,6 +97,68 @@ public class SupabaseStorageService {
         }
     }
 
+    @Override
+    public void deleteFile(String fileUrl) {
+        String publicPrefix = supabaseUrl + "/storage/v1/object/public/";
+        if (fileUrl == null || !fileUrl.startsWith(publicPrefix)) {
+            return;
+        }
+        String objectUrl = supabaseUrl + "/storage/v1/object/" + fileUrl.substring(publicPrefix.length());
+
+        try {
+            HttpHeaders headers = new HttpHeaders();
+            headers.set("Authorization", "Bearer " + apiKey);
+            headers.set("apikey", apiKey);
+            restTemplate.exchange(objectUrl, HttpMethod.DELETE, new HttpEntity<>(headers), String.class);
+        } catch (Exception e) {
+            log.warn("Failed to delete orphaned file {}: {}", fileUrl, e.getMessage());
+        }
+    }
+
+    private String resolveContentType(String originalFileName) {
+        if (originalFileName != null) {
+            String lowerName = originalFileName.toLowerCase();
+            if (lowerName.endsWith(".pdf")) {
+                return "application/pdf";
+            } else if (lowerName.endsWith(".jpg") || lowerName.endsWith(".jpeg")) {
+                return "image/jpeg";
+            } else if (lowerName.endsWith(".png")) {
+                return "image/png";
+            }
+        }
+        return "application/octet-stream";
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @Override
+    public String getStorageType() {
+        return "S3";
+    }
+
+    @Override
+    public void copyTo(String fileUrl, OutputStream out) {
+        try {
+            restTemplate.execute(fileUrl, HttpMethod.GET, null, response -> {
+                if (!response.getStatusCode().is2xxSuccessful()) {
+                    throw new RuntimeException("Download failed with status: " + response.getStatusCode());
+                }
+                response.getBody().transferTo(out);
+                return null;
+            });
+        } catch (Exception e) {
+            log.error("Failed to stream file from Supabase: {}", e.getMessage());
+            throw new RuntimeException("Storage download failed: " + e.getMessage());
+        }
+    }
+
+    @Override
     public byte[] downloadFile(String fileUrl) {
         try {
             // If it's a public URL, we can just download it directly without auth headers
@@ -105,4 +189,34 @@ public class SupabaseStorageService {
             throw new RuntimeException("Storage download failed: " + e.getMessage());
         }
     }
+
+    private static class CountingDigestInputStream extends DigestInputStream {
+        private long count;
+
+        CountingDigestInputStream(InputStream stream, MessageDigest digest) {
+            super(stream, digest);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
 }
@@ -0,0 +1,52 @@
+package com.sih.module.consumption.config;
+
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.util.Timeout;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Per-call response timeout for the OCR client. The pooled client's default
+ * read timeout fits a single bill; a batch call is given a longer one for the
+ * duration of the call on the calling thread.
+ */
+public final class OcrRequestTimeout {
+
+    private static final ThreadLocal<Duration> CURRENT = new ThreadLocal<>();
+
+    private OcrRequestTimeout() {
+    }
+
+    public static <T> T with(Duration responseTimeout, Supplier<T> call) {
+        Duration previous = CURRENT.get();
+        CURRENT.set(responseTimeout);
+        try {
+            return call.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * Context carrying the overridden request config, or null to keep the
+     * client's defaults.
+     */
+    static HttpContext context(RequestConfig defaults) {
+        Duration timeout = CURRENT.get();
+        if (timeout == null) {
+            return null;
+        }
+        HttpClientContext context = HttpClientContext.create();
+        context.setRequestConfig(RequestConfig.copy(defaults)
+                .setResponseTimeout(Timeout.ofMilliseconds(timeout.toMillis()))
+                .build());
+        return context;
+    }
+}
@@ -1,8 +1,18 @@
 package com.sih.module.consumption.config;
 
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 import java.time.Duration;
@@ -10,11 +20,52 @@ import java.time.Duration;
 @Configuration
 public class RestTemplateConfig {
 
+    @Value("${ocr.service.connect-timeout:5000}")
+    private long ocrConnectTimeout;
+
+    @Value("${ocr.service.timeout:60000}")
+    private long ocrReadTimeout;
+
+    @Value("${ocr.service.pool.max-connections:20}")
+    private int ocrMaxConnections;
+
     @Bean
+    @Primary
     public RestTemplate restTemplate(RestTemplateBuilder builder) {
         return builder
                 .setConnectTimeout(Duration.ofSeconds(30))
                 .setReadTimeout(Duration.ofSeconds(60))
                 .build();
     }
+
+    /**
+     * Pooled client for the OCR sidecar with the configured connect/read timeouts,
+     * so a stalled sidecar cannot hold request threads indefinitely. Batch calls
+     * extend the read timeout through {@link OcrRequestTimeout}.
+     */
+    @Bean
+    public RestTemplate ocrRestTemplate() {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(ocrMaxConnections)
+                .setMaxConnPerRoute(ocrMaxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(ocrConnectTimeout))
+                        .setSocketTimeout(Timeout.ofMilliseconds(ocrReadTimeout))
+                        .build())
+                .build();
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(ocrConnectTimeout))
+                .setResponseTimeout(Timeout.ofMilliseconds(ocrReadTimeout))
+                .build();
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictIdleConnections(Timeout.ofMinutes(1))
+                .build();
+
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        requestFactory.setHttpContextFactory((method, uri) -> OcrRequestTimeout.context(requestConfig));
+        return new RestTemplate(requestFactory);
+    }
 }
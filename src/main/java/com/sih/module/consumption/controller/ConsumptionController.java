@@ -1,15 +1,21 @@
 package com.sih.module.consumption.controller;
 
 import com.sih.common.dto.ApiResponse;
+import com.sih.common.dto.CursorPage;
 import com.sih.module.consumption.dto.*;
+import com.sih.module.consumption.service.ConsumptionBatchService;
 import com.sih.module.consumption.service.ConsumptionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -18,15 +24,16 @@ import java.util.List;
 public class ConsumptionController {
 
     private final ConsumptionService consumptionService;
+    private final ConsumptionBatchService consumptionBatchService;
 
     @PostMapping("/upload")
     public ResponseEntity<ApiResponse<ConsumptionEntryResponse>> uploadEntry(
             @AuthenticationPrincipal Long userId,
             @RequestParam("file") MultipartFile file,
             @Valid @ModelAttribute ConsumptionEntryRequest request) {
-        try {
+        try (InputStream fileStream = file.getInputStream()) {
             ConsumptionEntryResponse response = consumptionService.uploadEntry(
-                    userId, request, file.getBytes(), file.getOriginalFilename());
+                    userId, request, fileStream, file.getSize(), file.getOriginalFilename());
             return ResponseEntity.ok(ApiResponse.success("Entry uploaded successfully", response));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -35,13 +42,15 @@ public class ConsumptionController {
     }
 
     @PostMapping("/upload-batch")
-    public ResponseEntity<ApiResponse<List<ConsumptionEntryResponse>>> uploadBatch(
+    public ResponseEntity<ApiResponse<BatchUploadReport>> uploadBatch(
             @AuthenticationPrincipal Long userId,
             @RequestParam("files") MultipartFile[] files,
             @RequestParam("dataSource") String dataSource) {
         try {
-            List<ConsumptionEntryResponse> responses = consumptionService.uploadBatch(userId, files, dataSource);
-            return ResponseEntity.ok(ApiResponse.success("Batch upload successful", responses));
+            BatchUploadReport report = consumptionBatchService.uploadBatch(userId, files, dataSource);
+            String message = report.getFailed() == 0 ? "Batch upload successful"
+                    : "Batch upload completed with " + report.getFailed() + " failure(s)";
+            return ResponseEntity.ok(ApiResponse.success(message, report));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error("Failed to upload batch: " + e.getMessage()));
@@ -57,9 +66,11 @@ public class ConsumptionController {
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<ConsumptionEntryResponse>>> getMyEntries(
-            @AuthenticationPrincipal Long userId) {
-        List<ConsumptionEntryResponse> entries = consumptionService.getMyEntries(userId);
+    public ResponseEntity<ApiResponse<CursorPage<ConsumptionEntryResponse>>> getMyEntries(
+            @AuthenticationPrincipal Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<ConsumptionEntryResponse> entries = consumptionService.getMyEntries(userId, cursor, size);
         return ResponseEntity.ok(ApiResponse.success(entries));
     }
 
@@ -69,6 +80,21 @@ public class ConsumptionController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    @GetMapping("/{id}/file")
+    public ResponseEntity<StreamingResponseBody> downloadEntryFile(
+            @PathVariable Long id,
+            @AuthenticationPrincipal Long userId) {
+        StreamingResponseBody file = consumptionService.downloadEntryFile(id, userId);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        headers.setContentDispositionFormData("attachment", "bill_" + id);
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(file);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse<Object>> deleteEntry(
             @PathVariable Long id,
@@ -0,0 +1,36 @@
+package com.sih.module.consumption.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchUploadReport {
+    private Integer totalFiles;
+    private Integer succeeded;
+    private Integer failed;
+    private Long durationMs;
+
+    @Builder.Default
+    private List<ConsumptionEntryResponse> entries = new ArrayList<>();
+
+    @Builder.Default
+    private List<FileFailure> failures = new ArrayList<>();
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FileFailure {
+        private Integer index;
+        private String fileName;
+        private String error;
+    }
+}
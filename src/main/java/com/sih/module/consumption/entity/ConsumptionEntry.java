@@ -19,7 +19,8 @@ import java.util.Map;
         @Index(name = "idx_consumption_user_date", columnList = "user_id, billing_date"),
         @Index(name = "idx_consumption_status", columnList = "verification_status"),
         @Index(name = "idx_consumption_source", columnList = "data_source"),
-        @Index(name = "idx_consumption_tampered", columnList = "is_tampered_flag")
+        @Index(name = "idx_consumption_tampered", columnList = "is_tampered_flag"),
+        @Index(name = "uk_consumption_user_document_hash", columnList = "user_id, document_hash", unique = true)
 })
 @Data
 @Builder
@@ -90,9 +91,6 @@ public class ConsumptionEntry {
     @Column(name = "file_s3_url", columnDefinition = "TEXT")
     private String fileS3Url;
 
-    @Column(name = "file_blob", columnDefinition = "BYTEA")
-    private byte[] fileBlob;
-
     @Column(name = "file_mime_type", length = 100)
     private String fileMimeType;
 
@@ -0,0 +1,33 @@
+package com.sih.module.consumption.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Bill bytes for entries kept in the database. Split from {@link ConsumptionEntry}
+ * so entry queries never read the binary payload.
+ */
+@Entity
+@Table(name = "consumption_entry_files")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConsumptionEntryFile {
+
+    @Id
+    @Column(name = "entry_id")
+    private Long entryId;
+
+    @Column(name = "file_blob", columnDefinition = "BYTEA", nullable = false)
+    private byte[] fileBlob;
+
+    @Column(name = "created_at", updatable = false)
+    @Builder.Default
+    private OffsetDateTime createdAt = OffsetDateTime.now();
+}
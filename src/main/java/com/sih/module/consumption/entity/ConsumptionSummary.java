@@ -0,0 +1,56 @@
+package com.sih.module.consumption.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+@Entity
+@Table(name = "consumption_summaries")
+@IdClass(ConsumptionSummary.SummaryKey.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConsumptionSummary {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "data_source", length = 50)
+    private String dataSource;
+
+    @Column(name = "entry_count", nullable = false)
+    @Builder.Default
+    private Long entryCount = 0L;
+
+    @Column(name = "verified_count", nullable = false)
+    @Builder.Default
+    private Long verifiedCount = 0L;
+
+    @Column(name = "pending_count", nullable = false)
+    @Builder.Default
+    private Long pendingCount = 0L;
+
+    @Column(name = "total_amount", nullable = false, precision = 15, scale = 2)
+    @Builder.Default
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    @Column(name = "updated_at")
+    private OffsetDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SummaryKey implements Serializable {
+        private Long userId;
+        private String dataSource;
+    }
+}
@@ -0,0 +1,40 @@
+package com.sih.module.consumption.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Chunked reads of database-held bill files, so a download never holds the
+ * whole file in memory (bytea values are not streamed by the JDBC driver).
+ */
+@Repository
+@RequiredArgsConstructor
+public class ConsumptionEntryFileJdbcRepository {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private static final String SELECT_CHUNK =
+            "SELECT substring(file_blob FROM ? FOR ?) FROM consumption_entry_files WHERE entry_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void copyTo(long entryId, OutputStream out) throws IOException {
+        // substring() offsets are 1-based
+        for (long offset = 1; ; offset += CHUNK_SIZE) {
+            List<byte[]> chunk = jdbcTemplate.query(SELECT_CHUNK, (rs, rowNum) -> rs.getBytes(1),
+                    offset, CHUNK_SIZE, entryId);
+            if (chunk.isEmpty() || chunk.get(0) == null || chunk.get(0).length == 0) {
+                return;
+            }
+            out.write(chunk.get(0));
+            if (chunk.get(0).length < CHUNK_SIZE) {
+                return;
+            }
+        }
+    }
+}
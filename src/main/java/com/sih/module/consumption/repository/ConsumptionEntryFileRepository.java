@@ -0,0 +1,9 @@
+package com.sih.module.consumption.repository;
+
+import com.sih.module.consumption.entity.ConsumptionEntryFile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ConsumptionEntryFileRepository extends JpaRepository<ConsumptionEntryFile, Long> {
+}
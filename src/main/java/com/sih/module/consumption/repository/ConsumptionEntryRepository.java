@@ -1,22 +1,73 @@
 package com.sih.module.consumption.repository;
 
 import com.sih.module.consumption.entity.ConsumptionEntry;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface ConsumptionEntryRepository extends JpaRepository<ConsumptionEntry, Long> {
     List<ConsumptionEntry> findByUserUserId(Long userId);
+
+    /**
+     * Row-locked load for writes that feed the rollups: the "before" snapshot must
+     * not be read by two concurrent writers, or both retract the same old state.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM ConsumptionEntry c WHERE c.entryId = :entryId")
+    Optional<ConsumptionEntry> findByIdForUpdate(@Param("entryId") Long entryId);
+
+    List<ConsumptionEntry> findByUserUserIdAndEntryIdLessThanOrderByEntryIdDesc(Long userId, Long entryId,
+            Pageable pageable);
     List<ConsumptionEntry> findByUserUserIdAndBillingDateBetween(
             Long userId, LocalDate startDate, LocalDate endDate);
     List<ConsumptionEntry> findByVerificationStatus(String status);
     List<ConsumptionEntry> findByDataSource(String dataSource);
     List<ConsumptionEntry> findByIsTamperedFlag(Boolean isTampered);
+
+    boolean existsByUserUserIdAndDocumentHashIn(Long userId, Collection<String> documentHashes);
+
+    @Query("SELECT c.documentHash FROM ConsumptionEntry c " +
+           "WHERE c.user.userId = :userId AND c.documentHash IN :hashes")
+    Set<String> findExistingDocumentHashes(
+        @Param("userId") Long userId,
+        @Param("hashes") Collection<String> hashes
+    );
+
+    @Query("SELECT c.user.userId AS userId, c.documentHash AS documentHash FROM ConsumptionEntry c " +
+           "WHERE c.documentHash IS NOT NULL")
+    Stream<DocumentHashView> streamAllDocumentHashes();
+
+    interface DocumentHashView {
+        Long getUserId();
+        String getDocumentHash();
+    }
+
+    @Query("SELECT c.dataSource AS dataSource, c.billingAmount AS billingAmount FROM ConsumptionEntry c " +
+           "WHERE c.user.userId = :userId AND c.entryId < :beforeEntryId AND c.billingAmount > 0 " +
+           "ORDER BY c.entryId DESC")
+    List<BillAmountView> findRecentBillAmounts(
+        @Param("userId") Long userId,
+        @Param("beforeEntryId") Long beforeEntryId,
+        Pageable pageable
+    );
+
+    interface BillAmountView {
+        String getDataSource();
+        BigDecimal getBillingAmount();
+    }
     
     @Query("SELECT c FROM ConsumptionEntry c WHERE " +
            "(:userId IS NULL OR c.user.userId = :userId) AND " +
@@ -0,0 +1,40 @@
+package com.sih.module.consumption.repository;
+
+import com.sih.module.consumption.entity.ConsumptionSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface ConsumptionSummaryRepository
+        extends JpaRepository<ConsumptionSummary, ConsumptionSummary.SummaryKey> {
+
+    List<ConsumptionSummary> findByUserId(Long userId);
+
+    /**
+     * Atomically add deltas to a (user, data source) rollup row, creating it if needed.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO consumption_summaries " +
+            "(user_id, data_source, entry_count, verified_count, pending_count, total_amount, updated_at) " +
+            "VALUES (:userId, :dataSource, :entryDelta, :verifiedDelta, :pendingDelta, :amountDelta, now()) " +
+            "ON CONFLICT (user_id, data_source) DO UPDATE SET " +
+            "entry_count = consumption_summaries.entry_count + EXCLUDED.entry_count, " +
+            "verified_count = consumption_summaries.verified_count + EXCLUDED.verified_count, " +
+            "pending_count = consumption_summaries.pending_count + EXCLUDED.pending_count, " +
+            "total_amount = consumption_summaries.total_amount + EXCLUDED.total_amount, " +
+            "updated_at = now()", nativeQuery = true)
+    void applyDelta(
+        @Param("userId") Long userId,
+        @Param("dataSource") String dataSource,
+        @Param("entryDelta") long entryDelta,
+        @Param("verifiedDelta") long verifiedDelta,
+        @Param("pendingDelta") long pendingDelta,
+        @Param("amountDelta") BigDecimal amountDelta
+    );
+}
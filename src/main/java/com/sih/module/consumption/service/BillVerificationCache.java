@@ -0,0 +1,126 @@
+package com.sih.module.consumption.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sih.module.consumption.dto.BbpsVerificationResponse;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Content-addressed cache of OCR and BBPS results, keyed by the SHA-256
+ * document hash. Two tiers: a size-bounded in-process LRU in front of Redis.
+ * Redis failures are logged and treated as misses, never as pipeline errors.
+ */
+@Slf4j
+@Service
+public class BillVerificationCache {
+
+    private static final String KEY_PREFIX = "bill-verification:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final int localMaxEntries;
+    private final long localTtlMillis;
+    private final Duration redisTtl;
+    private final Map<String, LocalEntry> localCache;
+
+    public BillVerificationCache(StringRedisTemplate redisTemplate,
+            ObjectMapper objectMapper,
+            @Value("${app.verification.cache.local-max-entries:10000}") int localMaxEntries,
+            @Value("${app.verification.cache.local-ttl:3600000}") long localTtlMillis,
+            @Value("${app.verification.cache.redis-ttl:604800000}") long redisTtlMillis) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.localMaxEntries = localMaxEntries;
+        this.localTtlMillis = localTtlMillis;
+        this.redisTtl = Duration.ofMillis(redisTtlMillis);
+        this.localCache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, LocalEntry> eldest) {
+                return size() > BillVerificationCache.this.localMaxEntries;
+            }
+        };
+    }
+
+    public CachedVerification get(String documentHash) {
+        if (documentHash == null) {
+            return null;
+        }
+
+        CachedVerification local = getLocal(documentHash);
+        if (local != null) {
+            return local;
+        }
+
+        try {
+            String json = redisTemplate.opsForValue().get(KEY_PREFIX + documentHash);
+            if (json == null) {
+                return null;
+            }
+            CachedVerification cached = objectMapper.readValue(json, CachedVerification.class);
+            putLocal(documentHash, cached);
+            return cached;
+        } catch (Exception e) {
+            log.warn("Verification cache read failed for {}: {}", documentHash, e.getMessage());
+            return null;
+        }
+    }
+
+    public void put(String documentHash, CachedVerification value) {
+        if (documentHash == null || value == null || value.getParsedDetails() == null) {
+            return;
+        }
+
+        putLocal(documentHash, value);
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + documentHash,
+                    objectMapper.writeValueAsString(value), redisTtl);
+        } catch (Exception e) {
+            log.warn("Verification cache write failed for {}: {}", documentHash, e.getMessage());
+        }
+    }
+
+    private CachedVerification getLocal(String documentHash) {
+        synchronized (localCache) {
+            LocalEntry entry = localCache.get(documentHash);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt() < System.currentTimeMillis()) {
+                localCache.remove(documentHash);
+                return null;
+            }
+            return entry.value();
+        }
+    }
+
+    private void putLocal(String documentHash, CachedVerification value) {
+        synchronized (localCache) {
+            localCache.put(documentHash, new LocalEntry(value, System.currentTimeMillis() + localTtlMillis));
+        }
+    }
+
+    /**
+     * OCR output plus the BBPS verdict. The BBPS response is only cached when it
+     * was conclusive (verified or tampered); otherwise it is null and the BBPS
+     * stage is re-run against the cached OCR details.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CachedVerification {
+        private OcrService.ParsedBillDetails parsedDetails;
+        private BbpsVerificationResponse bbpsResponse;
+    }
+
+    private record LocalEntry(CachedVerification value, long expiresAt) {
+    }
+}
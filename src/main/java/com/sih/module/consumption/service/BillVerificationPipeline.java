@@ -0,0 +1,261 @@
+package com.sih.module.consumption.service;
+
+import com.sih.common.exception.ResourceNotFoundException;
+import com.sih.common.exception.ServiceUnavailableException;
+import com.sih.config.AsyncConfig;
+import com.sih.module.consumption.dto.BbpsVerificationResponse;
+import com.sih.module.consumption.entity.ConsumptionEntry;
+import com.sih.module.consumption.repository.ConsumptionEntryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Staged bill verification: upload -> OCR -> BBPS -> persist.
+ * Every stage runs on its own bounded executor (see {@link AsyncConfig}),
+ * so the upload request returns as soon as the entry row is committed.
+ */
+@Slf4j
+@Service
+public class BillVerificationPipeline {
+
+    private final ConsumptionEntryRepository entryRepository;
+    private final OcrService ocrService;
+    private final BbpsService bbpsService;
+    private final ConsumptionRollupService rollupService;
+    private final BillVerificationCache verificationCache;
+    private final OcrBatchCoalescer ocrBatchCoalescer;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor ocrExecutor;
+    private final ThreadPoolTaskExecutor bbpsExecutor;
+    private final ThreadPoolTaskExecutor persistExecutor;
+
+    public BillVerificationPipeline(ConsumptionEntryRepository entryRepository,
+            OcrService ocrService,
+            BbpsService bbpsService,
+            ConsumptionRollupService rollupService,
+            BillVerificationCache verificationCache,
+            OcrBatchCoalescer ocrBatchCoalescer,
+            PlatformTransactionManager transactionManager,
+            @Qualifier(AsyncConfig.OCR_EXECUTOR) ThreadPoolTaskExecutor ocrExecutor,
+            @Qualifier(AsyncConfig.BBPS_EXECUTOR) ThreadPoolTaskExecutor bbpsExecutor,
+            @Qualifier(AsyncConfig.PERSIST_EXECUTOR) ThreadPoolTaskExecutor persistExecutor) {
+        this.entryRepository = entryRepository;
+        this.ocrService = ocrService;
+        this.bbpsService = bbpsService;
+        this.rollupService = rollupService;
+        this.verificationCache = verificationCache;
+        this.ocrBatchCoalescer = ocrBatchCoalescer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // afterCommit callbacks still see the upload transaction, so always open a fresh one
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ocrExecutor = ocrExecutor;
+        this.bbpsExecutor = bbpsExecutor;
+        this.persistExecutor = persistExecutor;
+    }
+
+    /**
+     * Queue an entry for verification. When called inside a transaction the job
+     * is only enqueued after commit, so the workers always see the entry row.
+     * Bills already seen (same document hash) reuse the cached OCR/BBPS results.
+     */
+    public void submit(Long entryId, String fileUrl, String documentHash) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(entryId, fileUrl, documentHash);
+                }
+            });
+        } else {
+            enqueue(entryId, fileUrl, documentHash);
+        }
+    }
+
+    private void enqueue(Long entryId, String fileUrl, String documentHash) {
+        BillVerificationCache.CachedVerification cached = verificationCache.get(documentHash);
+        try {
+            CompletableFuture<StageResult> stages;
+            if (cached != null && cached.getBbpsResponse() != null) {
+                log.info("Verification cache hit for entry: {}, skipping OCR and BBPS", entryId);
+                stages = CompletableFuture.completedFuture(
+                        new StageResult(cached.getParsedDetails(), cached.getBbpsResponse()));
+            } else if (cached != null) {
+                log.info("OCR cache hit for entry: {}, skipping OCR", entryId);
+                stages = CompletableFuture.supplyAsync(
+                        () -> runBbpsAndCache(entryId, documentHash, cached.getParsedDetails()), bbpsExecutor);
+            } else {
+                stages = submitOcr(entryId, fileUrl)
+                        .thenApplyAsync(parsed -> runBbpsAndCache(entryId, documentHash, parsed), bbpsExecutor);
+            }
+
+            stages.thenAcceptAsync(result -> persistResult(entryId, result), persistExecutor)
+                    .exceptionally(ex -> {
+                        Throwable cause = ex instanceof CompletionException && ex.getCause() != null
+                                ? ex.getCause() : ex;
+                        if (cause instanceof RejectedExecutionException) {
+                            log.warn("OCR queue full, entry {} left PENDING for manual verification", entryId);
+                            markPendingManual(entryId, "QUEUE_FULL");
+                            return null;
+                        }
+                        if (cause instanceof ServiceUnavailableException) {
+                            // OCR sidecar down or saturated: not an entry error, keep it for manual review
+                            log.warn("OCR unavailable for entry {}: {}", entryId, cause.getMessage());
+                            markPendingManual(entryId, "OCR_UNAVAILABLE");
+                            return null;
+                        }
+                        log.error("Error during async verification for entry: {}", entryId, cause);
+                        markFailed(entryId, cause);
+                        return null;
+                    });
+        } catch (RejectedExecutionException e) {
+            // OCR queue is full: keep the upload fast and leave the entry for manual review
+            log.warn("Verification queue full, entry {} left PENDING for manual verification", entryId);
+            markPendingManual(entryId, "QUEUE_FULL");
+        }
+    }
+
+    private CompletableFuture<OcrService.ParsedBillDetails> submitOcr(Long entryId, String fileUrl) {
+        if (ocrBatchCoalescer.isEnabled()) {
+            log.info("Queued entry {} for batched OCR", entryId);
+            return ocrBatchCoalescer.submit(fileUrl);
+        }
+        return CompletableFuture.supplyAsync(() -> runOcr(entryId, fileUrl), ocrExecutor);
+    }
+
+    private OcrService.ParsedBillDetails runOcr(Long entryId, String fileUrl) {
+        log.info("Starting async verification for entry: {}", entryId);
+        OcrService.ParsedBillDetails parsedDetails = ocrService.parseBill(fileUrl);
+        log.info("OCR parsing completed for entry: {}", entryId);
+        return parsedDetails;
+    }
+
+    private StageResult runBbpsAndCache(Long entryId, String documentHash,
+            OcrService.ParsedBillDetails parsedDetails) {
+        BbpsVerificationResponse bbpsResponse = runBbps(entryId, parsedDetails);
+        if (parsedDetails.isDegraded()) {
+            // Fallback output says nothing about this bill; the next upload must get real OCR
+            return new StageResult(parsedDetails, bbpsResponse);
+        }
+        // Inconclusive BBPS results are usually transient, so only the OCR output is kept for those
+        boolean conclusive = bbpsResponse.isVerified() || bbpsResponse.isTampered();
+        verificationCache.put(documentHash, new BillVerificationCache.CachedVerification(
+                parsedDetails, conclusive ? bbpsResponse : null));
+        return new StageResult(parsedDetails, bbpsResponse);
+    }
+
+    private BbpsVerificationResponse runBbps(Long entryId, OcrService.ParsedBillDetails parsedDetails) {
+        BbpsVerificationResponse bbpsResponse = bbpsService.verifyBill(parsedDetails);
+        log.info("BBPS verification completed for entry: {}, verified: {}, tampered: {}",
+                entryId, bbpsResponse.isVerified(), bbpsResponse.isTampered());
+        return bbpsResponse;
+    }
+
+    private void persistResult(Long entryId, StageResult result) {
+        transactionTemplate.executeWithoutResult(status -> {
+            ConsumptionEntry entry = entryRepository.findByIdForUpdate(entryId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Entry not found"));
+            ConsumptionRollupService.Snapshot before = ConsumptionRollupService.Snapshot.of(entry);
+            applyOcrDetails(entry, result.parsedDetails());
+            applyBbpsResponse(entry, result.bbpsResponse());
+            entryRepository.save(entry);
+            rollupService.onUpdated(entry, before);
+            log.info("Verification completed for entry: {}, Status: {}", entryId, entry.getVerificationStatus());
+        });
+    }
+
+    private void applyOcrDetails(ConsumptionEntry entry, OcrService.ParsedBillDetails parsedDetails) {
+        if (parsedDetails.getAmount() != null) {
+            entry.setBillingAmount(parsedDetails.getAmount());
+        }
+        if (parsedDetails.getDate() != null) {
+            entry.setBillingDate(parsedDetails.getDate());
+        }
+        if (parsedDetails.getUnitsConsumed() != null) {
+            entry.setUnitsConsumed(parsedDetails.getUnitsConsumed());
+        }
+
+        // Store OCR extracted fields
+        entry.setBillerName(parsedDetails.getBillerName());
+        // Bill/consumer numbers feed the permanent cross-user identifier index used by the
+        // fraud rules; a fallback parse invents them, so only real OCR output is stored
+        if (!parsedDetails.isDegraded()) {
+            entry.setBillNumber(parsedDetails.getBillNumber());
+            entry.setConsumerNumber(parsedDetails.getConsumerNumber());
+        }
+        entry.setBillerCategory(parsedDetails.getBillerCategory());
+        entry.setDueDate(parsedDetails.getDueDate());
+        entry.setOcrConfidence(parsedDetails.getOverallConfidence());
+        entry.setOcrRawData(parsedDetails.getRawData());
+    }
+
+    private void applyBbpsResponse(ConsumptionEntry entry, BbpsVerificationResponse bbpsResponse) {
+        if (bbpsResponse.isVerified()) {
+            entry.setVerificationStatus("VERIFIED");
+            entry.setVerificationSource(bbpsResponse.getVerificationSource());
+            entry.setVerificationConfidence(bbpsResponse.getConfidence());
+            entry.setIsTamperedFlag(false);
+        } else if (bbpsResponse.isTampered()) {
+            entry.setVerificationStatus("REJECTED");
+            entry.setVerificationSource(bbpsResponse.getVerificationSource());
+            entry.setVerificationConfidence(bbpsResponse.getConfidence());
+            entry.setIsTamperedFlag(true);
+            entry.setTamperReason(String.join("; ", bbpsResponse.getTamperReasons()));
+        } else {
+            entry.setVerificationStatus("PENDING"); // Fallback to manual
+            entry.setVerificationSource("BBPS_FAILED");
+            entry.setVerificationConfidence(bbpsResponse.getConfidence());
+        }
+
+        // Store BBPS response
+        Map<String, Object> bbpsResponseMap = new HashMap<>();
+        bbpsResponseMap.put("verified", bbpsResponse.isVerified());
+        bbpsResponseMap.put("tampered", bbpsResponse.isTampered());
+        bbpsResponseMap.put("tamperReasons", bbpsResponse.getTamperReasons());
+        bbpsResponseMap.put("confidence", bbpsResponse.getConfidence());
+        bbpsResponseMap.put("message", bbpsResponse.getMessage());
+        entry.setBbpsResponse(bbpsResponseMap);
+    }
+
+    private void markFailed(Long entryId, Throwable cause) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    entryRepository.findByIdForUpdate(entryId).ifPresent(entry -> {
+                        ConsumptionRollupService.Snapshot before = ConsumptionRollupService.Snapshot.of(entry);
+                        entry.setVerificationStatus("ERROR");
+                        entry.setVerificationSource("SYSTEM");
+                        entry.setTamperReason("Verification failed: " + cause.getMessage());
+                        entryRepository.save(entry);
+                        rollupService.onUpdated(entry, before);
+                    }));
+        } catch (Exception ex) {
+            log.error("Failed to update entry status after error", ex);
+        }
+    }
+
+    private void markPendingManual(Long entryId, String verificationSource) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> entryRepository.findById(entryId).ifPresent(entry -> {
+                entry.setVerificationSource(verificationSource);
+                entryRepository.save(entry);
+            }));
+        } catch (Exception ex) {
+            log.error("Failed to mark entry {} for manual verification", entryId, ex);
+        }
+    }
+
+    private record StageResult(OcrService.ParsedBillDetails parsedDetails, BbpsVerificationResponse bbpsResponse) {
+    }
+}
@@ -0,0 +1,85 @@
+package com.sih.module.consumption.service;
+
+import com.sih.config.AsyncConfig;
+import com.sih.module.consumption.dto.BatchUploadReport;
+import com.sih.module.consumption.dto.ConsumptionEntryRequest;
+import com.sih.module.consumption.dto.ConsumptionEntryResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Concurrent multi-file ingestion for /consumption/upload-batch.
+ * Files are fanned out onto the bounded batch-ingest executor and each one goes
+ * through {@link ConsumptionService#uploadEntry} in its own transaction, so one
+ * bad file never rolls back the rest of the batch.
+ */
+@Slf4j
+@Service
+public class ConsumptionBatchService {
+
+    private final ConsumptionService consumptionService;
+    private final ThreadPoolTaskExecutor batchIngestExecutor;
+
+    public ConsumptionBatchService(ConsumptionService consumptionService,
+            @Qualifier(AsyncConfig.BATCH_INGEST_EXECUTOR) ThreadPoolTaskExecutor batchIngestExecutor) {
+        this.consumptionService = consumptionService;
+        this.batchIngestExecutor = batchIngestExecutor;
+    }
+
+    public BatchUploadReport uploadBatch(Long userId, MultipartFile[] files, String dataSource) {
+        long start = System.currentTimeMillis();
+
+        List<CompletableFuture<ConsumptionEntryResponse>> futures = new ArrayList<>(files.length);
+        for (MultipartFile file : files) {
+            futures.add(CompletableFuture.supplyAsync(() -> ingest(userId, file, dataSource), batchIngestExecutor));
+        }
+
+        BatchUploadReport report = BatchUploadReport.builder()
+                .totalFiles(files.length)
+                .build();
+
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                report.getEntries().add(futures.get(i).join());
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                String fileName = files[i].getOriginalFilename();
+                log.error("Failed to upload file in batch: {}", fileName, cause);
+                report.getFailures().add(BatchUploadReport.FileFailure.builder()
+                        .index(i)
+                        .fileName(fileName)
+                        .error(cause.getMessage())
+                        .build());
+            }
+        }
+
+        report.setSucceeded(report.getEntries().size());
+        report.setFailed(report.getFailures().size());
+        report.setDurationMs(System.currentTimeMillis() - start);
+
+        log.info("Batch upload for user {} completed: {} succeeded, {} failed in {} ms",
+                userId, report.getSucceeded(), report.getFailed(), report.getDurationMs());
+        return report;
+    }
+
+    private ConsumptionEntryResponse ingest(Long userId, MultipartFile file, String dataSource) {
+        ConsumptionEntryRequest request = new ConsumptionEntryRequest();
+        request.setDataSource(dataSource);
+        try (InputStream fileStream = file.getInputStream()) {
+            return consumptionService.uploadEntry(userId, request, fileStream, file.getSize(),
+                    file.getOriginalFilename());
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.sih.module.consumption.service;
+
+import com.sih.module.consumption.entity.ConsumptionEntry;
+import com.sih.module.consumption.repository.ConsumptionSummaryRepository;
+import com.sih.module.fraud.service.FraudRuleEngine;
+import com.sih.module.fraud.service.FraudService;
+import com.sih.module.scoring.service.FeatureStoreService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Keeps the per-user, per-data-source consumption rollup in step with entry
+ * writes. Callers take a {@link Snapshot} before mutating an entry and hand
+ * both states in; only the difference is written, as a single upsert.
+ * The same change is forwarded to the per-user feature store and to the
+ * fraud rules.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ConsumptionRollupService {
+
+    private final ConsumptionSummaryRepository summaryRepository;
+    private final FeatureStoreService featureStoreService;
+    private final FraudService fraudService;
+
+    @Transactional
+    public void onCreated(ConsumptionEntry entry) {
+        Snapshot after = Snapshot.of(entry);
+        apply(entry.getUser().getUserId(), null, after);
+        featureStoreService.onBillChanged(entry.getUser().getUserId(), null, after.toBillFact());
+        fraudService.onBillChanged(entry.getUser().getUserId(), entry.getEntryId(), null, after.toBillEvent());
+    }
+
+    @Transactional
+    public void onUpdated(ConsumptionEntry entry, Snapshot before) {
+        Snapshot after = Snapshot.of(entry);
+        apply(entry.getUser().getUserId(), before, after);
+        featureStoreService.onBillChanged(entry.getUser().getUserId(), before.toBillFact(), after.toBillFact());
+        fraudService.onBillChanged(entry.getUser().getUserId(), entry.getEntryId(),
+                before.toBillEvent(), after.toBillEvent());
+    }
+
+    @Transactional
+    public void onDeleted(ConsumptionEntry entry) {
+        Snapshot before = Snapshot.of(entry);
+        apply(entry.getUser().getUserId(), before, null);
+        featureStoreService.onBillChanged(entry.getUser().getUserId(), before.toBillFact(), null);
+    }
+
+    private void apply(Long userId, Snapshot before, Snapshot after) {
+        if (before != null && after != null && !before.dataSource().equals(after.dataSource())) {
+            // Moved between sources: retract from the old row, add to the new one
+            apply(userId, before, null);
+            apply(userId, null, after);
+            return;
+        }
+
+        Snapshot ref = after != null ? after : before;
+        long entryDelta = count(after) - count(before);
+        long verifiedDelta = verified(after) - verified(before);
+        long pendingDelta = pending(after) - pending(before);
+        BigDecimal amountDelta = amount(after).subtract(amount(before));
+
+        if (entryDelta == 0 && verifiedDelta == 0 && pendingDelta == 0 && amountDelta.signum() == 0) {
+            return;
+        }
+
+        summaryRepository.applyDelta(userId, ref.dataSource(), entryDelta, verifiedDelta, pendingDelta, amountDelta);
+        log.debug("Consumption rollup updated for user {} source {}", userId, ref.dataSource());
+    }
+
+    private static long count(Snapshot s) {
+        return s != null ? 1 : 0;
+    }
+
+    private static long verified(Snapshot s) {
+        return s != null && "VERIFIED".equals(s.verificationStatus()) ? 1 : 0;
+    }
+
+    private static long pending(Snapshot s) {
+        return s != null && "PENDING".equals(s.verificationStatus()) ? 1 : 0;
+    }
+
+    private static BigDecimal amount(Snapshot s) {
+        return s != null && s.billingAmount() != null ? s.billingAmount() : BigDecimal.ZERO;
+    }
+
+    /**
+     * The parts of an entry that feed the rollup and the fraud rules.
+     */
+    public record Snapshot(String dataSource, String verificationStatus, BigDecimal billingAmount,
+            LocalDate billingDate, String documentHash, String billNumber, String consumerNumber,
+            boolean tampered) {
+        public static Snapshot of(ConsumptionEntry entry) {
+            return new Snapshot(entry.getDataSource(), entry.getVerificationStatus(), entry.getBillingAmount(),
+                    entry.getBillingDate(), entry.getDocumentHash(), entry.getBillNumber(),
+                    entry.getConsumerNumber(), Boolean.TRUE.equals(entry.getIsTamperedFlag()));
+        }
+
+        FeatureStoreService.BillFact toBillFact() {
+            return new FeatureStoreService.BillFact(billingDate, billingAmount, "VERIFIED".equals(verificationStatus));
+        }
+
+        FraudRuleEngine.BillEvent toBillEvent() {
+            return new FraudRuleEngine.BillEvent(dataSource, billingAmount, documentHash, billNumber, consumerNumber,
+                    tampered);
+        }
+    }
+}
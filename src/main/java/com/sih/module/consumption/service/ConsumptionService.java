@@ -1,21 +1,31 @@
 package com.sih.module.consumption.service;
 
 import com.sih.common.config.FailSafeConfig;
+import com.sih.common.config.PaginationConfig;
+import com.sih.common.dto.CursorPage;
+import com.sih.common.dto.KeysetCursor;
 import com.sih.common.exception.BadRequestException;
 import com.sih.common.exception.ResourceNotFoundException;
 import com.sih.module.auth.entity.User;
 import com.sih.module.auth.repository.UserRepository;
 import com.sih.module.consumption.dto.*;
 import com.sih.module.consumption.entity.ConsumptionEntry;
+import com.sih.module.consumption.entity.ConsumptionSummary;
+import com.sih.module.consumption.repository.ConsumptionEntryFileJdbcRepository;
+import com.sih.module.consumption.repository.ConsumptionEntryFileRepository;
 import com.sih.module.consumption.repository.ConsumptionEntryRepository;
-import com.sih.module.beneficiary.service.SupabaseStorageService;
-import org.springframework.web.multipart.MultipartFile;
-import org.springframework.scheduling.annotation.Async;
+import com.sih.module.consumption.repository.ConsumptionSummaryRepository;
+import com.sih.module.beneficiary.service.StorageService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.security.MessageDigest;
@@ -30,43 +40,40 @@ public class ConsumptionService {
     private final ConsumptionEntryRepository entryRepository;
     private final UserRepository userRepository;
     private final FailSafeConfig failSafeConfig;
-    private final SupabaseStorageService supabaseStorageService;
-    private final OcrService ocrService;
-    private final BbpsService bbpsService;
-
-    public List<ConsumptionEntryResponse> uploadBatch(Long userId, MultipartFile[] files, String dataSource) {
-        List<ConsumptionEntryResponse> responses = new ArrayList<>();
-        for (MultipartFile file : files) {
-            try {
-                ConsumptionEntryRequest request = new ConsumptionEntryRequest();
-                request.setDataSource(dataSource);
-                responses.add(uploadEntry(userId, request, file.getBytes(), file.getOriginalFilename()));
-            } catch (Exception e) {
-                log.error("Failed to upload file in batch: {}", file.getOriginalFilename(), e);
-                // We continue processing other files even if one fails
-            }
-        }
-        return responses;
-    }
-
+    private final StorageService storageService;
+    private final BillVerificationPipeline verificationPipeline;
+    private final DocumentDedupService dedupService;
+    private final ConsumptionRollupService rollupService;
+    private final ConsumptionSummaryRepository summaryRepository;
+    private final ConsumptionEntryFileRepository fileRepository;
+    private final ConsumptionEntryFileJdbcRepository fileJdbcRepository;
+    private final PaginationConfig paginationConfig;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Streams the bill to storage, hashing it on the way, so the file is never
+     * held in memory as a whole.
+     */
     @Transactional
-    public ConsumptionEntryResponse uploadEntry(Long userId, ConsumptionEntryRequest request, byte[] fileData,
-            String originalFilename) {
+    public ConsumptionEntryResponse uploadEntry(Long userId, ConsumptionEntryRequest request, InputStream fileStream,
+            long fileSize, String originalFilename) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
-        // Upload to Supabase
-        String fileUrl = supabaseStorageService.uploadFile(fileData,
-                originalFilename != null ? originalFilename : "bill.pdf", "consumption");
+        if (fileStream == null) {
+            throw new BadRequestException("Bill file is required");
+        }
 
-        // Generate document hash for duplicate detection
-        String documentHash = generateHash(fileData != null ? fileData : request.toString().getBytes());
+        // Upload to storage; the document hash is computed during the transfer
+        StorageService.UploadResult upload = storageService.uploadStream(fileStream, fileSize,
+                originalFilename != null ? originalFilename : "bill.pdf", "consumption");
+        String fileUrl = upload.fileUrl();
+        String documentHash = upload.sha256();
 
-        // Check for duplicates
-        // if (entryRepository.findByUserUserId(userId).stream()
-        // .anyMatch(e -> documentHash.equals(e.getDocumentHash()))) {
-        // throw new BadRequestException("Duplicate entry detected");
-        // }
+        if (dedupService.isDuplicate(userId, documentHash)) {
+            storageService.deleteFile(fileUrl);
+            throw new BadRequestException("Duplicate entry detected");
+        }
 
         ConsumptionEntry entry = ConsumptionEntry.builder()
                 .user(user)
@@ -79,126 +86,57 @@ public class ConsumptionService {
                 .isTamperedFlag(false)
                 .isImputed(false)
                 .fileS3Url(fileUrl)
-                .storageType("SUPABASE")
+                .fileSize(upload.size())
+                .storageType(storageService.getStorageType())
                 .build();
 
-        entry = entryRepository.save(entry);
-        log.info("Consumption entry created: {} for user: {}", entry.getEntryId(), userId);
-
-        // Trigger Async Verification
-        processBillVerification(entry.getEntryId(), fileUrl);
-
-        return mapToResponse(entry);
-    }
-
-    @Async
-    @Transactional
-    public void processBillVerification(Long entryId, String fileUrl) {
-        log.info("Starting async verification for entry: {}", entryId);
         try {
-            ConsumptionEntry entry = entryRepository.findById(entryId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Entry not found"));
-
-            // 1. OCR Parsing
-            OcrService.ParsedBillDetails parsedDetails = ocrService.parseBill(fileUrl);
-            log.info("OCR parsing completed for entry: {}", entryId);
-
-            // Update entry with parsed details
-            if (parsedDetails.getAmount() != null) {
-                entry.setBillingAmount(parsedDetails.getAmount());
-            }
-            if (parsedDetails.getDate() != null) {
-                entry.setBillingDate(parsedDetails.getDate());
-            }
-            if (parsedDetails.getUnitsConsumed() != null) {
-                entry.setUnitsConsumed(parsedDetails.getUnitsConsumed());
-            }
-
-            // Store OCR extracted fields
-            entry.setBillerName(parsedDetails.getBillerName());
-            entry.setBillNumber(parsedDetails.getBillNumber());
-            entry.setConsumerNumber(parsedDetails.getConsumerNumber());
-            entry.setBillerCategory(parsedDetails.getBillerCategory());
-            entry.setDueDate(parsedDetails.getDueDate());
-            entry.setOcrConfidence(parsedDetails.getOverallConfidence());
-            entry.setOcrRawData(parsedDetails.getRawData());
-
             entry = entryRepository.save(entry);
-            log.info("OCR data saved for entry: {}", entryId);
-
-            // 2. BBPS Verification
-            com.sih.module.consumption.dto.BbpsVerificationResponse bbpsResponse = bbpsService
-                    .verifyBill(parsedDetails);
-            log.info("BBPS verification completed for entry: {}, verified: {}, tampered: {}",
-                    entryId, bbpsResponse.isVerified(), bbpsResponse.isTampered());
-
-            // Update verification status
-            if (bbpsResponse.isVerified()) {
-                entry.setVerificationStatus("VERIFIED");
-                entry.setVerificationSource(bbpsResponse.getVerificationSource());
-                entry.setVerificationConfidence(bbpsResponse.getConfidence());
-                entry.setIsTamperedFlag(false);
-            } else if (bbpsResponse.isTampered()) {
-                entry.setVerificationStatus("REJECTED");
-                entry.setVerificationSource(bbpsResponse.getVerificationSource());
-                entry.setVerificationConfidence(bbpsResponse.getConfidence());
-                entry.setIsTamperedFlag(true);
-                entry.setTamperReason(String.join("; ", bbpsResponse.getTamperReasons()));
-            } else {
-                entry.setVerificationStatus("PENDING"); // Fallback to manual
-                entry.setVerificationSource("BBPS_FAILED");
-                entry.setVerificationConfidence(bbpsResponse.getConfidence());
-            }
-
-            // Store BBPS response
-            Map<String, Object> bbpsResponseMap = new HashMap<>();
-            bbpsResponseMap.put("verified", bbpsResponse.isVerified());
-            bbpsResponseMap.put("tampered", bbpsResponse.isTampered());
-            bbpsResponseMap.put("tamperReasons", bbpsResponse.getTamperReasons());
-            bbpsResponseMap.put("confidence", bbpsResponse.getConfidence());
-            bbpsResponseMap.put("message", bbpsResponse.getMessage());
-            entry.setBbpsResponse(bbpsResponseMap);
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race with a concurrent upload of the same document
+            storageService.deleteFile(fileUrl);
+            throw new BadRequestException("Duplicate entry detected");
+        }
+        dedupService.register(userId, documentHash);
+        rollupService.onCreated(entry);
+        log.info("Consumption entry created: {} for user: {}", entry.getEntryId(), userId);
 
-            entryRepository.save(entry);
-            log.info("Verification completed for entry: {}, Status: {}", entryId, entry.getVerificationStatus());
+        // Hand off to the staged verification pipeline (runs after commit)
+        verificationPipeline.submit(entry.getEntryId(), fileUrl, documentHash);
 
-        } catch (Exception e) {
-            log.error("Error during async verification for entry: {}", entryId, e);
-            // Update entry status to indicate error
-            try {
-                ConsumptionEntry entry = entryRepository.findById(entryId).orElse(null);
-                if (entry != null) {
-                    entry.setVerificationStatus("ERROR");
-                    entry.setVerificationSource("SYSTEM");
-                    entry.setTamperReason("Verification failed: " + e.getMessage());
-                    entryRepository.save(entry);
-                }
-            } catch (Exception ex) {
-                log.error("Failed to update entry status after error", ex);
-            }
-        }
+        return mapToResponse(entry);
     }
 
-    @Transactional
+    /**
+     * Each entry commits on its own, so a duplicate that slips past the pre-check
+     * (a concurrent upload, or an insert on another instance) skips only that
+     * entry; the unique (user_id, document_hash) index is what decides.
+     */
     public List<ConsumptionEntryResponse> syncOfflineData(Long userId, OfflineBatchRequest request) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         List<ConsumptionEntryResponse> responses = new ArrayList<>();
-        Set<String> processedHashes = new HashSet<>();
 
+        // Hash the whole batch up front so the database is checked once, not once per entry
+        Map<String, ConsumptionEntryRequest> byHash = new LinkedHashMap<>();
         for (ConsumptionEntryRequest entryRequest : request.getEntries()) {
-            // Check for duplicates in batch
             String hash = generateHash(entryRequest.toString().getBytes());
-            if (processedHashes.contains(hash)) {
+            if (byHash.putIfAbsent(hash, entryRequest) != null) {
                 log.warn("Duplicate entry in batch, skipping");
-                continue;
             }
+        }
 
-            // Check for duplicates in database
-            if (entryRepository.findByUserUserId(userId).stream()
-                    .anyMatch(e -> hash.equals(e.getDocumentHash()))) {
-                log.warn("Entry already exists in database, skipping");
+        Set<String> existingHashes = dedupService.findExisting(userId, byHash.keySet());
+        if (!existingHashes.isEmpty()) {
+            log.warn("{} entries already exist in database, skipping", existingHashes.size());
+        }
+
+        TransactionTemplate perEntry = new TransactionTemplate(transactionManager);
+        for (Map.Entry<String, ConsumptionEntryRequest> candidate : byHash.entrySet()) {
+            String hash = candidate.getKey();
+            ConsumptionEntryRequest entryRequest = candidate.getValue();
+            if (existingHashes.contains(hash)) {
                 continue;
             }
 
@@ -214,19 +152,30 @@ public class ConsumptionService {
                     .isTamperedFlag(false)
                     .build();
 
-            entry = entryRepository.save(entry);
-            processedHashes.add(hash);
-            responses.add(mapToResponse(entry));
+            ConsumptionEntry saved;
+            try {
+                saved = perEntry.execute(status -> {
+                    ConsumptionEntry created = entryRepository.save(entry);
+                    rollupService.onCreated(created);
+                    return created;
+                });
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Entry already exists for user {}, skipping", userId);
+                continue;
+            }
+            dedupService.register(userId, hash);
+            responses.add(mapToResponse(saved));
         }
 
         log.info("Offline sync completed: {} entries processed for user: {}", responses.size(), userId);
         return responses;
     }
 
-    public List<ConsumptionEntryResponse> getMyEntries(Long userId) {
-        return entryRepository.findByUserUserId(userId).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public CursorPage<ConsumptionEntryResponse> getMyEntries(Long userId, String cursor, Integer size) {
+        int pageSize = paginationConfig.resolvePageSize(size);
+        List<ConsumptionEntry> rows = entryRepository.findByUserUserIdAndEntryIdLessThanOrderByEntryIdDesc(
+                userId, KeysetCursor.decode(cursor, Long.MAX_VALUE), paginationConfig.keysetLimit(pageSize));
+        return CursorPage.of(rows, pageSize, ConsumptionEntry::getEntryId, this::mapToResponse);
     }
 
     public ConsumptionEntryResponse getEntryById(Long entryId) {
@@ -235,9 +184,34 @@ public class ConsumptionService {
         return mapToResponse(entry);
     }
 
+    /**
+     * Streams the bill file of one entry. Files with an object-storage URL are piped
+     * through {@link StorageService#copyTo}; database-held files are read from the
+     * side table in chunks, which entry queries never touch.
+     */
+    @Transactional(readOnly = true)
+    public StreamingResponseBody downloadEntryFile(Long entryId, Long userId) {
+        ConsumptionEntry entry = entryRepository.findById(entryId)
+                .orElseThrow(() -> new ResourceNotFoundException("Entry not found"));
+
+        if (!entry.getUser().getUserId().equals(userId)) {
+            throw new ResourceNotFoundException("Entry not found");
+        }
+
+        if (entry.getFileS3Url() != null) {
+            String fileUrl = entry.getFileS3Url();
+            return out -> storageService.copyTo(fileUrl, out);
+        }
+
+        if (!fileRepository.existsById(entryId)) {
+            throw new ResourceNotFoundException("File not found");
+        }
+        return out -> fileJdbcRepository.copyTo(entryId, out);
+    }
+
     @Transactional
     public void deleteEntry(Long entryId, Long userId) {
-        ConsumptionEntry entry = entryRepository.findById(entryId)
+        ConsumptionEntry entry = entryRepository.findByIdForUpdate(entryId)
                 .orElseThrow(() -> new ResourceNotFoundException("Entry not found"));
 
         if (!entry.getUser().getUserId().equals(userId)) {
@@ -245,42 +219,36 @@ public class ConsumptionService {
         }
 
         entryRepository.delete(entry);
+        rollupService.onDeleted(entry);
         log.info("Entry deleted: {}", entryId);
     }
 
     public ConsumptionSummaryResponse getSummary(Long userId) {
-        List<ConsumptionEntry> entries = entryRepository.findByUserUserId(userId);
-
-        long total = entries.size();
-        long verified = entries.stream()
-                .filter(e -> "VERIFIED".equals(e.getVerificationStatus()))
-                .count();
-        long pending = entries.stream()
-                .filter(e -> "PENDING".equals(e.getVerificationStatus()))
-                .count();
-
-        BigDecimal totalAmount = entries.stream()
-                .filter(e -> e.getBillingAmount() != null)
-                .map(ConsumptionEntry::getBillingAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Reads only the rollup rows (one per data source), never the entries themselves
+        List<ConsumptionSummary> rows = summaryRepository.findByUserId(userId);
+
+        long total = 0;
+        long verified = 0;
+        long pending = 0;
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        Map<String, Long> bySource = new HashMap<>();
+        Map<String, BigDecimal> amountBySource = new HashMap<>();
+
+        for (ConsumptionSummary row : rows) {
+            if (row.getEntryCount() <= 0) {
+                continue;
+            }
+            total += row.getEntryCount();
+            verified += row.getVerifiedCount();
+            pending += row.getPendingCount();
+            totalAmount = totalAmount.add(row.getTotalAmount());
+            bySource.put(row.getDataSource(), row.getEntryCount());
+            amountBySource.put(row.getDataSource(), row.getTotalAmount());
+        }
 
         BigDecimal avgAmount = total > 0 ? totalAmount.divide(BigDecimal.valueOf(total), 2, RoundingMode.HALF_UP)
                 : BigDecimal.ZERO;
 
-        Map<String, Long> bySource = entries.stream()
-                .collect(Collectors.groupingBy(
-                        ConsumptionEntry::getDataSource,
-                        Collectors.counting()));
-
-        Map<String, BigDecimal> amountBySource = entries.stream()
-                .filter(e -> e.getBillingAmount() != null)
-                .collect(Collectors.groupingBy(
-                        ConsumptionEntry::getDataSource,
-                        Collectors.reducing(
-                                BigDecimal.ZERO,
-                                ConsumptionEntry::getBillingAmount,
-                                BigDecimal::add)));
-
         return ConsumptionSummaryResponse.builder()
                 .totalEntries(total)
                 .verifiedEntries(verified)
@@ -294,18 +262,20 @@ public class ConsumptionService {
 
     @Transactional
     public ConsumptionEntryResponse verifyEntry(Long entryId, Long officerId, boolean verified) {
-        ConsumptionEntry entry = entryRepository.findById(entryId)
+        ConsumptionEntry entry = entryRepository.findByIdForUpdate(entryId)
                 .orElseThrow(() -> new ResourceNotFoundException("Entry not found"));
 
         User officer = userRepository.findById(officerId)
                 .orElseThrow(() -> new ResourceNotFoundException("Officer not found"));
 
+        ConsumptionRollupService.Snapshot before = ConsumptionRollupService.Snapshot.of(entry);
         entry.setVerificationStatus(verified ? "VERIFIED" : "REJECTED");
         entry.setVerificationSource("MANUAL");
         entry.setVerificationConfidence(BigDecimal.valueOf(100));
         entry.setVerifiedBy(officer);
 
         entry = entryRepository.save(entry);
+        rollupService.onUpdated(entry, before);
         log.info("Entry {} verified: {} by officer: {}", entryId, verified, officerId);
 
         return mapToResponse(entry);
@@ -0,0 +1,93 @@
+package com.sih.module.consumption.service;
+
+import com.sih.common.util.BloomFilter;
+import com.sih.module.consumption.repository.ConsumptionEntryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Duplicate document detection for consumption entries.
+ * An in-memory Bloom filter answers "definitely new" without touching the
+ * database; only possible hits are confirmed with a single set-based query
+ * against the unique (user_id, document_hash) index. Until the filter has been
+ * warmed every hash is probed in the database.
+ * <p>
+ * The filter only knows this instance's inserts, so its "new" is a hint, not a
+ * guarantee: callers must still handle the unique-index violation on insert.
+ */
+@Slf4j
+@Service
+public class DocumentDedupService {
+
+    private final ConsumptionEntryRepository entryRepository;
+    private final BloomFilter bloomFilter;
+    private volatile boolean warm;
+
+    public DocumentDedupService(ConsumptionEntryRepository entryRepository,
+            @Value("${app.consumption.dedup.expected-entries:1000000}") long expectedEntries,
+            @Value("${app.consumption.dedup.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.entryRepository = entryRepository;
+        this.bloomFilter = new BloomFilter(expectedEntries, falsePositiveRate);
+    }
+
+    /**
+     * Warm the filter from the database once the context is up.
+     * Streams only (user_id, document_hash) pairs, never the entity rows.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadExistingHashes() {
+        log.info("Pre-loading consumption document hashes into dedup filter...");
+        AtomicLong count = new AtomicLong();
+        try (Stream<ConsumptionEntryRepository.DocumentHashView> hashes = entryRepository.streamAllDocumentHashes()) {
+            hashes.forEach(view -> {
+                bloomFilter.put(key(view.getUserId(), view.getDocumentHash()));
+                count.incrementAndGet();
+            });
+        }
+        warm = true;
+        log.info("Loaded {} document hashes into dedup filter", count.get());
+    }
+
+    public boolean isDuplicate(Long userId, String documentHash) {
+        if (warm && !bloomFilter.mightContain(key(userId, documentHash))) {
+            return false;
+        }
+        return entryRepository.existsByUserUserIdAndDocumentHashIn(userId, List.of(documentHash));
+    }
+
+    /**
+     * Returns the subset of {@code documentHashes} the user already has, using at
+     * most one database round-trip for the whole batch.
+     */
+    public Set<String> findExisting(Long userId, Collection<String> documentHashes) {
+        List<String> candidates = documentHashes.stream()
+                .filter(hash -> !warm || bloomFilter.mightContain(key(userId, hash)))
+                .distinct()
+                .collect(Collectors.toList());
+        if (candidates.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return entryRepository.findExistingDocumentHashes(userId, candidates);
+    }
+
+    public void register(Long userId, String documentHash) {
+        bloomFilter.put(key(userId, documentHash));
+    }
+
+    private static String key(Long userId, String documentHash) {
+        return userId + ":" + documentHash;
+    }
+}
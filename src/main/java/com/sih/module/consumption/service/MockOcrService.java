@@ -30,6 +30,7 @@ public class MockOcrService implements OcrService {
                 .billerName("MOCK_BILLER_LTD")
                 .billNumber("BILL-" + ThreadLocalRandom.current().nextInt(10000, 99999))
                 .rawData(Map.of("confidence", 0.95, "ocr_engine", "MockTesseract"))
+                .degraded(true)
                 .build();
     }
 }
@@ -0,0 +1,158 @@
+package com.sih.module.consumption.service;
+
+import com.sih.common.exception.ServiceUnavailableException;
+import com.sih.config.AsyncConfig;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces individual OCR jobs into micro-batches for {@link OcrService#parseBills}.
+ * A batch is flushed when it reaches {@code max-size} or when the oldest job has
+ * waited {@code window} ms, whichever comes first. Batches run on the OCR executor,
+ * so its pool size still bounds concurrent calls to the sidecar. A batch the
+ * sidecar rejects as a whole is retried as single calls.
+ */
+@Slf4j
+@Service
+public class OcrBatchCoalescer {
+
+    private final OcrService ocrService;
+    private final ThreadPoolTaskExecutor ocrExecutor;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long windowMillis;
+    private final ScheduledExecutorService flushScheduler;
+
+    private List<PendingJob> pending = new ArrayList<>();
+    private ScheduledFuture<?> flushTimer;
+
+    public OcrBatchCoalescer(OcrService ocrService,
+            @Qualifier(AsyncConfig.OCR_EXECUTOR) ThreadPoolTaskExecutor ocrExecutor,
+            @Value("${app.verification.pipeline.ocr.batch.enabled:true}") boolean enabled,
+            @Value("${app.verification.pipeline.ocr.batch.max-size:8}") int maxBatchSize,
+            @Value("${app.verification.pipeline.ocr.batch.window:200}") long windowMillis) {
+        this.ocrService = ocrService;
+        this.ocrExecutor = ocrExecutor;
+        this.enabled = enabled;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.windowMillis = windowMillis;
+        this.flushScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ocr-batch-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queue a bill for the next batch. The future fails with
+     * {@link RejectedExecutionException} if the OCR executor is saturated.
+     */
+    public CompletableFuture<OcrService.ParsedBillDetails> submit(String fileUrl) {
+        CompletableFuture<OcrService.ParsedBillDetails> future = new CompletableFuture<>();
+        List<PendingJob> ready = null;
+        synchronized (this) {
+            pending.add(new PendingJob(fileUrl, future));
+            if (pending.size() >= maxBatchSize) {
+                ready = drain();
+            } else if (flushTimer == null) {
+                flushTimer = flushScheduler.schedule(this::flushOnTimer, windowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (ready != null) {
+            dispatch(ready);
+        }
+        return future;
+    }
+
+    private void flushOnTimer() {
+        List<PendingJob> ready;
+        synchronized (this) {
+            flushTimer = null;
+            if (pending.isEmpty()) {
+                return;
+            }
+            ready = drain();
+        }
+        dispatch(ready);
+    }
+
+    private List<PendingJob> drain() {
+        if (flushTimer != null) {
+            flushTimer.cancel(false);
+            flushTimer = null;
+        }
+        List<PendingJob> ready = pending;
+        pending = new ArrayList<>();
+        return ready;
+    }
+
+    private void dispatch(List<PendingJob> batch) {
+        try {
+            ocrExecutor.execute(() -> runBatch(batch));
+        } catch (RejectedExecutionException e) {
+            log.warn("OCR executor saturated, rejecting batch of {} jobs", batch.size());
+            batch.forEach(job -> job.future().completeExceptionally(e));
+        }
+    }
+
+    private void runBatch(List<PendingJob> batch) {
+        List<String> fileUrls = batch.stream().map(PendingJob::fileUrl).toList();
+        log.info("Running OCR batch of {} files", fileUrls.size());
+        try {
+            List<OcrService.ParsedBillDetails> results = ocrService.parseBills(fileUrls);
+            for (int i = 0; i < batch.size(); i++) {
+                OcrService.ParsedBillDetails result = i < results.size() ? results.get(i) : null;
+                if (result != null) {
+                    batch.get(i).future().complete(result);
+                } else {
+                    batch.get(i).future().completeExceptionally(
+                            new RuntimeException("OCR parsing failed for " + fileUrls.get(i)));
+                }
+            }
+        } catch (ServiceUnavailableException e) {
+            batch.forEach(job -> job.future().completeExceptionally(e));
+        } catch (RuntimeException e) {
+            // The sidecar rejected the batch as a whole; single calls attribute failures per bill
+            log.warn("OCR batch of {} files failed ({}), retrying as single calls", batch.size(), e.getMessage());
+            for (PendingJob job : batch) {
+                try {
+                    job.future().complete(ocrService.parseBill(job.fileUrl()));
+                } catch (RuntimeException single) {
+                    job.future().completeExceptionally(single);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        List<PendingJob> ready;
+        synchronized (this) {
+            ready = drain();
+        }
+        if (!ready.isEmpty()) {
+            dispatch(ready);
+        }
+        flushScheduler.shutdown();
+    }
+
+    private record PendingJob(String fileUrl, CompletableFuture<OcrService.ParsedBillDetails> future) {
+    }
+}
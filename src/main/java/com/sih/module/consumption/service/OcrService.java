@@ -1,18 +1,40 @@
 package com.sih.module.consumption.service;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 public interface OcrService {
     ParsedBillDetails parseBill(String fileUrl);
 
+    /**
+     * Parse several bills in one call. The result is aligned with {@code fileUrls};
+     * an element is null when that bill could not be parsed.
+     */
+    default List<ParsedBillDetails> parseBills(List<String> fileUrls) {
+        List<ParsedBillDetails> results = new ArrayList<>(fileUrls.size());
+        for (String fileUrl : fileUrls) {
+            try {
+                results.add(parseBill(fileUrl));
+            } catch (RuntimeException e) {
+                results.add(null);
+            }
+        }
+        return results;
+    }
+
     @Data
     @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
     class ParsedBillDetails {
         private BigDecimal amount;
         private LocalDate date;
@@ -33,6 +55,9 @@ public interface OcrService {
         private BigDecimal dateConfidence;
         private BigDecimal dueDateConfidence;
         private BigDecimal unitsConfidence;
+
+        // Not read from the bill (mock fallback or OCR disabled): never cached or trusted
+        private boolean degraded;
     }
 
     @Data
@@ -1,40 +1,51 @@
 package com.sih.module.consumption.service;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.sih.module.consumption.config.OcrRequestTimeout;
 import lombok.Data;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.annotation.Primary;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Slf4j
 @Service
-@Primary
-@RequiredArgsConstructor
 public class PythonOcrService implements OcrService {
 
     private final RestTemplate restTemplate;
 
+    public PythonOcrService(@Qualifier("ocrRestTemplate") RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+
     @Value("${ocr.service.url:http://localhost:5000}")
     private String ocrServiceUrl;
 
     @Value("${ocr.service.enabled:true}")
     private boolean ocrServiceEnabled;
 
+    @Value("${ocr.service.timeout:60000}")
+    private long timeoutMillis;
+
+    @Value("${ocr.service.batch-item-timeout:30000}")
+    private long batchItemTimeoutMillis;
+
     @Override
     public ParsedBillDetails parseBill(String fileUrl) {
         if (!ocrServiceEnabled) {
             log.warn("OCR service is disabled, returning empty result");
-            return ParsedBillDetails.builder().build();
+            return ParsedBillDetails.builder().degraded(true).build();
         }
 
         log.info("Calling Python OCR service for file: {}", fileUrl);
@@ -79,6 +90,60 @@ public class PythonOcrService implements OcrService {
         }
     }
 
+    @Override
+    public List<ParsedBillDetails> parseBills(List<String> fileUrls) {
+        if (!ocrServiceEnabled) {
+            log.warn("OCR service is disabled, returning empty results");
+            List<ParsedBillDetails> empty = new ArrayList<>(fileUrls.size());
+            fileUrls.forEach(url -> empty.add(ParsedBillDetails.builder().degraded(true).build()));
+            return empty;
+        }
+
+        log.info("Calling Python OCR service for batch of {} files", fileUrls.size());
+
+        try {
+            String endpoint = ocrServiceUrl + "/api/parse-bills";
+
+            Map<String, Object> requestBody = new HashMap<>();
+            requestBody.put("file_urls", fileUrls);
+            requestBody.put("use_easyocr", false);
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+
+            // The sidecar parses a batch sequentially, so the read timeout grows with it
+            Duration timeout = Duration.ofMillis(timeoutMillis + batchItemTimeoutMillis * (fileUrls.size() - 1));
+            ResponseEntity<OcrBatchResponse> response = OcrRequestTimeout.with(timeout, () -> restTemplate.exchange(
+                    endpoint,
+                    HttpMethod.POST,
+                    new HttpEntity<>(requestBody, headers),
+                    OcrBatchResponse.class));
+
+            OcrBatchResponse batchResponse = response.getBody();
+            if (response.getStatusCode() != HttpStatus.OK || batchResponse == null || !batchResponse.isSuccess()
+                    || batchResponse.getResults() == null || batchResponse.getResults().size() != fileUrls.size()) {
+                throw new RuntimeException("OCR batch call failed: "
+                        + (batchResponse != null ? batchResponse.getError() : response.getStatusCode()));
+            }
+
+            List<ParsedBillDetails> results = new ArrayList<>(fileUrls.size());
+            for (int i = 0; i < fileUrls.size(); i++) {
+                OcrResponse item = batchResponse.getResults().get(i);
+                if (item != null && item.isSuccess() && item.getData() != null) {
+                    results.add(mapToParsedBillDetails(item.getData()));
+                } else {
+                    log.error("OCR service failed for {}: {}", fileUrls.get(i), item != null ? item.getError() : null);
+                    results.add(null);
+                }
+            }
+            return results;
+
+        } catch (Exception e) {
+            log.error("Error calling Python OCR batch service", e);
+            throw new RuntimeException("Failed to parse bills with OCR: " + e.getMessage(), e);
+        }
+    }
+
     private ParsedBillDetails mapToParsedBillDetails(OcrData data) {
         log.info("Mapping OCR response to ParsedBillDetails");
 
@@ -164,6 +229,13 @@ public class PythonOcrService implements OcrService {
         private String error;
     }
 
+    @Data
+    private static class OcrBatchResponse {
+        private boolean success;
+        private List<OcrResponse> results;
+        private String error;
+    }
+
     @Data
     private static class OcrData {
         private FieldValue<Double> amount;
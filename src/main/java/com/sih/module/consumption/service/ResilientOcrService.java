@@ -0,0 +1,130 @@
+package com.sih.module.consumption.service;
+
+import com.sih.common.exception.ServiceUnavailableException;
+import com.sih.common.util.CircuitBreaker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Primary {@link OcrService}: wraps the Python sidecar client with a concurrency
+ * bulkhead and a circuit breaker. When the sidecar is saturated or failing, calls
+ * either fall back to {@link MockOcrService} or raise
+ * {@link ServiceUnavailableException} so the entry stays PENDING for manual review.
+ * Bills the sidecar could not parse are passed through to the caller and do not
+ * count against the breaker.
+ */
+@Slf4j
+@Service
+@Primary
+public class ResilientOcrService implements OcrService {
+
+    private final PythonOcrService pythonOcrService;
+    private final MockOcrService mockOcrService;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final long bulkheadWaitMillis;
+    private final String fallbackMode;
+
+    public ResilientOcrService(PythonOcrService pythonOcrService,
+            MockOcrService mockOcrService,
+            @Value("${ocr.service.bulkhead.max-concurrent:8}") int maxConcurrent,
+            @Value("${ocr.service.bulkhead.max-wait:2000}") long bulkheadWaitMillis,
+            @Value("${ocr.service.circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${ocr.service.circuit-breaker.open-duration:30000}") long openDurationMillis,
+            @Value("${ocr.service.fallback:MANUAL}") String fallbackMode) {
+        this.pythonOcrService = pythonOcrService;
+        this.mockOcrService = mockOcrService;
+        this.bulkhead = new Semaphore(maxConcurrent);
+        this.bulkheadWaitMillis = bulkheadWaitMillis;
+        this.circuitBreaker = new CircuitBreaker("ocr", failureThreshold, Duration.ofMillis(openDurationMillis));
+        this.fallbackMode = fallbackMode;
+    }
+
+    @Override
+    public ParsedBillDetails parseBill(String fileUrl) {
+        return callProtected(() -> pythonOcrService.parseBill(fileUrl),
+                () -> mockOcrService.parseBill(fileUrl), fileUrl);
+    }
+
+    /**
+     * A batch takes a single bulkhead permit and counts as one call for the
+     * circuit breaker, since it is a single round-trip to the sidecar.
+     */
+    @Override
+    public List<ParsedBillDetails> parseBills(List<String> fileUrls) {
+        return callProtected(() -> pythonOcrService.parseBills(fileUrls),
+                () -> mockOcrService.parseBills(fileUrls), fileUrls.size() + " files");
+    }
+
+    private <T> T callProtected(Supplier<T> call, Supplier<T> mockFallback, String description) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            log.warn("OCR circuit breaker is {}, using fallback", circuitBreaker.getState());
+            return fallback(mockFallback, "OCR circuit breaker open");
+        }
+
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire(bulkheadWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            circuitBreaker.releasePermission();
+            throw new ServiceUnavailableException("Interrupted while waiting for OCR capacity");
+        }
+        if (!acquired) {
+            circuitBreaker.releasePermission();
+            log.warn("OCR bulkhead full, using fallback for: {}", description);
+            return fallback(mockFallback, "OCR service at capacity");
+        }
+
+        try {
+            T result = call.get();
+            circuitBreaker.onSuccess();
+            return result;
+        } catch (RuntimeException e) {
+            if (!isSidecarFailure(e)) {
+                // The sidecar answered; the document itself could not be parsed
+                circuitBreaker.releasePermission();
+                throw e;
+            }
+            circuitBreaker.onFailure();
+            log.error("OCR call failed (circuit {}): {}", circuitBreaker.getState(), e.getMessage());
+            return fallback(mockFallback, "OCR call failed: " + e.getMessage());
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * Only transport errors, timeouts and 5xx responses say anything about the
+     * sidecar's health; everything else is a per-document failure.
+     */
+    private static boolean isSidecarFailure(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof ResourceAccessException || t instanceof HttpServerErrorException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    private <T> T fallback(Supplier<T> mockFallback, String reason) {
+        if ("MOCK".equalsIgnoreCase(fallbackMode)) {
+            return mockFallback.get();
+        }
+        throw new ServiceUnavailableException(reason);
+    }
+}
@@ -1,6 +1,7 @@
 package com.sih.module.fraud.controller;
 
 import com.sih.common.dto.ApiResponse;
+import com.sih.common.dto.CursorPage;
 import com.sih.module.auth.entity.User;
 import com.sih.module.fraud.dto.BlacklistRequest;
 import com.sih.module.fraud.dto.FraudAlertResponse;
@@ -22,9 +23,11 @@ public class FraudController {
     private final FraudService fraudService;
     
     @GetMapping("/alerts")
-    public ResponseEntity<ApiResponse<List<FraudAlertResponse>>> getAlerts(
-            @RequestParam(required = false) Boolean isResolved) {
-        List<FraudAlertResponse> alerts = fraudService.getAllAlerts(isResolved);
+    public ResponseEntity<ApiResponse<CursorPage<FraudAlertResponse>>> getAlerts(
+            @RequestParam(required = false) Boolean isResolved,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<FraudAlertResponse> alerts = fraudService.getAllAlerts(isResolved, cursor, size);
         return ResponseEntity.ok(ApiResponse.success(alerts));
     }
     
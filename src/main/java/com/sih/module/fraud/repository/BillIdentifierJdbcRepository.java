@@ -0,0 +1,51 @@
+package com.sih.module.fraud.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * The bill_identifier_index table. Every statement is a probe on the
+ * (identifier_type, identifier_value, user_id) primary key. Callers must run
+ * inside a transaction: {@link #lock} holds until it ends.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BillIdentifierJdbcRepository {
+
+    private static final String INSERT_IDENTIFIER = """
+            INSERT INTO bill_identifier_index (identifier_type, identifier_value, user_id, first_entry_id)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT DO NOTHING
+            """;
+
+    private static final String LOCK_IDENTIFIER =
+            "SELECT pg_advisory_xact_lock(hashtextextended(? || ':' || ?, 0))";
+
+    private static final String FIND_OTHERS = """
+            SELECT user_id FROM bill_identifier_index
+            WHERE identifier_type = ? AND identifier_value = ? AND user_id <> ?
+            ORDER BY user_id
+            LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insert(String type, String value, long userId, Long entryId) {
+        jdbcTemplate.update(INSERT_IDENTIFIER, type, value, userId, entryId);
+    }
+
+    /**
+     * Serializes registrations of one identifier until the transaction ends, so
+     * two users presenting it concurrently cannot both miss each other.
+     */
+    public void lock(String type, String value) {
+        jdbcTemplate.query(LOCK_IDENTIFIER, rs -> { }, type, value);
+    }
+
+    public List<Long> findOthers(String type, String value, long userId, int limit) {
+        return jdbcTemplate.queryForList(FIND_OTHERS, Long.class, type, value, userId, limit);
+    }
+}
@@ -1,6 +1,7 @@
 package com.sih.module.fraud.repository;
 
 import com.sih.module.fraud.entity.FraudAlert;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -10,7 +11,12 @@ import java.util.List;
 public interface FraudAlertRepository extends JpaRepository<FraudAlert, Long> {
     List<FraudAlert> findByUserUserId(Long userId);
     List<FraudAlert> findByIsResolved(Boolean isResolved);
+    List<FraudAlert> findByAlertIdLessThanOrderByAlertIdDesc(Long alertId, Pageable pageable);
+    List<FraudAlert> findByIsResolvedAndAlertIdLessThanOrderByAlertIdDesc(Boolean isResolved, Long alertId,
+            Pageable pageable);
     List<FraudAlert> findBySeverity(String severity);
     List<FraudAlert> findByAlertType(String alertType);
+    boolean existsBySourceTableAndSourceIdAndAlertTypeAndIsResolvedFalse(String sourceTable, Long sourceId,
+            String alertType);
 }
 
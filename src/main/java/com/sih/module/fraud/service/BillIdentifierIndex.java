@@ -0,0 +1,153 @@
+package com.sih.module.fraud.service;
+
+import com.sih.module.fraud.repository.BillIdentifierJdbcRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Cross-user inverted index from bill identifiers (document hash, bill number,
+ * consumer number) to the users who presented them. Two tiers: a size-bounded
+ * in-process LRU of identifier -> sorted user ids in front of the
+ * {@code bill_identifier_index} table. A user re-presenting an identifier they
+ * are already recorded under is answered from memory; anyone else takes a
+ * per-identifier advisory lock, inserts and then re-reads the other users, so
+ * of two concurrent registrations the later one always sees the earlier.
+ * <p>
+ * The memory tier never answers for a new user, so a stale entry cannot hide a
+ * collision: the later of two users is always checked against the table. A
+ * cached entry only omits users added since it was loaded, and each of those
+ * was flagged against this user when it registered. Entries still expire after
+ * a TTL to bound that drift.
+ */
+@Service
+public class BillIdentifierIndex {
+
+    public static final String DOCUMENT_HASH = "DOCUMENT_HASH";
+    public static final String BILL_NUMBER = "BILL_NUMBER";
+    public static final String CONSUMER_NUMBER = "CONSUMER_NUMBER";
+
+    private static final long[] NONE = new long[0];
+    private static final int MAX_VALUE_LENGTH = 128;
+
+    private final BillIdentifierJdbcRepository identifierRepository;
+    private final int maxUsers;
+    private final long hotTtlMillis;
+    private final Map<String, HotEntry> hot;
+
+    public BillIdentifierIndex(BillIdentifierJdbcRepository identifierRepository,
+            @Value("${app.fraud.identifiers.hot-max-entries:100000}") int hotMaxEntries,
+            @Value("${app.fraud.identifiers.hot-ttl:600000}") long hotTtlMillis,
+            @Value("${app.fraud.identifiers.max-users:32}") int maxUsers) {
+        this.identifierRepository = identifierRepository;
+        this.maxUsers = Math.max(1, maxUsers);
+        this.hotTtlMillis = hotTtlMillis;
+        this.hot = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, HotEntry> eldest) {
+                return size() > hotMaxEntries;
+            }
+        };
+    }
+
+    /**
+     * Record that {@code userId} presented the identifier and return the other
+     * users who already had (at most {@code max-users} of them, ascending).
+     * Blank identifiers are ignored and return an empty array.
+     */
+    public long[] register(String type, String rawValue, Long userId, Long entryId) {
+        String value = normalize(type, rawValue);
+        if (value == null || userId == null) {
+            return NONE;
+        }
+        String key = type + ':' + value;
+
+        HotEntry cached = getHot(key);
+        if (cached != null && cached.contains(userId)) {
+            return cached.without(userId);
+        }
+
+        identifierRepository.lock(type, value);
+        identifierRepository.insert(type, value, userId, entryId);
+        List<Long> others = identifierRepository.findOthers(type, value, userId, maxUsers);
+        long[] otherIds = others.stream().mapToLong(Long::longValue).toArray();
+        putHot(key, new HotEntry(otherIds, System.currentTimeMillis() + hotTtlMillis).with(userId, maxUsers));
+        return otherIds;
+    }
+
+    /**
+     * Bill and consumer numbers are matched ignoring case and whitespace (OCR output
+     * varies in both); hashes are matched exactly. Mirrors the V33 backfill.
+     */
+    static String normalize(String type, String rawValue) {
+        if (rawValue == null) {
+            return null;
+        }
+        String value = DOCUMENT_HASH.equals(type)
+                ? rawValue.trim()
+                : rawValue.replaceAll("\\s+", "").toUpperCase(Locale.ROOT);
+        if (value.isEmpty() || value.length() > MAX_VALUE_LENGTH) {
+            return null;
+        }
+        return value;
+    }
+
+    private HotEntry getHot(String key) {
+        synchronized (hot) {
+            HotEntry entry = hot.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt() < System.currentTimeMillis()) {
+                hot.remove(key);
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    private void putHot(String key, HotEntry entry) {
+        synchronized (hot) {
+            hot.put(key, entry);
+        }
+    }
+
+    /**
+     * Sorted user ids for one identifier. Copy-on-write, so readers never lock it.
+     */
+    private record HotEntry(long[] userIds, long expiresAt) {
+
+        boolean contains(long userId) {
+            return Arrays.binarySearch(userIds, userId) >= 0;
+        }
+
+        long[] without(long userId) {
+            int at = Arrays.binarySearch(userIds, userId);
+            if (at < 0) {
+                return userIds;
+            }
+            long[] rest = new long[userIds.length - 1];
+            System.arraycopy(userIds, 0, rest, 0, at);
+            System.arraycopy(userIds, at + 1, rest, at, rest.length - at);
+            return rest;
+        }
+
+        HotEntry with(long userId, int maxUsers) {
+            int at = Arrays.binarySearch(userIds, userId);
+            long[] ids = userIds;
+            if (at < 0 && userIds.length < maxUsers + 1) {
+                int insertAt = -at - 1;
+                ids = new long[userIds.length + 1];
+                System.arraycopy(userIds, 0, ids, 0, insertAt);
+                ids[insertAt] = userId;
+                System.arraycopy(userIds, insertAt, ids, insertAt + 1, userIds.length - insertAt);
+            }
+            return new HotEntry(ids, expiresAt);
+        }
+    }
+}
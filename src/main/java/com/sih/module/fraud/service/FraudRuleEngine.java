@@ -0,0 +1,450 @@
+package com.sih.module.fraud.service;
+
+import com.sih.module.beneficiary.entity.BeneficiaryProfile;
+import com.sih.module.beneficiary.repository.BeneficiaryProfileRepository;
+import com.sih.module.consumption.repository.ConsumptionEntryRepository;
+import com.sih.module.loan.repository.RepaymentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Streaming fraud rules. Each event is scored against small in-memory sliding
+ * windows (a ring of recent amounts per user and source, a ring of recent
+ * application times per user, a ring of tamper times per pincode) so scoring
+ * never scans history. Windows are LRU-bounded; a user's amount baselines are
+ * seeded from the database the first time that user is seen.
+ * <p>
+ * The engine only reports {@link Signal}s; {@link FraudService} turns them into alerts.
+ */
+@Slf4j
+@Component
+public class FraudRuleEngine {
+
+    public static final String SOURCE_CONSUMPTION = "consumption_entries";
+    public static final String SOURCE_APPLICATION = "loan_applications";
+    public static final String SOURCE_LOAN = "loans";
+
+    static final String REPAYMENT_BASELINE = "REPAYMENT";
+
+    private final ConsumptionEntryRepository entryRepository;
+    private final RepaymentRepository repaymentRepository;
+    private final BeneficiaryProfileRepository profileRepository;
+    private final BillIdentifierIndex identifierIndex;
+
+    private final boolean enabled;
+    private final int crowdSize;
+    private final int baselineSize;
+    private final int spikeMinSamples;
+    private final double spikeRatio;
+    private final int tamperThreshold;
+    private final long tamperWindowMillis;
+    private final int velocityMaxApplications;
+    private final long velocityWindowMillis;
+
+    private final Map<Long, UserState> users;
+    private final Map<String, PincodeState> pincodes;
+
+    public FraudRuleEngine(ConsumptionEntryRepository entryRepository,
+            RepaymentRepository repaymentRepository,
+            BeneficiaryProfileRepository profileRepository,
+            BillIdentifierIndex identifierIndex,
+            @Value("${app.fraud.rules.enabled:true}") boolean enabled,
+            @Value("${app.fraud.rules.max-tracked-users:100000}") int maxTrackedUsers,
+            @Value("${app.fraud.identifiers.crowd-size:5}") int crowdSize,
+            @Value("${app.fraud.rules.spike.baseline-size:12}") int baselineSize,
+            @Value("${app.fraud.rules.spike.min-samples:3}") int spikeMinSamples,
+            @Value("${app.fraud.rules.spike.ratio:3.0}") double spikeRatio,
+            @Value("${app.fraud.rules.tamper-burst.threshold:5}") int tamperThreshold,
+            @Value("${app.fraud.rules.tamper-burst.window:86400000}") long tamperWindowMillis,
+            @Value("${app.fraud.rules.velocity.max-applications:3}") int velocityMaxApplications,
+            @Value("${app.fraud.rules.velocity.window:604800000}") long velocityWindowMillis) {
+        this.entryRepository = entryRepository;
+        this.repaymentRepository = repaymentRepository;
+        this.profileRepository = profileRepository;
+        this.identifierIndex = identifierIndex;
+        this.enabled = enabled;
+        this.crowdSize = Math.max(2, crowdSize);
+        this.baselineSize = Math.max(1, baselineSize);
+        this.spikeMinSamples = Math.max(1, spikeMinSamples);
+        this.spikeRatio = spikeRatio;
+        this.tamperThreshold = Math.max(1, tamperThreshold);
+        this.tamperWindowMillis = tamperWindowMillis;
+        this.velocityMaxApplications = Math.max(1, velocityMaxApplications);
+        this.velocityWindowMillis = velocityWindowMillis;
+        this.users = lru(maxTrackedUsers);
+        this.pincodes = lru(maxTrackedUsers);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Score a bill write: amount spike against the user's baseline for that data
+     * source, identifiers already presented by other users (see {@link BillIdentifierIndex}),
+     * and tamper bursts in the user's pincode. Only what changed between {@code before}
+     * and {@code after} is scored.
+     *
+     * @param before the bill as it was, or {@code null} when it was just created
+     */
+    public List<Signal> onBillChanged(Long userId, Long entryId, BillEvent before, BillEvent after) {
+        List<Signal> signals = new ArrayList<>();
+        if (!enabled || userId == null || after == null) {
+            return signals;
+        }
+
+        BigDecimal previousAmount = before != null ? before.amount() : null;
+        if (after.amount() != null && after.amount().signum() > 0
+                && (previousAmount == null || previousAmount.compareTo(after.amount()) != 0)) {
+            AmountWindow window = billBaseline(userId, entryId, after.dataSource());
+            Signal spike = scoreAmount(window, userId, SOURCE_CONSUMPTION, entryId,
+                    after.dataSource() + " bill", previousAmount, after.amount());
+            if (spike != null) {
+                signals.add(spike);
+            }
+        }
+
+        Signal duplicate = scoreIdentifiers(userId, entryId, before, after);
+        if (duplicate != null) {
+            signals.add(duplicate);
+        }
+
+        if (after.tampered() && (before == null || !before.tampered())) {
+            Signal burst = scoreTamper(userId, entryId);
+            if (burst != null) {
+                signals.add(burst);
+            }
+        }
+        return signals;
+    }
+
+    /**
+     * Velocity of submissions: more than the configured number inside the window.
+     */
+    public List<Signal> onApplicationSubmitted(Long userId, Long applicationId) {
+        List<Signal> signals = new ArrayList<>();
+        if (!enabled || userId == null) {
+            return signals;
+        }
+        UserState state = user(userId);
+        int inWindow;
+        synchronized (state) {
+            inWindow = state.applications.addAndCount(System.currentTimeMillis(), velocityWindowMillis);
+        }
+        if (inWindow > velocityMaxApplications) {
+            signals.add(new Signal(userId, SOURCE_APPLICATION, applicationId, "PATTERN_DEVIATION",
+                    inWindow > 2 * velocityMaxApplications ? "HIGH" : "MEDIUM",
+                    String.format("Application velocity: %d applications submitted within %d hours (limit %d)",
+                            inWindow, velocityWindowMillis / 3_600_000L, velocityMaxApplications)));
+        }
+        return signals;
+    }
+
+    /**
+     * Repayment amount spike against the user's own repayment baseline.
+     */
+    public List<Signal> onRepaymentPosted(Long userId, Long loanId, BigDecimal amount) {
+        List<Signal> signals = new ArrayList<>();
+        if (!enabled || userId == null || amount == null || amount.signum() <= 0) {
+            return signals;
+        }
+        Signal spike = scoreAmount(repaymentBaseline(userId), userId, SOURCE_LOAN, loanId, "Repayment", null, amount);
+        if (spike != null) {
+            signals.add(spike);
+        }
+        return signals;
+    }
+
+    /**
+     * Drop everything held for a user so the next event re-seeds from the database.
+     */
+    public void forget(Long userId) {
+        synchronized (users) {
+            users.remove(userId);
+        }
+    }
+
+    private Signal scoreAmount(AmountWindow window, Long userId, String sourceTable, Long sourceId, String label,
+            BigDecimal previousAmount, BigDecimal amount) {
+        double value = amount.doubleValue();
+        double previous = previousAmount != null ? previousAmount.doubleValue() : Double.NaN;
+        int samples;
+        double mean;
+        synchronized (window) {
+            // A corrected amount replaces the value it was recorded with instead of adding a sample
+            samples = window.countExcluding(previous);
+            mean = window.meanExcluding(previous);
+            window.replaceOrAdd(previous, value);
+        }
+        if (samples < spikeMinSamples || mean <= 0 || value < mean * spikeRatio) {
+            return null;
+        }
+        double multiple = value / mean;
+        return new Signal(userId, sourceTable, sourceId, "SPIKE",
+                multiple >= 2 * spikeRatio ? "HIGH" : "MEDIUM",
+                String.format("%s amount %.2f is %.1fx the rolling average %.2f of the last %d",
+                        label, value, multiple, mean, samples));
+    }
+
+    /**
+     * One DUPLICATE signal per entry, covering every identifier that collided.
+     * A shared document hash is always HIGH; bill and consumer numbers escalate once
+     * {@code crowd-size} users share them (a household can legitimately share a meter).
+     */
+    private Signal scoreIdentifiers(Long userId, Long entryId, BillEvent before, BillEvent after) {
+        List<String> findings = new ArrayList<>(3);
+        int severity = 0;
+
+        long[] others = register(BillIdentifierIndex.DOCUMENT_HASH, userId, entryId,
+                before != null ? before.documentHash() : null, after.documentHash());
+        if (others.length > 0) {
+            findings.add(describe("document", others));
+            severity = 2;
+        }
+        others = register(BillIdentifierIndex.BILL_NUMBER, userId, entryId,
+                before != null ? before.billNumber() : null, after.billNumber());
+        if (others.length > 0) {
+            findings.add(describe("bill number " + after.billNumber(), others));
+            severity = Math.max(severity, others.length + 1 >= crowdSize ? 2 : 1);
+        }
+        others = register(BillIdentifierIndex.CONSUMER_NUMBER, userId, entryId,
+                before != null ? before.consumerNumber() : null, after.consumerNumber());
+        if (others.length > 0) {
+            findings.add(describe("consumer number " + after.consumerNumber(), others));
+            severity = Math.max(severity, others.length + 1 >= crowdSize ? 2 : 0);
+        }
+
+        if (findings.isEmpty()) {
+            return null;
+        }
+        return new Signal(userId, SOURCE_CONSUMPTION, entryId, "DUPLICATE",
+                severity == 2 ? "HIGH" : severity == 1 ? "MEDIUM" : "LOW", String.join("; ", findings));
+    }
+
+    private long[] register(String type, Long userId, Long entryId, String previous, String current) {
+        if (current == null || current.equals(previous)) {
+            return new long[0];
+        }
+        return identifierIndex.register(type, current, userId, entryId);
+    }
+
+    private static String describe(String label, long[] others) {
+        StringBuilder users = new StringBuilder();
+        for (int i = 0; i < Math.min(others.length, 5); i++) {
+            users.append(i == 0 ? "" : ", ").append(others[i]);
+        }
+        if (others.length > 5) {
+            users.append(", ...");
+        }
+        return String.format("Same %s also presented by %d other user(s): %s", label, others.length, users);
+    }
+
+    private Signal scoreTamper(Long userId, Long entryId) {
+        String pincode = profileRepository.findByUserUserId(userId)
+                .map(BeneficiaryProfile::getPincode)
+                .orElse(null);
+        if (pincode == null) {
+            return null;
+        }
+        PincodeState state;
+        synchronized (pincodes) {
+            state = pincodes.computeIfAbsent(pincode, p -> new PincodeState(tamperThreshold));
+        }
+        long now = System.currentTimeMillis();
+        int inWindow;
+        synchronized (state) {
+            inWindow = state.tampers.addAndCount(now, tamperWindowMillis);
+            // One alert per burst: stay quiet until the window that raised it has passed
+            if (inWindow < tamperThreshold || now - state.lastAlertAt < tamperWindowMillis) {
+                return null;
+            }
+            state.lastAlertAt = now;
+        }
+        return new Signal(userId, SOURCE_CONSUMPTION, entryId, "PATTERN_DEVIATION", "HIGH",
+                String.format("Tampered bill burst: %d tampered bills in pincode %s within %d hours",
+                        inWindow, pincode, tamperWindowMillis / 3_600_000L));
+    }
+
+    private AmountWindow billBaseline(Long userId, Long entryId, String dataSource) {
+        UserState state = user(userId);
+        synchronized (state) {
+            if (!state.billsSeeded) {
+                List<ConsumptionEntryRepository.BillAmountView> recent = entryRepository.findRecentBillAmounts(
+                        userId, entryId != null ? entryId : Long.MAX_VALUE, PageRequest.of(0, baselineSize * 3));
+                // Newest first from the query; replay oldest first so the ring keeps the latest
+                for (int i = recent.size() - 1; i >= 0; i--) {
+                    ConsumptionEntryRepository.BillAmountView view = recent.get(i);
+                    state.amounts(view.getDataSource(), baselineSize).add(view.getBillingAmount().doubleValue());
+                }
+                state.billsSeeded = true;
+            }
+            return state.amounts(Objects.requireNonNullElse(dataSource, "UNKNOWN"), baselineSize);
+        }
+    }
+
+    private AmountWindow repaymentBaseline(Long userId) {
+        UserState state = user(userId);
+        synchronized (state) {
+            if (!state.repaymentsSeeded) {
+                List<BigDecimal> recent = repaymentRepository.findRecentAmountsByUser(
+                        userId, PageRequest.of(0, baselineSize));
+                AmountWindow window = state.amounts(REPAYMENT_BASELINE, baselineSize);
+                for (int i = recent.size() - 1; i >= 0; i--) {
+                    window.add(recent.get(i).doubleValue());
+                }
+                state.repaymentsSeeded = true;
+            }
+            return state.amounts(REPAYMENT_BASELINE, baselineSize);
+        }
+    }
+
+    private UserState user(Long userId) {
+        synchronized (users) {
+            return users.computeIfAbsent(userId, id -> new UserState(velocityMaxApplications * 2 + 1));
+        }
+    }
+
+    private static <K, V> Map<K, V> lru(int maxEntries) {
+        return new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * The parts of a bill the rules look at.
+     */
+    public record BillEvent(String dataSource, BigDecimal amount, String documentHash, String billNumber,
+            String consumerNumber, boolean tampered) {
+    }
+
+    /**
+     * A rule match, ready to become a {@code fraud_alerts} row.
+     */
+    public record Signal(Long userId, String sourceTable, Long sourceId, String alertType, String severity,
+            String description) {
+    }
+
+    private static final class UserState {
+        final Map<String, AmountWindow> amounts = new HashMap<>(4);
+        final TimeWindow applications;
+        boolean billsSeeded;
+        boolean repaymentsSeeded;
+
+        UserState(int applicationCapacity) {
+            this.applications = new TimeWindow(applicationCapacity);
+        }
+
+        AmountWindow amounts(String source, int capacity) {
+            return amounts.computeIfAbsent(source, s -> new AmountWindow(capacity));
+        }
+    }
+
+    private static final class PincodeState {
+        final TimeWindow tampers;
+        long lastAlertAt = Long.MIN_VALUE / 2;
+
+        PincodeState(int threshold) {
+            this.tampers = new TimeWindow(threshold * 2);
+        }
+    }
+
+    /**
+     * Ring of the most recent amounts.
+     */
+    static final class AmountWindow {
+        private final double[] values;
+        private int size;
+        private int next;
+
+        AmountWindow(int capacity) {
+            this.values = new double[capacity];
+        }
+
+        void add(double value) {
+            values[next] = value;
+            next = (next + 1) % values.length;
+            size = Math.min(size + 1, values.length);
+        }
+
+        /** Overwrite the newest slot holding {@code previous}, or append when there is none. */
+        void replaceOrAdd(double previous, double value) {
+            int slot = newestSlotOf(previous);
+            if (slot >= 0) {
+                values[slot] = value;
+            } else {
+                add(value);
+            }
+        }
+
+        int countExcluding(double excluded) {
+            return newestSlotOf(excluded) >= 0 ? size - 1 : size;
+        }
+
+        double meanExcluding(double excluded) {
+            int skip = newestSlotOf(excluded);
+            double sum = 0;
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                if (i != skip) {
+                    sum += values[i];
+                    n++;
+                }
+            }
+            return n == 0 ? 0 : sum / n;
+        }
+
+        private int newestSlotOf(double value) {
+            if (Double.isNaN(value)) {
+                return -1;
+            }
+            for (int k = 1; k <= size; k++) {
+                int i = Math.floorMod(next - k, values.length);
+                if (values[i] == value) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Ring of recent event times; sized a little above the threshold it is checked against,
+     * which is all a "more than N within the window" rule needs to see.
+     */
+    static final class TimeWindow {
+        private final long[] times;
+        private int size;
+        private int next;
+
+        TimeWindow(int capacity) {
+            this.times = new long[Math.max(1, capacity)];
+        }
+
+        int addAndCount(long now, long windowMillis) {
+            times[next] = now;
+            next = (next + 1) % times.length;
+            size = Math.min(size + 1, times.length);
+            long cutoff = now - windowMillis;
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (times[i] > cutoff) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+}
@@ -1,37 +1,74 @@
 package com.sih.module.fraud.service;
 
+import com.sih.common.config.PaginationConfig;
+import com.sih.common.dto.CursorPage;
+import com.sih.common.dto.KeysetCursor;
 import com.sih.common.exception.ResourceNotFoundException;
 import com.sih.module.auth.entity.User;
 import com.sih.module.auth.repository.UserRepository;
+import com.sih.module.consumption.entity.ConsumptionEntry;
+import com.sih.module.consumption.repository.ConsumptionEntryRepository;
 import com.sih.module.fraud.dto.BlacklistRequest;
 import com.sih.module.fraud.dto.FraudAlertResponse;
 import com.sih.module.fraud.dto.ResolveAlertRequest;
 import com.sih.module.fraud.entity.FraudAlert;
 import com.sih.module.fraud.repository.FraudAlertRepository;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class FraudService {
     
     private final FraudAlertRepository alertRepository;
     private final UserRepository userRepository;
+    private final ConsumptionEntryRepository entryRepository;
+    private final FraudRuleEngine ruleEngine;
+    private final PaginationConfig paginationConfig;
+    private final TransactionTemplate transactionTemplate;
+    private final int recheckEntries;
+
+    public FraudService(FraudAlertRepository alertRepository,
+            UserRepository userRepository,
+            ConsumptionEntryRepository entryRepository,
+            FraudRuleEngine ruleEngine,
+            PaginationConfig paginationConfig,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.fraud.recheck-entries:50}") int recheckEntries) {
+        this.alertRepository = alertRepository;
+        this.userRepository = userRepository;
+        this.entryRepository = entryRepository;
+        this.ruleEngine = ruleEngine;
+        this.paginationConfig = paginationConfig;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Alerts are written from afterCommit callbacks, which still see the caller's transaction
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.recheckEntries = recheckEntries;
+    }
     
-    public List<FraudAlertResponse> getAllAlerts(Boolean isResolved) {
+    public CursorPage<FraudAlertResponse> getAllAlerts(Boolean isResolved, String cursor, Integer size) {
+        int pageSize = paginationConfig.resolvePageSize(size);
+        long after = KeysetCursor.decode(cursor, Long.MAX_VALUE);
         List<FraudAlert> alerts = isResolved != null ? 
-                alertRepository.findByIsResolved(isResolved) : 
-                alertRepository.findAll();
+                alertRepository.findByIsResolvedAndAlertIdLessThanOrderByAlertIdDesc(
+                        isResolved, after, paginationConfig.keysetLimit(pageSize)) : 
+                alertRepository.findByAlertIdLessThanOrderByAlertIdDesc(after, paginationConfig.keysetLimit(pageSize));
         
-        return alerts.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return CursorPage.of(alerts, pageSize, FraudAlert::getAlertId, this::mapToResponse);
     }
     
     public FraudAlertResponse getAlertById(Long alertId) {
@@ -59,14 +96,48 @@ public class FraudService {
         return mapToResponse(alert);
     }
     
+    /**
+     * On-demand check: drops the user's rule windows and replays their most recent
+     * bills through the engine, so baselines are rebuilt from the database.
+     * Tamper bursts are left to live events, since replayed bills carry no arrival time.
+     */
     @Transactional
     public void checkUserForFraud(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found");
+        }
         
-        // TODO: Implement fraud detection logic
-        // Check for patterns, spikes, duplicates, etc.
-        log.info("Fraud check triggered for user: {}", userId);
+        ruleEngine.forget(userId);
+        List<ConsumptionEntry> recent = entryRepository.findByUserUserIdAndEntryIdLessThanOrderByEntryIdDesc(
+                userId, Long.MAX_VALUE, PageRequest.of(0, recheckEntries));
+        List<FraudRuleEngine.Signal> signals = new ArrayList<>();
+        for (int i = recent.size() - 1; i >= 0; i--) {
+            ConsumptionEntry entry = recent.get(i);
+            signals.addAll(ruleEngine.onBillChanged(userId, entry.getEntryId(), null,
+                    new FraudRuleEngine.BillEvent(entry.getDataSource(), entry.getBillingAmount(),
+                            entry.getDocumentHash(), entry.getBillNumber(), entry.getConsumerNumber(), false)));
+        }
+        long raised = signals.stream().filter(this::raise).count();
+        log.info("Fraud check for user {}: {} entries replayed, {} new alerts", userId, recent.size(), raised);
+    }
+
+    /**
+     * Score a consumption entry write. Rules run once the caller's transaction has
+     * committed, so a rolled-back write never feeds the windows or raises an alert.
+     *
+     * @param before the bill as it was, or {@code null} when it was just created
+     */
+    public void onBillChanged(Long userId, Long entryId, FraudRuleEngine.BillEvent before,
+            FraudRuleEngine.BillEvent after) {
+        afterCommit(() -> ruleEngine.onBillChanged(userId, entryId, before, after));
+    }
+
+    public void onApplicationSubmitted(Long userId, Long applicationId) {
+        afterCommit(() -> ruleEngine.onApplicationSubmitted(userId, applicationId));
+    }
+
+    public void onRepaymentPosted(Long userId, Long loanId, BigDecimal amount) {
+        afterCommit(() -> ruleEngine.onRepaymentPosted(userId, loanId, amount));
     }
     
     @Transactional
@@ -116,6 +187,46 @@ public class FraudService {
         log.info("Fraud alert created: {} for user: {}", alertType, userId);
     }
     
+    private void afterCommit(Supplier<List<FraudRuleEngine.Signal>> rules) {
+        if (!ruleEngine.isEnabled()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evaluate(rules);
+                }
+            });
+        } else {
+            evaluate(rules);
+        }
+    }
+
+    private void evaluate(Supplier<List<FraudRuleEngine.Signal>> rules) {
+        // Fraud scoring is advisory: a failure here must never surface to the write that triggered it
+        try {
+            // The rules write bill_identifier_index, so they run in the same new transaction as the alerts
+            transactionTemplate.executeWithoutResult(status -> rules.get().forEach(this::raise));
+        } catch (Exception e) {
+            log.error("Fraud rule evaluation failed", e);
+        }
+    }
+
+    /**
+     * Create the alert unless an open alert from the same rule already covers the source row.
+     */
+    private boolean raise(FraudRuleEngine.Signal signal) {
+        if (signal.sourceId() != null
+                && alertRepository.existsBySourceTableAndSourceIdAndAlertTypeAndIsResolvedFalse(
+                        signal.sourceTable(), signal.sourceId(), signal.alertType())) {
+            return false;
+        }
+        createAlert(signal.userId(), signal.sourceTable(), signal.sourceId(),
+                signal.alertType(), signal.severity(), signal.description());
+        return true;
+    }
+    
     private FraudAlertResponse mapToResponse(FraudAlert alert) {
         return FraudAlertResponse.builder()
                 .alertId(alert.getAlertId())
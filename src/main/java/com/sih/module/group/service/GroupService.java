@@ -9,11 +9,14 @@ import com.sih.module.group.entity.BorrowerGroup;
 import com.sih.module.group.entity.GroupMember;
 import com.sih.module.group.repository.BorrowerGroupRepository;
 import com.sih.module.group.repository.GroupMemberRepository;
+import com.sih.module.scoring.service.FeatureStoreService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -25,6 +28,7 @@ public class GroupService {
     private final BorrowerGroupRepository groupRepository;
     private final GroupMemberRepository memberRepository;
     private final UserRepository userRepository;
+    private final FeatureStoreService featureStoreService;
 
     private static final int MAX_GROUP_MEMBERS = 10;
 
@@ -52,6 +56,7 @@ public class GroupService {
                 .status("APPROVED")
                 .build();
         memberRepository.save(leader);
+        refreshGroupFeatures(group.getGroupId());
 
         log.info("Group created: {} by user: {}", group.getGroupId(), userId);
         return mapToResponse(group);
@@ -107,6 +112,7 @@ public class GroupService {
 
         group.setIsActive(false);
         groupRepository.save(group);
+        refreshGroupFeatures(groupId);
         log.info("Group disbanded: {}", groupId);
     }
 
@@ -156,6 +162,7 @@ public class GroupService {
         }
 
         memberRepository.delete(member);
+        refreshGroupFeatures(groupId, userId);
         log.info("User {} left group {}", userId, groupId);
     }
 
@@ -189,6 +196,7 @@ public class GroupService {
 
         member.setStatus("APPROVED");
         member = memberRepository.save(member);
+        refreshGroupFeatures(groupId);
 
         log.info("Member {} approved in group {}", memberUserId, groupId);
         return mapMemberToResponse(member);
@@ -215,6 +223,7 @@ public class GroupService {
         }
 
         memberRepository.delete(member);
+        refreshGroupFeatures(groupId, memberUserId);
         log.info("Member {} removed from group {}", memberUserId, groupId);
     }
 
@@ -245,11 +254,23 @@ public class GroupService {
 
         pendingMembers.forEach(member -> member.setStatus("APPROVED"));
         memberRepository.saveAll(pendingMembers);
+        refreshGroupFeatures(groupId);
 
         log.info("All pending members approved in group {} by leader {}", groupId, leaderId);
         return getGroupMembers(groupId);
     }
 
+    /**
+     * Group size feeds every member's scoring features, so any membership
+     * change refreshes the whole (at most {@value #MAX_GROUP_MEMBERS}-strong) group.
+     */
+    private void refreshGroupFeatures(Long groupId, Long... departedUserIds) {
+        List<Long> userIds = new ArrayList<>();
+        memberRepository.findByGroupGroupId(groupId).forEach(member -> userIds.add(member.getUser().getUserId()));
+        Collections.addAll(userIds, departedUserIds);
+        featureStoreService.onGroupMembershipChanged(userIds);
+    }
+
     private GroupResponse mapToResponse(BorrowerGroup group) {
         List<GroupMember> members = memberRepository.findByGroupGroupId(group.getGroupId());
 
@@ -1,16 +1,33 @@
 package com.sih.module.loan.controller;
 
 import com.sih.common.dto.ApiResponse;
+import com.sih.common.dto.CursorPage;
+import com.sih.module.loan.dto.DpdRunReport;
+import com.sih.module.loan.dto.ForeclosureQuoteResponse;
+import com.sih.module.loan.dto.InstallmentResponse;
 import com.sih.module.loan.dto.LoanResponse;
 import com.sih.module.loan.dto.PaymentRequest;
+import com.sih.module.loan.dto.RepaymentImportReport;
+import com.sih.module.loan.dto.RepaymentResponse;
+import com.sih.module.loan.dto.RescheduleRequest;
 import com.sih.module.loan.entity.Repayment;
+import com.sih.module.loan.service.LoanDelinquencyService;
 import com.sih.module.loan.service.LoanService;
+import com.sih.module.loan.service.RepaymentFileReader;
+import com.sih.module.loan.service.RepaymentImportService;
+import com.sih.module.loan.service.RepaymentPostingService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -19,11 +36,16 @@ import java.util.List;
 public class LoanController {
     
     private final LoanService loanService;
+    private final LoanDelinquencyService delinquencyService;
+    private final RepaymentPostingService repaymentPostingService;
+    private final RepaymentImportService repaymentImportService;
     
     @GetMapping
-    public ResponseEntity<ApiResponse<List<LoanResponse>>> getMyLoans(
-            @AuthenticationPrincipal Long userId) {
-        List<LoanResponse> loans = loanService.getMyLoans(userId);
+    public ResponseEntity<ApiResponse<CursorPage<LoanResponse>>> getMyLoans(
+            @AuthenticationPrincipal Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<LoanResponse> loans = loanService.getMyLoans(userId, cursor, size);
         return ResponseEntity.ok(ApiResponse.success(loans));
     }
     
@@ -34,26 +56,48 @@ public class LoanController {
     }
     
     @GetMapping("/{id}/schedule")
-    public ResponseEntity<ApiResponse<List<Repayment>>> getSchedule(@PathVariable Long id) {
-        List<Repayment> schedule = loanService.getRepaymentSchedule(id);
+    public ResponseEntity<ApiResponse<List<InstallmentResponse>>> getSchedule(@PathVariable Long id) {
+        List<InstallmentResponse> schedule = loanService.getRepaymentSchedule(id);
         return ResponseEntity.ok(ApiResponse.success(schedule));
     }
     
+    @GetMapping("/{id}/repayments")
+    public ResponseEntity<ApiResponse<List<Repayment>>> getRepayments(@PathVariable Long id) {
+        List<Repayment> repayments = loanService.getRepayments(id);
+        return ResponseEntity.ok(ApiResponse.success(repayments));
+    }
+    
+    @GetMapping("/{id}/foreclosure-quote")
+    public ResponseEntity<ApiResponse<ForeclosureQuoteResponse>> getForeclosureQuote(@PathVariable Long id) {
+        ForeclosureQuoteResponse quote = loanService.getForeclosureQuote(id);
+        return ResponseEntity.ok(ApiResponse.success(quote));
+    }
+    
     @PostMapping("/{id}/repay")
-    public ResponseEntity<ApiResponse<Object>> makeRepayment(
+    public ResponseEntity<ApiResponse<RepaymentResponse>> makeRepayment(
             @PathVariable Long id,
             @AuthenticationPrincipal Long userId,
             @Valid @RequestBody PaymentRequest request) {
-        loanService.makeRepayment(id, userId, request);
-        return ResponseEntity.ok(ApiResponse.success("Repayment recorded successfully"));
+        RepaymentResponse response = repaymentPostingService.makeRepayment(id, userId, request);
+        return ResponseEntity.ok(ApiResponse.success(
+                response.isDuplicate() ? "Repayment already recorded" : "Repayment recorded successfully", response));
     }
     
     @PostMapping("/{id}/foreclose")
-    public ResponseEntity<ApiResponse<Object>> forecloseLoan(
+    public ResponseEntity<ApiResponse<ForeclosureQuoteResponse>> forecloseLoan(
             @PathVariable Long id,
             @AuthenticationPrincipal Long userId) {
-        loanService.forecloseLoan(id, userId);
-        return ResponseEntity.ok(ApiResponse.success("Loan foreclosed"));
+        ForeclosureQuoteResponse quote = loanService.forecloseLoan(id, userId);
+        return ResponseEntity.ok(ApiResponse.success("Loan foreclosed", quote));
+    }
+    
+    @PostMapping("/{id}/reschedule")
+    @PreAuthorize("hasAnyRole('ADMIN', 'LOAN_OFFICER')")
+    public ResponseEntity<ApiResponse<LoanResponse>> rescheduleLoan(
+            @PathVariable Long id,
+            @Valid @RequestBody RescheduleRequest request) {
+        LoanResponse response = loanService.rescheduleLoan(id, request);
+        return ResponseEntity.ok(ApiResponse.success("Loan rescheduled", response));
     }
     
     @PostMapping("/{id}/waive-off")
@@ -61,5 +105,28 @@ public class LoanController {
         loanService.waiveOffLoan(id);
         return ResponseEntity.ok(ApiResponse.success("Loan waived off"));
     }
+    
+    @PostMapping("/dpd/run")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<DpdRunReport>> runDpdJob(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "false") boolean force) {
+        DpdRunReport report = delinquencyService.run(date != null ? date : LocalDate.now(), force);
+        return ResponseEntity.ok(ApiResponse.success(report));
+    }
+    
+    /**
+     * Bulk posting of a bank settlement file sent as the raw request body
+     * (not multipart), so it streams straight from the socket.
+     */
+    @PostMapping(value = "/repayments/import",
+            consumes = {"text/csv", "text/plain", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @PreAuthorize("hasAnyRole('ADMIN', 'LOAN_OFFICER')")
+    public ResponseEntity<ApiResponse<RepaymentImportReport>> importRepayments(
+            HttpServletRequest request,
+            @RequestParam(defaultValue = "CSV") RepaymentFileReader.Format format,
+            @RequestParam(required = false) String fileName) throws IOException {
+        RepaymentImportReport report = repaymentImportService.importFile(request.getInputStream(), format, fileName);
+        return ResponseEntity.ok(ApiResponse.success(report));
+    }
 }
-
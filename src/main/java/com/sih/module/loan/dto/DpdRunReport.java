@@ -0,0 +1,24 @@
+package com.sih.module.loan.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DpdRunReport {
+    private LocalDate runDate;
+    private String status; // 'COMPLETED', 'ALREADY_COMPLETED'
+    private long resumedAfterLoanId; // 0 for a fresh run
+    private long loansProcessed;
+    private long loansOverdue;
+    private long loansUpdated;
+    private long remindersSent;
+    private int chunks;
+    private long durationMs;
+}
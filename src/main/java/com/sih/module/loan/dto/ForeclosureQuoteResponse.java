@@ -0,0 +1,21 @@
+package com.sih.module.loan.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ForeclosureQuoteResponse {
+    private Long loanId;
+    private LocalDate asOf;
+    private BigDecimal outstandingPrincipal;
+    private BigDecimal accruedInterest; // overdue interest plus the current period pro rata
+    private BigDecimal settlementAmount;
+}
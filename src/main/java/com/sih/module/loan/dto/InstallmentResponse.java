@@ -0,0 +1,27 @@
+package com.sih.module.loan.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InstallmentResponse {
+    private Integer installmentNo;
+    private LocalDate dueDate;
+    private BigDecimal openingBalance;
+    private BigDecimal emiAmount;
+    private BigDecimal principalComponent;
+    private BigDecimal interestComponent;
+    private BigDecimal closingBalance;
+    private BigDecimal principalPaid;
+    private BigDecimal interestPaid;
+    private LocalDate paidDate;
+    private String status; // 'DUE', 'PARTIALLY_PAID', 'PAID', 'CANCELLED'
+}
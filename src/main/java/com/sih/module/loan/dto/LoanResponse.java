@@ -26,6 +26,8 @@ public class LoanResponse {
     private LocalDate endDate;
     private String loanStatus;
     private LocalDate nextPaymentDate;
+    private Integer daysPastDue;
+    private String dpdBucket;
     private OffsetDateTime createdAt;
     private OffsetDateTime updatedAt;
 }
@@ -1,7 +1,9 @@
 package com.sih.module.loan.dto;
 
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 
 import java.math.BigDecimal;
@@ -10,11 +12,13 @@ import java.math.BigDecimal;
 public class PaymentRequest {
     
     @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.01", message = "Amount must be positive")
     private BigDecimal amount;
     
     @NotBlank(message = "Payment mode is required")
     private String mode;
     
-    private String transactionRef;
+    @Size(max = 100, message = "Transaction reference cannot exceed 100 characters")
+    private String transactionRef; // Idempotency key: a reference already posted is not applied again
 }
 
@@ -0,0 +1,50 @@
+package com.sih.module.loan.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Reconciliation summary of a bulk repayment import. Only rows that were not
+ * posted are itemised, up to the configured cap.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RepaymentImportReport {
+    private String fileName;
+    private String format;
+    private long totalRows;
+    private long posted;
+    private long duplicates; // transactionRef already on file (earlier import, API posting or repeated line)
+    private long unmatched; // no such loan, or neither loan id nor a known transactionRef
+    private long rejected; // unparseable, loan not active, or amount above what is due
+    private long failed; // batch could not be committed; safe to re-import, posted refs are skipped
+    private BigDecimal amountPosted;
+    private int batches;
+    private long durationMs;
+    private List<Discrepancy> discrepancies;
+    private boolean discrepanciesTruncated;
+    private boolean incomplete; // the upload stopped early; rows after the last line read were not seen
+    private String abortReason;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Discrepancy {
+        private long lineNumber;
+        private String transactionRef;
+        private Long loanId;
+        private BigDecimal amount;
+        private LocalDate paymentDate;
+        private String status; // 'DUPLICATE', 'UNMATCHED', 'REJECTED', 'FAILED'
+        private String reason;
+    }
+}
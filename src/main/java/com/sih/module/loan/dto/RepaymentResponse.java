@@ -0,0 +1,23 @@
+package com.sih.module.loan.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RepaymentResponse {
+    private Long repaymentId;
+    private Long loanId;
+    private String transactionRef;
+    private BigDecimal amountPaid;
+    private LocalDate paidDate;
+    private Integer delayDays;
+    private boolean duplicate; // true when the transactionRef had already been posted
+}
@@ -0,0 +1,22 @@
+package com.sih.module.loan.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class RescheduleRequest {
+
+    @NotNull(message = "Tenure is required")
+    @Min(value = 1, message = "Tenure must be at least one month")
+    @Max(value = 360, message = "Tenure cannot exceed 360 months")
+    private Integer tenureMonths;
+
+    // Defaults to the loan's sanctioned rate
+    @DecimalMin(value = "0.0", message = "Interest rate cannot be negative")
+    private BigDecimal interestRate;
+}
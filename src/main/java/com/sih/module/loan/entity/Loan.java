@@ -65,5 +65,22 @@ public class Loan extends BaseEntity {
     
     @Column(name = "next_payment_date")
     private LocalDate nextPaymentDate;
+    
+    // Maintained by the nightly DPD job (LoanDelinquencyService)
+    @Column(name = "days_past_due", nullable = false)
+    @Builder.Default
+    private Integer daysPastDue = 0;
+    
+    @Column(name = "dpd_bucket", length = 20, nullable = false)
+    @Builder.Default
+    private String dpdBucket = "CURRENT"; // 'CURRENT', 'SMA_0', 'SMA_1', 'SMA_2', 'NPA'
+    
+    @Column(name = "dpd_as_of")
+    private LocalDate dpdAsOf;
+    
+    // Every balance change bumps this; concurrent postings retry instead of overwriting each other
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
 
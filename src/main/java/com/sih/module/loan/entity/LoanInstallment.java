@@ -0,0 +1,93 @@
+package com.sih.module.loan.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+/**
+ * One period of a loan's amortization schedule. Rows are inserted in batches
+ * by {@code LoanInstallmentJdbcRepository}; JPA is only used to read them and
+ * to record allocations.
+ */
+@Entity
+@Table(name = "loan_installments", indexes = {
+    @Index(name = "idx_installments_open_due", columnList = "due_date, loan_id")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uq_loan_installment_no", columnNames = {"loan_id", "installment_no"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanInstallment {
+
+    public static final String DUE = "DUE";
+    public static final String PARTIALLY_PAID = "PARTIALLY_PAID";
+    public static final String PAID = "PAID";
+    public static final String CANCELLED = "CANCELLED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "installment_id")
+    private Long installmentId;
+
+    @Column(name = "loan_id", nullable = false)
+    private Long loanId;
+
+    @Column(name = "installment_no", nullable = false)
+    private Integer installmentNo;
+
+    @Column(name = "due_date", nullable = false)
+    private LocalDate dueDate;
+
+    @Column(name = "opening_balance", nullable = false, precision = 15, scale = 2)
+    private BigDecimal openingBalance;
+
+    @Column(name = "emi_amount", nullable = false, precision = 15, scale = 2)
+    private BigDecimal emiAmount;
+
+    @Column(name = "principal_component", nullable = false, precision = 15, scale = 2)
+    private BigDecimal principalComponent;
+
+    @Column(name = "interest_component", nullable = false, precision = 15, scale = 2)
+    private BigDecimal interestComponent;
+
+    @Column(name = "closing_balance", nullable = false, precision = 15, scale = 2)
+    private BigDecimal closingBalance;
+
+    @Column(name = "principal_paid", nullable = false, precision = 15, scale = 2)
+    @Builder.Default
+    private BigDecimal principalPaid = BigDecimal.ZERO;
+
+    @Column(name = "interest_paid", nullable = false, precision = 15, scale = 2)
+    @Builder.Default
+    private BigDecimal interestPaid = BigDecimal.ZERO;
+
+    @Column(name = "paid_date")
+    private LocalDate paidDate;
+
+    @Column(name = "status", length = 20, nullable = false)
+    @Builder.Default
+    private String status = DUE; // 'DUE', 'PARTIALLY_PAID', 'PAID', 'CANCELLED'
+
+    @Column(name = "created_at", updatable = false, insertable = false)
+    private OffsetDateTime createdAt;
+
+    public BigDecimal getPrincipalDue() {
+        return principalComponent.subtract(principalPaid);
+    }
+
+    public BigDecimal getInterestDue() {
+        return interestComponent.subtract(interestPaid);
+    }
+
+    public boolean isOpen() {
+        return DUE.equals(status) || PARTIALLY_PAID.equals(status);
+    }
+}
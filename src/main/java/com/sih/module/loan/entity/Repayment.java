@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -15,8 +16,10 @@ import java.time.OffsetDateTime;
     @Index(name = "idx_repay_loan", columnList = "loan_id"),
     @Index(name = "idx_repay_due_date", columnList = "due_date"),
     @Index(name = "idx_repay_paid_date", columnList = "paid_date"),
-    @Index(name = "idx_repay_on_time", columnList = "is_on_time")
+    @Index(name = "idx_repay_on_time", columnList = "is_on_time"),
+    @Index(name = "uq_repay_transaction_ref", columnList = "transaction_ref", unique = true)
 })
+@Immutable // Ledger rows are append-only; corrections are posted as new rows
 @Data
 @Builder
 @NoArgsConstructor
@@ -0,0 +1,200 @@
+package com.sih.module.loan.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Set-based access for the nightly DPD job: keyset chunks of active loans
+ * with their oldest open installment, JDBC batch updates of the DPD columns,
+ * bulk reminder inserts and the per-run checkpoint row, which also carries
+ * the cross-instance lease on the run.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LoanDelinquencyJdbcRepository {
+
+    // Loans without a stored schedule yet fall back to next_payment_date
+    private static final String SELECT_ACTIVE_CHUNK = """
+            SELECT l.loan_id, l.user_id, l.version, l.days_past_due, l.dpd_bucket, l.monthly_emi,
+                   COALESCE(o.oldest_due, l.next_payment_date) AS oldest_due,
+                   COALESCE(o.overdue_amount, 0) AS overdue_amount
+            FROM loans l
+            LEFT JOIN LATERAL (
+                SELECT MIN(i.due_date) AS oldest_due,
+                       SUM(CASE WHEN i.due_date <= ?
+                           THEN i.principal_component - i.principal_paid + i.interest_component - i.interest_paid
+                           ELSE 0 END) AS overdue_amount
+                FROM loan_installments i
+                WHERE i.loan_id = l.loan_id AND i.status IN ('DUE', 'PARTIALLY_PAID')
+            ) o ON TRUE
+            WHERE l.loan_status = 'ACTIVE' AND l.loan_id > ?
+            ORDER BY l.loan_id
+            LIMIT ?
+            """;
+
+    // Guarded by the version read with the chunk: a repayment posted since then wins and the
+    // row is skipped. Bumps the version so a repayment that read the loan earlier retries on top.
+    private static final String UPDATE_DPD = "UPDATE loans SET days_past_due = ?, dpd_bucket = ?, dpd_as_of = ?, " +
+            "version = version + 1, updated_at = now() WHERE loan_id = ? AND version = ?";
+
+    private static final String INSERT_NOTIFICATION = """
+            INSERT INTO notifications (user_id, channel, template_key, payload, status, is_read)
+            VALUES (?, ?, ?, ?::jsonb, 'PENDING', FALSE)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public List<ActiveLoan> findActiveChunk(long afterLoanId, LocalDate asOf, int limit) {
+        return jdbcTemplate.query(SELECT_ACTIVE_CHUNK, (rs, rowNum) -> {
+            Date oldestDue = rs.getDate("oldest_due");
+            return new ActiveLoan(
+                    rs.getLong("loan_id"),
+                    rs.getLong("user_id"),
+                    rs.getLong("version"),
+                    rs.getInt("days_past_due"),
+                    rs.getString("dpd_bucket"),
+                    rs.getBigDecimal("monthly_emi"),
+                    oldestDue != null ? oldestDue.toLocalDate() : null,
+                    rs.getBigDecimal("overdue_amount"));
+        }, Date.valueOf(asOf), afterLoanId, limit);
+    }
+
+    /**
+     * Applies the DPD updates and returns the ids of loans that changed since
+     * the chunk was read, which were left untouched.
+     */
+    public Set<Long> updateDpd(List<DpdUpdate> updates, LocalDate asOf) {
+        if (updates.isEmpty()) {
+            return Set.of();
+        }
+        Date runDate = Date.valueOf(asOf);
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_DPD, updates, updates.size(), (ps, update) -> {
+            ps.setInt(1, update.daysPastDue());
+            ps.setString(2, update.bucket());
+            ps.setDate(3, runDate);
+            ps.setLong(4, update.loanId());
+            ps.setLong(5, update.version());
+        });
+        Set<Long> stale = new HashSet<>();
+        int i = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count == 0) {
+                    stale.add(updates.get(i).loanId());
+                }
+                i++;
+            }
+        }
+        return stale;
+    }
+
+    public void insertNotifications(List<Reminder> reminders) {
+        if (reminders.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_NOTIFICATION, reminders, reminders.size(), (ps, reminder) -> {
+            ps.setLong(1, reminder.userId());
+            ps.setString(2, reminder.channel());
+            ps.setString(3, reminder.templateKey());
+            ps.setString(4, toJson(reminder.payload()));
+        });
+    }
+
+    /**
+     * Creates the run row for the date if absent and claims it for {@code owner}.
+     * Succeeds only when no other instance holds an unexpired lease; a row that
+     * is still RUNNING belongs to an interrupted run and carries the resume point.
+     */
+    public boolean claimRun(LocalDate runDate, String owner, long leaseSeconds) {
+        jdbcTemplate.update("INSERT INTO loan_dpd_runs (run_date) VALUES (?) ON CONFLICT (run_date) DO NOTHING",
+                Date.valueOf(runDate));
+        return jdbcTemplate.update("""
+                UPDATE loan_dpd_runs SET claimed_by = ?, lease_until = now() + make_interval(secs => ?)
+                WHERE run_date = ? AND (claimed_by IS NULL OR lease_until < now())
+                """, owner, leaseSeconds, Date.valueOf(runDate)) == 1;
+    }
+
+    public void releaseRun(LocalDate runDate, String owner) {
+        jdbcTemplate.update("UPDATE loan_dpd_runs SET claimed_by = NULL, lease_until = NULL " +
+                "WHERE run_date = ? AND claimed_by = ?", Date.valueOf(runDate), owner);
+    }
+
+    public Optional<RunCheckpoint> findRun(LocalDate runDate) {
+        return jdbcTemplate.query("SELECT * FROM loan_dpd_runs WHERE run_date = ?", (rs, rowNum) -> new RunCheckpoint(
+                rs.getDate("run_date").toLocalDate(),
+                rs.getString("status"),
+                rs.getLong("last_loan_id"),
+                rs.getLong("loans_processed"),
+                rs.getLong("loans_overdue"),
+                rs.getLong("loans_updated"),
+                rs.getLong("reminders_sent")), Date.valueOf(runDate)).stream().findFirst();
+    }
+
+    /**
+     * Advances the checkpoint and extends the lease; called in the same
+     * transaction as the chunk's writes. Returns false when {@code owner} no
+     * longer holds the run, in which case the caller must roll the chunk back.
+     */
+    public boolean checkpoint(LocalDate runDate, String owner, long leaseSeconds, long lastLoanId, long processed,
+            long overdue, long updated, long reminders) {
+        return jdbcTemplate.update("""
+                UPDATE loan_dpd_runs SET last_loan_id = ?, loans_processed = loans_processed + ?,
+                    loans_overdue = loans_overdue + ?, loans_updated = loans_updated + ?,
+                    reminders_sent = reminders_sent + ?, lease_until = now() + make_interval(secs => ?)
+                WHERE run_date = ? AND claimed_by = ?
+                """, lastLoanId, processed, overdue, updated, reminders, leaseSeconds, Date.valueOf(runDate),
+                owner) == 1;
+    }
+
+    public void completeRun(LocalDate runDate, String owner) {
+        jdbcTemplate.update("UPDATE loan_dpd_runs SET status = 'COMPLETED', finished_at = now() " +
+                "WHERE run_date = ? AND claimed_by = ?", Date.valueOf(runDate), owner);
+    }
+
+    public void resetRun(LocalDate runDate) {
+        jdbcTemplate.update("""
+                UPDATE loan_dpd_runs SET status = 'RUNNING', last_loan_id = 0, loans_processed = 0,
+                    loans_overdue = 0, loans_updated = 0, reminders_sent = 0, started_at = now(), finished_at = NULL
+                WHERE run_date = ?
+                """, Date.valueOf(runDate));
+    }
+
+    private String toJson(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize notification payload", e);
+        }
+    }
+
+    public record ActiveLoan(long loanId, long userId, long version, int daysPastDue, String dpdBucket, BigDecimal monthlyEmi,
+            LocalDate oldestDueDate, BigDecimal overdueAmount) {
+    }
+
+    public record DpdUpdate(long loanId, long version, int daysPastDue, String bucket) {
+    }
+
+    public record Reminder(long loanId, long userId, String channel, String templateKey, Map<String, Object> payload) {
+    }
+
+    public record RunCheckpoint(LocalDate runDate, String status, long lastLoanId, long loansProcessed,
+            long loansOverdue, long loansUpdated, long remindersSent) {
+
+        public boolean isCompleted() {
+            return "COMPLETED".equals(status);
+        }
+    }
+}
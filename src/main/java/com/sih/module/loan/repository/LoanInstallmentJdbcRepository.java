@@ -0,0 +1,42 @@
+package com.sih.module.loan.repository;
+
+import com.sih.module.loan.service.AmortizationEngine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.util.List;
+
+/**
+ * Batch writes for amortization schedules: a whole schedule goes out as one
+ * JDBC batch instead of one identity insert per installment.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LoanInstallmentJdbcRepository {
+
+    private static final String INSERT_INSTALLMENT = """
+            INSERT INTO loan_installments (loan_id, installment_no, due_date, opening_balance, emi_amount,
+                principal_component, interest_component, closing_balance)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertSchedule(long loanId, List<AmortizationEngine.Period> periods) {
+        if (periods.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_INSTALLMENT, periods, periods.size(), (ps, period) -> {
+            ps.setLong(1, loanId);
+            ps.setInt(2, period.installmentNo());
+            ps.setDate(3, Date.valueOf(period.dueDate()));
+            ps.setBigDecimal(4, period.openingBalance());
+            ps.setBigDecimal(5, period.emiAmount());
+            ps.setBigDecimal(6, period.principalComponent());
+            ps.setBigDecimal(7, period.interestComponent());
+            ps.setBigDecimal(8, period.closingBalance());
+        });
+    }
+}
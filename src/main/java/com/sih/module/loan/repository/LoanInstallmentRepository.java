@@ -0,0 +1,49 @@
+package com.sih.module.loan.repository;
+
+import com.sih.module.loan.entity.LoanInstallment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface LoanInstallmentRepository extends JpaRepository<LoanInstallment, Long> {
+
+    List<LoanInstallment> findByLoanIdOrderByInstallmentNo(Long loanId);
+
+    @Query("SELECT i FROM LoanInstallment i WHERE i.loanId = :loanId AND i.status IN ('DUE', 'PARTIALLY_PAID') " +
+           "ORDER BY i.installmentNo")
+    List<LoanInstallment> findOpenInstallments(@Param("loanId") Long loanId);
+
+    @Query("SELECT i FROM LoanInstallment i WHERE i.loanId IN :loanIds AND i.status IN ('DUE', 'PARTIALLY_PAID') " +
+           "ORDER BY i.loanId, i.installmentNo")
+    List<LoanInstallment> findOpenInstallmentsForLoans(@Param("loanIds") Collection<Long> loanIds);
+
+    boolean existsByLoanId(Long loanId);
+
+    @Query("SELECT COALESCE(MAX(i.installmentNo), 0) FROM LoanInstallment i WHERE i.loanId = :loanId")
+    int findLastInstallmentNo(@Param("loanId") Long loanId);
+
+    /**
+     * Closes the rest of a schedule (reschedule, foreclosure, waiver); amounts
+     * already allocated to those rows are kept.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE LoanInstallment i SET i.status = 'CANCELLED' " +
+           "WHERE i.loanId = :loanId AND i.status IN ('DUE', 'PARTIALLY_PAID')")
+    int cancelOpenInstallments(@Param("loanId") Long loanId);
+
+    /**
+     * Closes the open installments that are not yet overdue (due on or after
+     * {@code from}); arrears stay open and keep ageing.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE LoanInstallment i SET i.status = 'CANCELLED' " +
+           "WHERE i.loanId = :loanId AND i.status IN ('DUE', 'PARTIALLY_PAID') AND i.dueDate >= :from")
+    int cancelOpenInstallmentsDueFrom(@Param("loanId") Long loanId, @Param("from") LocalDate from);
+}
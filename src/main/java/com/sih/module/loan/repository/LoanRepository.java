@@ -1,6 +1,7 @@
 package com.sih.module.loan.repository;
 
 import com.sih.module.loan.entity.Loan;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -9,6 +10,7 @@ import java.util.List;
 @Repository
 public interface LoanRepository extends JpaRepository<Loan, Long> {
     List<Loan> findByUserUserId(Long userId);
+    List<Loan> findByUserUserIdAndLoanIdLessThanOrderByLoanIdDesc(Long userId, Long loanId, Pageable pageable);
     List<Loan> findByLoanStatus(String status);
 }
 
@@ -0,0 +1,48 @@
+package com.sih.module.loan.repository;
+
+import com.sih.module.loan.entity.Repayment;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Batch inserts for bulk repayment imports. Repayment ids are identity
+ * columns, which stop Hibernate from batching inserts, so imported rows go
+ * out as one JDBC batch per import chunk.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RepaymentJdbcRepository {
+
+    private static final String INSERT_REPAYMENT = """
+            INSERT INTO repayments (loan_id, due_date, paid_date, amount_due, amount_paid, payment_mode,
+                transaction_ref, delay_days)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertAll(List<Repayment> repayments) {
+        if (repayments.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_REPAYMENT, repayments, repayments.size(), (ps, repayment) -> {
+            ps.setLong(1, repayment.getLoan().getLoanId());
+            if (repayment.getDueDate() != null) {
+                ps.setDate(2, Date.valueOf(repayment.getDueDate()));
+            } else {
+                ps.setNull(2, Types.DATE);
+            }
+            ps.setDate(3, Date.valueOf(repayment.getPaidDate()));
+            ps.setBigDecimal(4, repayment.getAmountDue());
+            ps.setBigDecimal(5, repayment.getAmountPaid());
+            ps.setString(6, repayment.getPaymentMode());
+            ps.setString(7, repayment.getTransactionRef());
+            ps.setInt(8, repayment.getDelayDays());
+        });
+    }
+}
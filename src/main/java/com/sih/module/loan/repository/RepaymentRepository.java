@@ -1,13 +1,33 @@
 package com.sih.module.loan.repository;
 
 import com.sih.module.loan.entity.Repayment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface RepaymentRepository extends JpaRepository<Repayment, Long> {
     List<Repayment> findByLoanLoanId(Long loanId);
+    Optional<Repayment> findByTransactionRef(String transactionRef);
+
+    @Query("SELECT r.transactionRef AS transactionRef, r.loan.loanId AS loanId FROM Repayment r " +
+           "WHERE r.transactionRef IN :refs")
+    List<PostedRefView> findPostedRefs(@Param("refs") Collection<String> refs);
+
+    @Query("SELECT r.amountPaid FROM Repayment r " +
+           "WHERE r.loan.user.userId = :userId AND r.amountPaid > 0 ORDER BY r.repaymentId DESC")
+    List<BigDecimal> findRecentAmountsByUser(@Param("userId") Long userId, Pageable pageable);
+
+    interface PostedRefView {
+        String getTransactionRef();
+        Long getLoanId();
+    }
 }
 
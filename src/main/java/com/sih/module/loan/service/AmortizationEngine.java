@@ -0,0 +1,84 @@
+package com.sih.module.loan.service;
+
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reducing-balance amortization. Each period's interest is charged on the
+ * opening balance and rounded to paise; the last period absorbs the rounding
+ * drift so the schedule always retires the principal exactly.
+ */
+@Component
+public class AmortizationEngine {
+
+    // Enough precision that (1 + r)^n does not drift before the EMI is rounded
+    private static final MathContext RATE_CONTEXT = MathContext.DECIMAL64;
+    private static final BigDecimal MONTHS_PERCENT = BigDecimal.valueOf(1200);
+
+    /**
+     * @param annualRatePercent nominal yearly rate, e.g. 10.5
+     * @param startDate         installment {@code k} falls due {@code k} months after this date
+     * @param firstInstallmentNo numbering continues from here, so rescheduled rows follow the old ones
+     */
+    public Schedule schedule(BigDecimal principal, BigDecimal annualRatePercent, int tenureMonths,
+            LocalDate startDate, int firstInstallmentNo) {
+        if (tenureMonths <= 0) {
+            throw new IllegalArgumentException("Tenure must be at least one month");
+        }
+        BigDecimal monthlyRate = annualRatePercent.divide(MONTHS_PERCENT, RATE_CONTEXT);
+        BigDecimal emi = emi(principal, monthlyRate, tenureMonths);
+
+        List<Period> periods = new ArrayList<>(tenureMonths);
+        BigDecimal balance = principal.setScale(2, RoundingMode.HALF_UP);
+        BigDecimal totalInterest = BigDecimal.ZERO;
+        for (int k = 1; k <= tenureMonths; k++) {
+            BigDecimal interest = balance.multiply(monthlyRate).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal principalPart = emi.subtract(interest);
+            if (k == tenureMonths || principalPart.compareTo(balance) > 0) {
+                principalPart = balance;
+            }
+            BigDecimal closing = balance.subtract(principalPart);
+            periods.add(new Period(firstInstallmentNo + k - 1, startDate.plusMonths(k), balance,
+                    principalPart.add(interest), principalPart, interest, closing));
+            totalInterest = totalInterest.add(interest);
+            balance = closing;
+            if (balance.signum() == 0) {
+                break;
+            }
+        }
+        return new Schedule(emi, totalInterest, periods);
+    }
+
+    /**
+     * Equated monthly installment, rounded to paise.
+     */
+    public static BigDecimal emi(BigDecimal principal, BigDecimal monthlyRate, int tenureMonths) {
+        if (monthlyRate.signum() == 0) {
+            return principal.divide(BigDecimal.valueOf(tenureMonths), 2, RoundingMode.HALF_UP);
+        }
+        BigDecimal factor = BigDecimal.ONE.add(monthlyRate).pow(tenureMonths, RATE_CONTEXT);
+        return principal.multiply(monthlyRate).multiply(factor)
+                .divide(factor.subtract(BigDecimal.ONE), 2, RoundingMode.HALF_UP);
+    }
+
+    public record Period(int installmentNo, LocalDate dueDate, BigDecimal openingBalance, BigDecimal emiAmount,
+            BigDecimal principalComponent, BigDecimal interestComponent, BigDecimal closingBalance) {
+    }
+
+    public record Schedule(BigDecimal emi, BigDecimal totalInterest, List<Period> periods) {
+
+        public LocalDate firstDueDate() {
+            return periods.get(0).dueDate();
+        }
+
+        public LocalDate lastDueDate() {
+            return periods.get(periods.size() - 1).dueDate();
+        }
+    }
+}
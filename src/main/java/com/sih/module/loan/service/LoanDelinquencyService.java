@@ -0,0 +1,228 @@
+package com.sih.module.loan.service;
+
+import com.sih.common.config.FailSafeConfig;
+import com.sih.common.exception.BadRequestException;
+import com.sih.module.loan.dto.DpdRunReport;
+import com.sih.module.loan.repository.LoanDelinquencyJdbcRepository;
+import com.sih.module.loan.repository.LoanDelinquencyJdbcRepository.ActiveLoan;
+import com.sih.module.loan.repository.LoanDelinquencyJdbcRepository.DpdUpdate;
+import com.sih.module.loan.repository.LoanDelinquencyJdbcRepository.Reminder;
+import com.sih.module.loan.repository.LoanDelinquencyJdbcRepository.RunCheckpoint;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Nightly days-past-due job. Active loans are walked in keyset chunks; each
+ * chunk's DPD updates, reminder notifications and checkpoint commit together,
+ * so an interrupted run resumes after the last committed chunk and never
+ * sends a reminder twice. A run is claimed through a lease on its
+ * loan_dpd_runs row, so only one instance processes a date at a time.
+ */
+@Slf4j
+@Service
+public class LoanDelinquencyService {
+
+    public static final String CURRENT = "CURRENT";
+
+    // Buckets in increasing severity: SMA = special mention account, NPA = non-performing (90+ days)
+    private static final String[] BUCKETS = {CURRENT, "SMA_0", "SMA_1", "SMA_2", "NPA"};
+
+    private final LoanDelinquencyJdbcRepository jdbcRepository;
+    private final FailSafeConfig failSafeConfig;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int reminderDaysBefore;
+    private final long leaseSeconds;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public LoanDelinquencyService(LoanDelinquencyJdbcRepository jdbcRepository,
+            FailSafeConfig failSafeConfig,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.loans.dpd.chunk-size:1000}") int chunkSize,
+            @Value("${app.loans.dpd.reminder-days-before:3}") int reminderDaysBefore,
+            @Value("${app.loans.dpd.lease-seconds:600}") long leaseSeconds) {
+        this.jdbcRepository = jdbcRepository;
+        this.failSafeConfig = failSafeConfig;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.reminderDaysBefore = reminderDaysBefore;
+        this.leaseSeconds = leaseSeconds;
+    }
+
+    @Scheduled(cron = "${app.loans.dpd.cron:0 30 1 * * *}")
+    public void nightlyRun() {
+        if (!failSafeConfig.isDpdJobEnabled()) {
+            log.info("Nightly DPD job skipped: dpd_job_enabled is off");
+            return;
+        }
+        try {
+            run(LocalDate.now(), false);
+        } catch (BadRequestException e) {
+            log.warn("Nightly DPD job skipped: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Runs (or resumes) the job for a date. A completed run is only repeated
+     * when {@code force} is set; reminders for it are then sent again.
+     */
+    public DpdRunReport run(LocalDate runDate, boolean force) {
+        if (!jdbcRepository.claimRun(runDate, instanceId, leaseSeconds)) {
+            throw new BadRequestException("A DPD run for " + runDate + " is already in progress");
+        }
+        long started = System.currentTimeMillis();
+        try {
+            RunCheckpoint checkpoint = jdbcRepository.findRun(runDate).orElseThrow();
+            if (checkpoint.isCompleted() && !force) {
+                return toReport(checkpoint, "ALREADY_COMPLETED", 0, 0, 0);
+            }
+            if (checkpoint.isCompleted()) {
+                jdbcRepository.resetRun(runDate);
+                checkpoint = jdbcRepository.findRun(runDate).orElseThrow();
+            }
+
+            long resumedAfter = checkpoint.lastLoanId();
+            if (resumedAfter > 0) {
+                log.info("Resuming DPD run for {} after loan {}", runDate, resumedAfter);
+            }
+
+            long afterId = resumedAfter;
+            int chunks = 0;
+            List<ActiveLoan> chunk;
+            while (!(chunk = jdbcRepository.findActiveChunk(afterId, runDate, chunkSize)).isEmpty()) {
+                processChunk(chunk, runDate);
+                afterId = chunk.get(chunk.size() - 1).loanId();
+                chunks++;
+            }
+            jdbcRepository.completeRun(runDate, instanceId);
+
+            RunCheckpoint finished = jdbcRepository.findRun(runDate).orElseThrow();
+            long duration = System.currentTimeMillis() - started;
+            log.info("DPD run for {} completed: {} loans, {} overdue, {} updated, {} reminders, {} ms",
+                    runDate, finished.loansProcessed(), finished.loansOverdue(), finished.loansUpdated(),
+                    finished.remindersSent(), duration);
+            return toReport(finished, "COMPLETED", resumedAfter, chunks, duration);
+        } finally {
+            jdbcRepository.releaseRun(runDate, instanceId);
+        }
+    }
+
+    private void processChunk(List<ActiveLoan> chunk, LocalDate runDate) {
+        List<DpdUpdate> updates = new ArrayList<>();
+        List<Reminder> reminders = new ArrayList<>();
+        long overdue = 0;
+
+        for (ActiveLoan loan : chunk) {
+            int dpd = daysPastDue(loan.oldestDueDate(), runDate);
+            String bucket = bucketFor(dpd);
+            if (dpd > 0) {
+                overdue++;
+            }
+            if (dpd != loan.daysPastDue() || !bucket.equals(loan.dpdBucket())) {
+                updates.add(new DpdUpdate(loan.loanId(), loan.version(), dpd, bucket));
+            }
+
+            if (dpd == 0 && loan.oldestDueDate() != null
+                    && loan.oldestDueDate().equals(runDate.plusDays(reminderDaysBefore))) {
+                reminders.add(dueReminder(loan));
+            } else if (severity(bucket) > severity(loan.dpdBucket())) {
+                // Only on moving into a worse bucket, not every night a loan stays overdue
+                reminders.add(overdueReminder(loan, dpd, bucket));
+            }
+        }
+
+        long overdueCount = overdue;
+        long lastLoanId = chunk.get(chunk.size() - 1).loanId();
+        transactionTemplate.executeWithoutResult(status -> {
+            // Loans repaid since the chunk was read keep their fresher state and get no reminder
+            Set<Long> stale = jdbcRepository.updateDpd(updates, runDate);
+            List<Reminder> toSend = stale.isEmpty() ? reminders : reminders.stream()
+                    .filter(reminder -> !stale.contains(reminder.loanId()))
+                    .toList();
+            if (!stale.isEmpty()) {
+                log.info("DPD run for {}: {} loans changed since read, skipped", runDate, stale.size());
+            }
+            jdbcRepository.insertNotifications(toSend);
+            // Only the lease holder's checkpoint succeeds; otherwise the chunk's writes roll back
+            if (!jdbcRepository.checkpoint(runDate, instanceId, leaseSeconds, lastLoanId, chunk.size(),
+                    overdueCount, updates.size() - stale.size(), toSend.size())) {
+                throw new IllegalStateException("Lost the lease on the DPD run for " + runDate);
+            }
+        });
+    }
+
+    public static int daysPastDue(LocalDate oldestDueDate, LocalDate asOf) {
+        return oldestDueDate != null && asOf.isAfter(oldestDueDate)
+                ? (int) ChronoUnit.DAYS.between(oldestDueDate, asOf)
+                : 0;
+    }
+
+    public static String bucketFor(int daysPastDue) {
+        if (daysPastDue <= 0) return CURRENT;
+        if (daysPastDue <= 30) return "SMA_0";
+        if (daysPastDue <= 60) return "SMA_1";
+        if (daysPastDue <= 90) return "SMA_2";
+        return "NPA";
+    }
+
+    private static int severity(String bucket) {
+        for (int i = 0; i < BUCKETS.length; i++) {
+            if (BUCKETS[i].equals(bucket)) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    private static Reminder dueReminder(ActiveLoan loan) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("loanId", loan.loanId());
+        payload.put("dueDate", loan.oldestDueDate().toString());
+        payload.put("amount", loan.monthlyEmi());
+        payload.put("message", "Your EMI of Rs. " + loan.monthlyEmi() + " for loan " + loan.loanId()
+                + " is due on " + loan.oldestDueDate() + ".");
+        return new Reminder(loan.loanId(), loan.userId(), "PUSH", "EMI_DUE", payload);
+    }
+
+    private static Reminder overdueReminder(ActiveLoan loan, int dpd, String bucket) {
+        BigDecimal overdueAmount = loan.overdueAmount() != null && loan.overdueAmount().signum() > 0
+                ? loan.overdueAmount() : loan.monthlyEmi();
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("loanId", loan.loanId());
+        payload.put("daysPastDue", dpd);
+        payload.put("dpdBucket", bucket);
+        payload.put("overdueAmount", overdueAmount);
+        payload.put("message", "Your payment of Rs. " + overdueAmount + " for loan " + loan.loanId()
+                + " is " + dpd + " days overdue. Please pay to avoid penalties.");
+        return new Reminder(loan.loanId(), loan.userId(), "PUSH", "EMI_OVERDUE", payload);
+    }
+
+    private static DpdRunReport toReport(RunCheckpoint run, String status, long resumedAfter, int chunks,
+            long durationMs) {
+        return DpdRunReport.builder()
+                .runDate(run.runDate())
+                .status(status)
+                .resumedAfterLoanId(resumedAfter)
+                .loansProcessed(run.loansProcessed())
+                .loansOverdue(run.loansOverdue())
+                .loansUpdated(run.loansUpdated())
+                .remindersSent(run.remindersSent())
+                .chunks(chunks)
+                .durationMs(durationMs)
+                .build();
+    }
+}
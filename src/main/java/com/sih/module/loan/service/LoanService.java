@@ -1,24 +1,38 @@
 package com.sih.module.loan.service;
 
+import com.sih.common.config.PaginationConfig;
+import com.sih.common.dto.CursorPage;
+import com.sih.common.dto.KeysetCursor;
 import com.sih.common.exception.BadRequestException;
 import com.sih.common.exception.ResourceNotFoundException;
 import com.sih.module.application.entity.LoanApplication;
 import com.sih.module.application.repository.LoanApplicationRepository;
 import com.sih.module.auth.entity.User;
 import com.sih.module.auth.repository.UserRepository;
+import com.sih.module.fraud.service.FraudService;
+import com.sih.module.loan.dto.ForeclosureQuoteResponse;
+import com.sih.module.loan.dto.InstallmentResponse;
 import com.sih.module.loan.dto.LoanResponse;
 import com.sih.module.loan.dto.PaymentRequest;
+import com.sih.module.loan.dto.RepaymentResponse;
+import com.sih.module.loan.dto.RescheduleRequest;
 import com.sih.module.loan.entity.Loan;
+import com.sih.module.loan.entity.LoanInstallment;
 import com.sih.module.loan.entity.Repayment;
+import com.sih.module.loan.repository.LoanInstallmentJdbcRepository;
+import com.sih.module.loan.repository.LoanInstallmentRepository;
 import com.sih.module.loan.repository.LoanRepository;
 import com.sih.module.loan.repository.RepaymentRepository;
+import com.sih.module.scoring.service.FeatureStoreService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -29,8 +43,14 @@ public class LoanService {
 
     private final LoanRepository loanRepository;
     private final RepaymentRepository repaymentRepository;
+    private final LoanInstallmentRepository installmentRepository;
+    private final LoanInstallmentJdbcRepository installmentJdbcRepository;
+    private final AmortizationEngine amortizationEngine;
+    private final FeatureStoreService featureStoreService;
+    private final FraudService fraudService;
     private final LoanApplicationRepository applicationRepository;
     private final UserRepository userRepository;
+    private final PaginationConfig paginationConfig;
 
     @Transactional
     public Loan createLoanFromApplication(Long applicationId) {
@@ -41,41 +61,40 @@ public class LoanService {
             throw new BadRequestException("Only sanctioned applications can create loans");
         }
 
-        // Calculate EMI and schedule
+        // Full schedule up front; every later read comes from loan_installments
         BigDecimal principal = application.getSanctionedAmount();
         BigDecimal interestRate = application.getFinalInterestRate();
         Integer tenureMonths = application.getScheme() != null ? application.getScheme().getMaxTenureMonths() : 12;
-
-        BigDecimal monthlyRate = interestRate.divide(BigDecimal.valueOf(1200), 4,
-                java.math.RoundingMode.HALF_UP);
-        BigDecimal emi = calculateEMI(principal, monthlyRate, tenureMonths);
-        BigDecimal totalInterest = emi.multiply(BigDecimal.valueOf(tenureMonths))
-                .subtract(principal);
+        LocalDate startDate = LocalDate.now();
+        AmortizationEngine.Schedule schedule = amortizationEngine.schedule(principal, interestRate, tenureMonths,
+                startDate, 1);
 
         Loan loan = Loan.builder()
                 .application(application)
                 .user(application.getUser())
                 .totalPrincipal(principal)
-                .totalInterest(totalInterest)
-                .monthlyEmi(emi)
+                .totalInterest(schedule.totalInterest())
+                .monthlyEmi(schedule.emi())
                 .outstandingPrincipal(principal)
-                .outstandingInterest(totalInterest)
-                .startDate(LocalDate.now())
-                .endDate(LocalDate.now().plusMonths(tenureMonths))
+                .outstandingInterest(schedule.totalInterest())
+                .startDate(startDate)
+                .endDate(schedule.lastDueDate())
                 .loanStatus("ACTIVE")
-                .nextPaymentDate(LocalDate.now().plusMonths(1))
+                .nextPaymentDate(schedule.firstDueDate())
                 .build();
 
         loan = loanRepository.save(loan);
-        log.info("Loan created from application: {}", applicationId);
+        installmentJdbcRepository.insertSchedule(loan.getLoanId(), schedule.periods());
+        log.info("Loan created from application: {} with {} installments", applicationId, schedule.periods().size());
 
         return loan;
     }
 
-    public List<LoanResponse> getMyLoans(Long userId) {
-        return loanRepository.findByUserUserId(userId).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public CursorPage<LoanResponse> getMyLoans(Long userId, String cursor, Integer size) {
+        int pageSize = paginationConfig.resolvePageSize(size);
+        List<Loan> rows = loanRepository.findByUserUserIdAndLoanIdLessThanOrderByLoanIdDesc(
+                userId, KeysetCursor.decode(cursor, Long.MAX_VALUE), paginationConfig.keysetLimit(pageSize));
+        return CursorPage.of(rows, pageSize, Loan::getLoanId, this::mapToResponse);
     }
 
     public LoanResponse getLoanById(Long loanId) {
@@ -84,8 +103,14 @@ public class LoanService {
         return mapToResponse(loan);
     }
 
+    /**
+     * Posts one repayment in a single transaction. Concurrent postings against
+     * the same loan are detected through the loan's version and retried by
+     * {@link RepaymentPostingService}; a transactionRef that is already
+     * recorded returns the original repayment instead of posting again.
+     */
     @Transactional
-    public void makeRepayment(Long loanId, Long userId, PaymentRequest request) {
+    public RepaymentResponse makeRepayment(Long loanId, Long userId, PaymentRequest request) {
         Loan loan = loanRepository.findById(loanId)
                 .orElseThrow(() -> new ResourceNotFoundException("Loan not found"));
 
@@ -93,54 +118,122 @@ public class LoanService {
             throw new BadRequestException("You can only repay your own loans");
         }
 
+        if (request.getTransactionRef() != null) {
+            Repayment existing = repaymentRepository.findByTransactionRef(request.getTransactionRef()).orElse(null);
+            if (existing != null) {
+                if (!existing.getLoan().getLoanId().equals(loanId)) {
+                    throw new BadRequestException("Transaction reference already used for another loan");
+                }
+                log.info("Duplicate repayment {} for loan {} ignored", request.getTransactionRef(), loanId);
+                return mapToRepaymentResponse(existing, true);
+            }
+        }
+
         if (!"ACTIVE".equals(loan.getLoanStatus())) {
             throw new BadRequestException("Loan is not active");
         }
 
-        BigDecimal paymentAmount = request.getAmount();
-        LocalDate paymentDate = LocalDate.now();
-        LocalDate dueDate = loan.getNextPaymentDate();
+        List<LoanInstallment> open = openInstallments(loan);
+        Repayment repayment = applyPayment(loan, open, request.getAmount(), LocalDate.now(), request.getMode(),
+                request.getTransactionRef());
+        installmentRepository.saveAll(open);
+        loanRepository.save(loan);
 
-        int delayDays = paymentDate.isAfter(dueDate)
-                ? (int) java.time.temporal.ChronoUnit.DAYS.between(dueDate, paymentDate)
+        repayment = repaymentRepository.save(repayment);
+        featureStoreService.onRepaymentPosted(loan.getUser().getUserId(), repayment.getDelayDays());
+        fraudService.onRepaymentPosted(loan.getUser().getUserId(), loanId, repayment.getAmountPaid());
+        log.info("Repayment recorded for loan: {}", loanId);
+        return mapToRepaymentResponse(repayment, false);
+    }
+
+    /**
+     * Allocates a payment to the loan's open installments, oldest first and
+     * interest before principal, and moves the loan's balances, next payment
+     * date and DPD accordingly. Nothing is saved; the returned repayment row
+     * is left for the caller to persist with the loan and installments.
+     *
+     * @throws BadRequestException if the payment exceeds what is still due, before anything is changed
+     */
+    Repayment applyPayment(Loan loan, List<LoanInstallment> open, BigDecimal paymentAmount, LocalDate paymentDate,
+            String mode, String transactionRef) {
+        LocalDate dueDate = loan.getNextPaymentDate();
+        int delayDays = dueDate != null && paymentDate.isAfter(dueDate)
+                ? (int) ChronoUnit.DAYS.between(dueDate, paymentDate)
                 : 0;
 
-        // Update outstanding amounts
-        BigDecimal principalPaid = paymentAmount.multiply(
-                loan.getTotalPrincipal().divide(loan.getTotalPrincipal().add(loan.getOutstandingInterest()),
-                        2, java.math.RoundingMode.HALF_UP));
-        BigDecimal interestPaid = paymentAmount.subtract(principalPaid);
+        BigDecimal openDue = open.stream()
+                .map(i -> i.getInterestDue().add(i.getPrincipalDue()))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (paymentAmount.compareTo(openDue) > 0) {
+            throw new BadRequestException("Payment exceeds the outstanding amount of " + openDue);
+        }
 
-        loan.setOutstandingPrincipal(loan.getOutstandingPrincipal().subtract(principalPaid));
-        loan.setOutstandingInterest(loan.getOutstandingInterest().subtract(interestPaid));
+        BigDecimal remaining = paymentAmount;
+        BigDecimal principalPaid = BigDecimal.ZERO;
+        BigDecimal interestPaid = BigDecimal.ZERO;
+        for (LoanInstallment installment : open) {
+            if (remaining.signum() <= 0) {
+                break;
+            }
+            if (!installment.isOpen()) {
+                continue;
+            }
+            BigDecimal toInterest = remaining.min(installment.getInterestDue());
+            remaining = remaining.subtract(toInterest);
+            BigDecimal toPrincipal = remaining.min(installment.getPrincipalDue());
+            remaining = remaining.subtract(toPrincipal);
+
+            installment.setInterestPaid(installment.getInterestPaid().add(toInterest));
+            installment.setPrincipalPaid(installment.getPrincipalPaid().add(toPrincipal));
+            installment.setPaidDate(paymentDate);
+            installment.setStatus(installment.getInterestDue().signum() == 0 && installment.getPrincipalDue().signum() == 0
+                    ? LoanInstallment.PAID : LoanInstallment.PARTIALLY_PAID);
+            interestPaid = interestPaid.add(toInterest);
+            principalPaid = principalPaid.add(toPrincipal);
+        }
 
-        if (loan.getOutstandingPrincipal().compareTo(BigDecimal.ZERO) <= 0) {
+        loan.setOutstandingPrincipal(loan.getOutstandingPrincipal().subtract(principalPaid).max(BigDecimal.ZERO));
+        loan.setOutstandingInterest(loan.getOutstandingInterest().subtract(interestPaid).max(BigDecimal.ZERO));
+
+        LoanInstallment next = open.stream().filter(LoanInstallment::isOpen).findFirst().orElse(null);
+        if (next == null) {
             loan.setLoanStatus("CLOSED");
             loan.setOutstandingPrincipal(BigDecimal.ZERO);
+            loan.setOutstandingInterest(BigDecimal.ZERO);
         } else {
-            loan.setNextPaymentDate(loan.getNextPaymentDate().plusMonths(1));
+            loan.setNextPaymentDate(next.getDueDate());
         }
+        // Refresh DPD now rather than waiting for the nightly job
+        int daysPastDue = next != null ? LoanDelinquencyService.daysPastDue(next.getDueDate(), paymentDate) : 0;
+        loan.setDaysPastDue(daysPastDue);
+        loan.setDpdBucket(LoanDelinquencyService.bucketFor(daysPastDue));
+        loan.setDpdAsOf(paymentDate);
 
-        loanRepository.save(loan);
-
-        // Create repayment record
-        Repayment repayment = Repayment.builder()
+        return Repayment.builder()
                 .loan(loan)
                 .dueDate(dueDate)
                 .paidDate(paymentDate)
                 .amountDue(loan.getMonthlyEmi())
                 .amountPaid(paymentAmount)
-                .paymentMode(request.getMode())
-                .transactionRef(request.getTransactionRef())
+                .paymentMode(mode)
+                .transactionRef(transactionRef)
                 .delayDays(delayDays)
                 .build();
+    }
 
-        repaymentRepository.save(repayment);
-        log.info("Repayment recorded for loan: {}", loanId);
+    /**
+     * Amount that settles the loan today: outstanding principal, interest on
+     * overdue installments, and the current period's interest pro rata.
+     */
+    @Transactional
+    public ForeclosureQuoteResponse getForeclosureQuote(Long loanId) {
+        Loan loan = loanRepository.findById(loanId)
+                .orElseThrow(() -> new ResourceNotFoundException("Loan not found"));
+        return foreclosureQuote(loan, LocalDate.now());
     }
 
     @Transactional
-    public void forecloseLoan(Long loanId, Long userId) {
+    public ForeclosureQuoteResponse forecloseLoan(Long loanId, Long userId) {
         Loan loan = loanRepository.findById(loanId)
                 .orElseThrow(() -> new ResourceNotFoundException("Loan not found"));
 
@@ -148,12 +241,79 @@ public class LoanService {
             throw new BadRequestException("You can only foreclose your own loans");
         }
 
+        ForeclosureQuoteResponse quote = foreclosureQuote(loan, LocalDate.now());
+        installmentRepository.cancelOpenInstallments(loanId);
+
         loan.setLoanStatus("FORECLOSED");
         loan.setOutstandingPrincipal(BigDecimal.ZERO);
         loan.setOutstandingInterest(BigDecimal.ZERO);
         loanRepository.save(loan);
 
-        log.info("Loan {} foreclosed", loanId);
+        log.info("Loan {} foreclosed, settlement amount {}", loanId, quote.getSettlementAmount());
+        return quote;
+    }
+
+    /**
+     * Re-amortizes the outstanding principal over a new tenure (and optionally
+     * a new rate). Installments not yet due are cancelled and the new rows
+     * continue the installment numbering; overdue installments stay open, so
+     * their unpaid principal and interest are still owed and DPD keeps counting.
+     */
+    @Transactional
+    public LoanResponse rescheduleLoan(Long loanId, RescheduleRequest request) {
+        Loan loan = loanRepository.findById(loanId)
+                .orElseThrow(() -> new ResourceNotFoundException("Loan not found"));
+
+        if (!"ACTIVE".equals(loan.getLoanStatus())) {
+            throw new BadRequestException("Only active loans can be rescheduled");
+        }
+
+        ensureSchedule(loan);
+        LocalDate today = LocalDate.now();
+        BigDecimal interestRate = request.getInterestRate() != null
+                ? request.getInterestRate() : loan.getApplication().getFinalInterestRate();
+
+        List<LoanInstallment> arrears = installmentRepository.findOpenInstallments(loanId).stream()
+                .filter(i -> i.getDueDate().isBefore(today))
+                .toList();
+        BigDecimal arrearsPrincipal = arrears.stream()
+                .map(LoanInstallment::getPrincipalDue).reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal arrearsInterest = arrears.stream()
+                .map(LoanInstallment::getInterestDue).reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        // A zero-principal schedule would leave zero-amount DUE rows that no payment ever clears
+        BigDecimal principal = loan.getOutstandingPrincipal().subtract(arrearsPrincipal);
+        if (principal.signum() <= 0) {
+            throw new BadRequestException("Nothing to reschedule: the outstanding principal is all overdue");
+        }
+
+        int lastInstallmentNo = installmentRepository.findLastInstallmentNo(loanId);
+        installmentRepository.cancelOpenInstallmentsDueFrom(loanId, today);
+
+        AmortizationEngine.Schedule schedule = amortizationEngine.schedule(principal,
+                interestRate, request.getTenureMonths(), today, lastInstallmentNo + 1);
+        installmentJdbcRepository.insertSchedule(loanId, schedule.periods());
+
+        // Interest already collected stays in the total; unpaid interest on the
+        // cancelled rows is replaced, arrears interest is still owed
+        BigDecimal outstandingInterest = arrearsInterest.add(schedule.totalInterest());
+        loan.setTotalInterest(loan.getTotalInterest().subtract(loan.getOutstandingInterest())
+                .add(outstandingInterest));
+        loan.setOutstandingInterest(outstandingInterest);
+        loan.setMonthlyEmi(schedule.emi());
+        loan.setEndDate(schedule.lastDueDate());
+        if (arrears.isEmpty()) {
+            loan.setNextPaymentDate(schedule.firstDueDate());
+            loan.setDaysPastDue(0);
+            loan.setDpdBucket(LoanDelinquencyService.CURRENT);
+            loan.setDpdAsOf(today);
+        } else {
+            loan.setNextPaymentDate(arrears.get(0).getDueDate());
+        }
+        loan = loanRepository.save(loan);
+
+        log.info("Loan {} rescheduled over {} months at {}%", loanId, request.getTenureMonths(), interestRate);
+        return mapToResponse(loan);
     }
 
     @Transactional
@@ -161,6 +321,8 @@ public class LoanService {
         Loan loan = loanRepository.findById(loanId)
                 .orElseThrow(() -> new ResourceNotFoundException("Loan not found"));
 
+        installmentRepository.cancelOpenInstallments(loanId);
+
         loan.setLoanStatus("WAIVED_OFF");
         loan.setOutstandingPrincipal(BigDecimal.ZERO);
         loan.setOutstandingInterest(BigDecimal.ZERO);
@@ -169,20 +331,102 @@ public class LoanService {
         log.info("Loan {} waived off", loanId);
     }
 
-    public List<Repayment> getRepaymentSchedule(Long loanId) {
+    @Transactional
+    public List<InstallmentResponse> getRepaymentSchedule(Long loanId) {
+        Loan loan = loanRepository.findById(loanId)
+                .orElseThrow(() -> new ResourceNotFoundException("Loan not found"));
+        ensureSchedule(loan);
+        return installmentRepository.findByLoanIdOrderByInstallmentNo(loanId).stream()
+                .map(this::mapToInstallmentResponse)
+                .collect(Collectors.toList());
+    }
+
+    public List<Repayment> getRepayments(Long loanId) {
         return repaymentRepository.findByLoanLoanId(loanId);
     }
 
-    private BigDecimal calculateEMI(BigDecimal principal, BigDecimal monthlyRate, Integer tenure) {
-        if (monthlyRate.compareTo(BigDecimal.ZERO) == 0) {
-            return principal.divide(BigDecimal.valueOf(tenure), 2, java.math.RoundingMode.HALF_UP);
+    List<LoanInstallment> openInstallments(Loan loan) {
+        ensureSchedule(loan);
+        return installmentRepository.findOpenInstallments(loan.getLoanId());
+    }
+
+    /**
+     * Loans created before schedules were stored get one on first use: the
+     * outstanding principal is amortized over the months left to the end date.
+     */
+    private void ensureSchedule(Loan loan) {
+        if (!"ACTIVE".equals(loan.getLoanStatus()) || installmentRepository.existsByLoanId(loan.getLoanId())) {
+            return;
+        }
+        LocalDate firstDue = loan.getNextPaymentDate() != null ? loan.getNextPaymentDate() : LocalDate.now().plusMonths(1);
+        int remainingMonths = loan.getEndDate() != null
+                ? (int) Math.max(1, ChronoUnit.MONTHS.between(firstDue, loan.getEndDate()) + 1)
+                : 1;
+        AmortizationEngine.Schedule schedule = amortizationEngine.schedule(loan.getOutstandingPrincipal(),
+                loan.getApplication().getFinalInterestRate(), remainingMonths, firstDue.minusMonths(1), 1);
+        installmentJdbcRepository.insertSchedule(loan.getLoanId(), schedule.periods());
+
+        loan.setOutstandingInterest(schedule.totalInterest());
+        loanRepository.save(loan);
+        log.info("Generated schedule for legacy loan {} ({} installments)", loan.getLoanId(), schedule.periods().size());
+    }
+
+    private ForeclosureQuoteResponse foreclosureQuote(Loan loan, LocalDate asOf) {
+        BigDecimal accruedInterest = BigDecimal.ZERO;
+        if ("ACTIVE".equals(loan.getLoanStatus())) {
+            for (LoanInstallment installment : openInstallments(loan)) {
+                if (!installment.getDueDate().isAfter(asOf)) {
+                    accruedInterest = accruedInterest.add(installment.getInterestDue());
+                    continue;
+                }
+                // Current period: interest accrues day by day since the previous due date
+                LocalDate periodStart = installment.getDueDate().minusMonths(1);
+                long periodDays = ChronoUnit.DAYS.between(periodStart, installment.getDueDate());
+                long elapsedDays = Math.max(0, ChronoUnit.DAYS.between(periodStart, asOf));
+                BigDecimal accrued = installment.getInterestComponent()
+                        .multiply(BigDecimal.valueOf(elapsedDays))
+                        .divide(BigDecimal.valueOf(periodDays), 2, RoundingMode.HALF_UP)
+                        .subtract(installment.getInterestPaid())
+                        .max(BigDecimal.ZERO);
+                accruedInterest = accruedInterest.add(accrued);
+                break;
+            }
         }
+        return ForeclosureQuoteResponse.builder()
+                .loanId(loan.getLoanId())
+                .asOf(asOf)
+                .outstandingPrincipal(loan.getOutstandingPrincipal())
+                .accruedInterest(accruedInterest)
+                .settlementAmount(loan.getOutstandingPrincipal().add(accruedInterest))
+                .build();
+    }
 
-        BigDecimal factor = BigDecimal.ONE.add(monthlyRate).pow(tenure);
-        BigDecimal numerator = principal.multiply(monthlyRate).multiply(factor);
-        BigDecimal denominator = factor.subtract(BigDecimal.ONE);
+    private RepaymentResponse mapToRepaymentResponse(Repayment repayment, boolean duplicate) {
+        return RepaymentResponse.builder()
+                .repaymentId(repayment.getRepaymentId())
+                .loanId(repayment.getLoan().getLoanId())
+                .transactionRef(repayment.getTransactionRef())
+                .amountPaid(repayment.getAmountPaid())
+                .paidDate(repayment.getPaidDate())
+                .delayDays(repayment.getDelayDays())
+                .duplicate(duplicate)
+                .build();
+    }
 
-        return numerator.divide(denominator, 2, java.math.RoundingMode.HALF_UP);
+    private InstallmentResponse mapToInstallmentResponse(LoanInstallment installment) {
+        return InstallmentResponse.builder()
+                .installmentNo(installment.getInstallmentNo())
+                .dueDate(installment.getDueDate())
+                .openingBalance(installment.getOpeningBalance())
+                .emiAmount(installment.getEmiAmount())
+                .principalComponent(installment.getPrincipalComponent())
+                .interestComponent(installment.getInterestComponent())
+                .closingBalance(installment.getClosingBalance())
+                .principalPaid(installment.getPrincipalPaid())
+                .interestPaid(installment.getInterestPaid())
+                .paidDate(installment.getPaidDate())
+                .status(installment.getStatus())
+                .build();
     }
 
     private LoanResponse mapToResponse(Loan loan) {
@@ -199,6 +443,8 @@ public class LoanService {
                 .endDate(loan.getEndDate())
                 .loanStatus(loan.getLoanStatus())
                 .nextPaymentDate(loan.getNextPaymentDate())
+                .daysPastDue(loan.getDaysPastDue())
+                .dpdBucket(loan.getDpdBucket())
                 .createdAt(loan.getCreatedAt())
                 .updatedAt(loan.getUpdatedAt())
                 .build();
@@ -0,0 +1,288 @@
+package com.sih.module.loan.service;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streaming reader for bank settlement files. Holds one line at a time, so
+ * memory does not grow with the file. A line that cannot be parsed comes back
+ * as a row with an {@code error} rather than failing the import.
+ *
+ * <p>CSV: a header row names the columns (any order, case-insensitive):
+ * {@code transaction_ref}, {@code amount}, {@code payment_date} and optional
+ * {@code loan_id} and {@code mode}. Fields may be double-quoted; quoted fields
+ * cannot span lines.
+ *
+ * <p>Every row needs a transaction reference: it is the idempotency key that makes
+ * re-importing a file safe, so rows without one come back as errors.
+ *
+ * <p>Fixed width (1-based columns): transaction ref 1-30, loan id 31-42,
+ * amount in paise 43-57, payment date {@code yyyyMMdd} 58-65, mode 66-75.
+ * Only the first line may be a header ({@code H...}) and only the last a trailer
+ * ({@code T...}), and only when it does not parse as a data record; references
+ * may start with either letter. Every other line is returned, valid or not.
+ */
+public final class RepaymentFileReader implements Closeable {
+
+    public enum Format { CSV, FIXED_WIDTH }
+
+    static final String DEFAULT_MODE = "NACH";
+
+    private static final List<DateTimeFormatter> CSV_DATE_FORMATS = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("dd-MM-yyyy"),
+            DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+    private static final DateTimeFormatter FIXED_DATE_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final BufferedReader reader;
+    private final Format format;
+    private Map<String, Integer> columns;
+    private long lineNumber;
+    // fixed width reads one record ahead to know which one is last
+    private String lookahead;
+    private long lookaheadNumber;
+    private boolean firstRecord = true;
+
+    public RepaymentFileReader(InputStream input, Format format) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        this.format = format;
+    }
+
+    /**
+     * Next data row, or {@code null} at end of file.
+     */
+    public Row next() {
+        if (format == Format.FIXED_WIDTH) {
+            if (firstRecord && lookahead == null) {
+                lookahead = nextNonBlank();
+                lookaheadNumber = lineNumber;
+            }
+            return nextFixedWidth();
+        }
+        String line;
+        while ((line = nextNonBlank()) != null) {
+            if (columns == null) {
+                columns = parseHeader(line);
+                continue;
+            }
+            return parseCsv(line);
+        }
+        return null;
+    }
+
+    private Row nextFixedWidth() {
+        while (lookahead != null) {
+            String line = lookahead;
+            long number = lookaheadNumber;
+            boolean first = firstRecord;
+            firstRecord = false;
+            lookahead = nextNonBlank();
+            lookaheadNumber = lineNumber;
+            boolean last = lookahead == null;
+
+            Row row = parseFixedWidth(line, number);
+            if (row.error() != null && ((first && line.charAt(0) == 'H') || (last && line.charAt(0) == 'T'))) {
+                continue;
+            }
+            return row;
+        }
+        return null;
+    }
+
+    private String nextNonBlank() {
+        String line;
+        while ((line = readLine()) != null) {
+            if (!line.isBlank()) {
+                return line;
+            }
+        }
+        return null;
+    }
+
+    public long linesRead() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private String readLine() {
+        try {
+            String line = reader.readLine();
+            if (line != null) {
+                lineNumber++;
+                if (lineNumber == 1 && !line.isEmpty() && line.charAt(0) == '\uFEFF') {
+                    line = line.substring(1);
+                }
+            }
+            return line;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read repayment file", e);
+        }
+    }
+
+    private Map<String, Integer> parseHeader(String line) {
+        Map<String, Integer> header = new HashMap<>();
+        List<String> names = splitCsv(line);
+        for (int i = 0; i < names.size(); i++) {
+            header.put(names.get(i).trim().toLowerCase(Locale.ROOT).replace(" ", "_"), i);
+        }
+        if (!header.containsKey("amount") || !header.containsKey("payment_date")
+                || !header.containsKey("transaction_ref")) {
+            throw new IllegalArgumentException("CSV header needs transaction_ref, amount and payment_date columns");
+        }
+        return header;
+    }
+
+    private Row parseCsv(String line) {
+        List<String> fields = splitCsv(line);
+        String ref = field(fields, "transaction_ref");
+        String loanId = field(fields, "loan_id");
+        String amount = field(fields, "amount");
+        String date = field(fields, "payment_date");
+        String mode = field(fields, "mode");
+        try {
+            requireRef(ref);
+            return new Row(lineNumber, ref, parseLoanId(loanId), parseAmount(amount), parseCsvDate(date),
+                    mode != null ? mode : DEFAULT_MODE, null);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return Row.invalid(lineNumber, ref, e.getMessage());
+        }
+    }
+
+    private Row parseFixedWidth(String line, long number) {
+        if (line.length() < 65) {
+            return Row.invalid(number, null, "Record shorter than 65 characters");
+        }
+        String ref = blankToNull(line.substring(0, 30));
+        try {
+            requireRef(ref);
+            String loanId = blankToNull(line.substring(30, 42));
+            String paise = blankToNull(line.substring(42, 57));
+            if (paise == null) {
+                throw new IllegalArgumentException("Missing amount");
+            }
+            BigDecimal amount = BigDecimal.valueOf(Long.parseLong(paise), 2);
+            LocalDate date = LocalDate.parse(line.substring(57, 65), FIXED_DATE_FORMAT);
+            String mode = line.length() > 65 ? blankToNull(line.substring(65, Math.min(75, line.length()))) : null;
+            return new Row(number, ref, parseLoanId(loanId), positive(amount), date,
+                    mode != null ? mode : DEFAULT_MODE, null);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return Row.invalid(number, ref, e.getMessage());
+        }
+    }
+
+    private String field(List<String> fields, String name) {
+        Integer index = columns.get(name);
+        return index != null && index < fields.size() ? blankToNull(fields.get(index)) : null;
+    }
+
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private static void requireRef(String ref) {
+        if (ref == null) {
+            throw new IllegalArgumentException("Missing transaction reference");
+        }
+    }
+
+    private static Long parseLoanId(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid loan id: " + value);
+        }
+    }
+
+    private static BigDecimal parseAmount(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Missing amount");
+        }
+        try {
+            return positive(new BigDecimal(value.replace(",", "")));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount: " + value);
+        }
+    }
+
+    private static BigDecimal positive(BigDecimal amount) {
+        if (amount.signum() <= 0 || amount.scale() > 2) {
+            throw new IllegalArgumentException("Amount must be positive with at most 2 decimals: " + amount);
+        }
+        return amount;
+    }
+
+    private static LocalDate parseCsvDate(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Missing payment date");
+        }
+        for (DateTimeFormatter formatter : CSV_DATE_FORMATS) {
+            try {
+                return LocalDate.parse(value, formatter);
+            } catch (DateTimeParseException ignored) {
+                // try the next format
+            }
+        }
+        throw new IllegalArgumentException("Invalid payment date: " + value);
+    }
+
+    private static String blankToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    public record Row(long lineNumber, String transactionRef, Long loanId, BigDecimal amount, LocalDate paymentDate,
+            String mode, String error) {
+
+        static Row invalid(long lineNumber, String transactionRef, String error) {
+            return new Row(lineNumber, transactionRef, null, null, null, null, error);
+        }
+    }
+}
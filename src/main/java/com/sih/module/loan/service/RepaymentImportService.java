@@ -0,0 +1,297 @@
+package com.sih.module.loan.service;
+
+import com.sih.common.exception.BadRequestException;
+import com.sih.module.fraud.service.FraudService;
+import com.sih.module.loan.dto.RepaymentImportReport;
+import com.sih.module.loan.entity.Loan;
+import com.sih.module.loan.entity.LoanInstallment;
+import com.sih.module.loan.entity.Repayment;
+import com.sih.module.loan.repository.LoanInstallmentRepository;
+import com.sih.module.loan.repository.LoanRepository;
+import com.sih.module.loan.repository.RepaymentJdbcRepository;
+import com.sih.module.loan.repository.RepaymentRepository;
+import com.sih.module.scoring.service.FeatureStoreService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk posting of bank / NACH settlement files. The file is read as a stream
+ * and posted in fixed-size batches, one transaction each. Per batch, the
+ * loans, their open installments and any already-posted transaction refs are
+ * loaded with one query apiece into hash indexes, rows are allocated in
+ * memory with the same rules as a single API posting, and the results are
+ * written with JDBC batches.
+ *
+ * <p>Because transactionRef is an idempotency key, re-importing a file (for
+ * example after a failed batch) only posts the rows that are not on file yet.
+ */
+@Slf4j
+@Service
+public class RepaymentImportService {
+
+    private final LoanService loanService;
+    private final LoanRepository loanRepository;
+    private final LoanInstallmentRepository installmentRepository;
+    private final RepaymentRepository repaymentRepository;
+    private final RepaymentJdbcRepository repaymentJdbcRepository;
+    private final FeatureStoreService featureStoreService;
+    private final FraudService fraudService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final int maxDiscrepancies;
+
+    public RepaymentImportService(LoanService loanService,
+            LoanRepository loanRepository,
+            LoanInstallmentRepository installmentRepository,
+            RepaymentRepository repaymentRepository,
+            RepaymentJdbcRepository repaymentJdbcRepository,
+            FeatureStoreService featureStoreService,
+            FraudService fraudService,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.loans.repayment.import.batch-size:500}") int batchSize,
+            @Value("${app.loans.repayment.max-attempts:5}") int maxAttempts,
+            @Value("${app.loans.repayment.import.max-discrepancies:1000}") int maxDiscrepancies) {
+        this.loanService = loanService;
+        this.loanRepository = loanRepository;
+        this.installmentRepository = installmentRepository;
+        this.repaymentRepository = repaymentRepository;
+        this.repaymentJdbcRepository = repaymentJdbcRepository;
+        this.featureStoreService = featureStoreService;
+        this.fraudService = fraudService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.maxDiscrepancies = maxDiscrepancies;
+    }
+
+    public RepaymentImportReport importFile(InputStream input, RepaymentFileReader.Format format, String fileName) {
+        long started = System.currentTimeMillis();
+        Tally tally = new Tally();
+        String abortReason = null;
+        try (RepaymentFileReader reader = new RepaymentFileReader(input, format)) {
+            List<RepaymentFileReader.Row> batch = new ArrayList<>(batchSize);
+            try {
+                RepaymentFileReader.Row row;
+                while ((row = reader.next()) != null) {
+                    batch.add(row);
+                    if (batch.size() == batchSize) {
+                        postBatch(batch, tally);
+                        batch.clear();
+                    }
+                }
+            } catch (UncheckedIOException e) {
+                // Client went away mid-upload: earlier batches are committed, so report them
+                abortReason = "Input ended after line " + reader.linesRead() + ": " + e.getCause().getMessage();
+                log.warn("Repayment import {} aborted: {}", fileName, abortReason);
+            }
+            if (!batch.isEmpty()) {
+                // Rows read before the failure are complete lines; refs make posting them safe
+                postBatch(batch, tally);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        } catch (IOException e) {
+            log.warn("Failed to close repayment file {}", fileName, e);
+        }
+
+        long duration = System.currentTimeMillis() - started;
+        log.info("Repayment import {} ({}): {} rows, {} posted, {} duplicate, {} unmatched, {} rejected, {} failed, {} ms",
+                fileName, format, tally.totalRows, tally.posted, tally.duplicates, tally.unmatched, tally.rejected,
+                tally.failed, duration);
+        return RepaymentImportReport.builder()
+                .fileName(fileName)
+                .format(format.name())
+                .totalRows(tally.totalRows)
+                .posted(tally.posted)
+                .duplicates(tally.duplicates)
+                .unmatched(tally.unmatched)
+                .rejected(tally.rejected)
+                .failed(tally.failed)
+                .amountPosted(tally.amountPosted)
+                .batches(tally.batches)
+                .durationMs(duration)
+                .discrepancies(tally.discrepancies)
+                .discrepanciesTruncated(tally.truncated)
+                .incomplete(abortReason != null)
+                .abortReason(abortReason)
+                .build();
+    }
+
+    private void postBatch(List<RepaymentFileReader.Row> rows, Tally tally) {
+        tally.batches++;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                List<Outcome> outcomes = transactionTemplate.execute(status -> applyBatch(rows));
+                outcomes.forEach(tally::record);
+                return;
+            } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                // A concurrent API posting touched one of these loans or refs; re-read and re-apply
+                if (attempt >= maxAttempts) {
+                    log.warn("Repayment import batch starting at line {} failed after {} attempts: {}",
+                            rows.get(0).lineNumber(), attempt, e.getMessage());
+                    failBatch(rows, tally);
+                    return;
+                }
+            } catch (RuntimeException e) {
+                log.error("Repayment import batch starting at line {} failed", rows.get(0).lineNumber(), e);
+                failBatch(rows, tally);
+                return;
+            }
+        }
+    }
+
+    private static void failBatch(List<RepaymentFileReader.Row> rows, Tally tally) {
+        rows.forEach(row -> tally.record(new Outcome(row, Status.FAILED, null,
+                "Batch could not be committed, re-import the file to retry")));
+    }
+
+    private List<Outcome> applyBatch(List<RepaymentFileReader.Row> rows) {
+        Set<String> refs = new HashSet<>();
+        Set<Long> loanIds = new HashSet<>();
+        for (RepaymentFileReader.Row row : rows) {
+            if (row.error() == null) {
+                if (row.transactionRef() != null) {
+                    refs.add(row.transactionRef());
+                }
+                if (row.loanId() != null) {
+                    loanIds.add(row.loanId());
+                }
+            }
+        }
+
+        // Hash indexes for the batch: one query each
+        Map<String, Long> postedRefs = refs.isEmpty() ? new HashMap<>() : repaymentRepository.findPostedRefs(refs).stream()
+                .collect(Collectors.toMap(RepaymentRepository.PostedRefView::getTransactionRef,
+                        RepaymentRepository.PostedRefView::getLoanId, (a, b) -> a, HashMap::new));
+        Map<Long, Loan> loans = loanIds.isEmpty() ? Map.of() : loanRepository.findAllById(loanIds).stream()
+                .collect(Collectors.toMap(Loan::getLoanId, Function.identity()));
+        Map<Long, List<LoanInstallment>> openByLoan = loans.isEmpty() ? new HashMap<>()
+                : installmentRepository.findOpenInstallmentsForLoans(loans.keySet()).stream()
+                        .collect(Collectors.groupingBy(LoanInstallment::getLoanId, HashMap::new, Collectors.toList()));
+
+        List<Outcome> outcomes = new ArrayList<>(rows.size());
+        List<Repayment> repayments = new ArrayList<>();
+        Map<Long, Loan> touched = new HashMap<>();
+        for (RepaymentFileReader.Row row : rows) {
+            if (row.error() != null) {
+                outcomes.add(new Outcome(row, Status.REJECTED, null, row.error()));
+                continue;
+            }
+            if (row.transactionRef() != null && postedRefs.containsKey(row.transactionRef())) {
+                Long postedLoanId = postedRefs.get(row.transactionRef());
+                outcomes.add(new Outcome(row, Status.DUPLICATE, postedLoanId, "Transaction reference already posted"
+                        + (postedLoanId != null ? " to loan " + postedLoanId : "")));
+                continue;
+            }
+            if (row.loanId() == null) {
+                outcomes.add(new Outcome(row, Status.UNMATCHED, null, "No loan id and transaction reference not on file"));
+                continue;
+            }
+            Loan loan = loans.get(row.loanId());
+            if (loan == null) {
+                outcomes.add(new Outcome(row, Status.UNMATCHED, row.loanId(), "Loan not found"));
+                continue;
+            }
+            if (!"ACTIVE".equals(loan.getLoanStatus())) {
+                outcomes.add(new Outcome(row, Status.REJECTED, row.loanId(), "Loan is " + loan.getLoanStatus()));
+                continue;
+            }
+
+            List<LoanInstallment> open = openByLoan.computeIfAbsent(loan.getLoanId(),
+                    id -> loanService.openInstallments(loan));
+            try {
+                Repayment repayment = loanService.applyPayment(loan, open, row.amount(), row.paymentDate(),
+                        row.mode(), row.transactionRef());
+                repayments.add(repayment);
+                touched.put(loan.getLoanId(), loan);
+                if (row.transactionRef() != null) {
+                    // Later lines in the same batch with this ref are duplicates
+                    postedRefs.put(row.transactionRef(), loan.getLoanId());
+                }
+                outcomes.add(new Outcome(row, Status.POSTED, row.loanId(), null));
+            } catch (BadRequestException e) {
+                outcomes.add(new Outcome(row, Status.REJECTED, row.loanId(), e.getMessage()));
+            }
+        }
+
+        if (!repayments.isEmpty()) {
+            // Loan and installment updates go through Hibernate (version-checked), then the ledger rows
+            openByLoan.values().forEach(installmentRepository::saveAll);
+            loanRepository.saveAll(touched.values());
+            loanRepository.flush();
+            repaymentJdbcRepository.insertAll(repayments);
+            for (Repayment repayment : repayments) {
+                Long userId = repayment.getLoan().getUser().getUserId();
+                featureStoreService.onRepaymentPosted(userId, repayment.getDelayDays());
+                fraudService.onRepaymentPosted(userId, repayment.getLoan().getLoanId(), repayment.getAmountPaid());
+            }
+        }
+        return outcomes;
+    }
+
+    private enum Status { POSTED, DUPLICATE, UNMATCHED, REJECTED, FAILED }
+
+    private record Outcome(RepaymentFileReader.Row row, Status status, Long loanId, String reason) {
+    }
+
+    private final class Tally {
+        long totalRows;
+        long posted;
+        long duplicates;
+        long unmatched;
+        long rejected;
+        long failed;
+        BigDecimal amountPosted = BigDecimal.ZERO;
+        int batches;
+        final List<RepaymentImportReport.Discrepancy> discrepancies = new ArrayList<>();
+        boolean truncated;
+
+        void record(Outcome outcome) {
+            totalRows++;
+            switch (outcome.status()) {
+                case POSTED -> {
+                    posted++;
+                    amountPosted = amountPosted.add(outcome.row().amount());
+                    return;
+                }
+                case DUPLICATE -> duplicates++;
+                case UNMATCHED -> unmatched++;
+                case REJECTED -> rejected++;
+                case FAILED -> failed++;
+            }
+            if (discrepancies.size() >= maxDiscrepancies) {
+                truncated = true;
+                return;
+            }
+            RepaymentFileReader.Row row = outcome.row();
+            discrepancies.add(RepaymentImportReport.Discrepancy.builder()
+                    .lineNumber(row.lineNumber())
+                    .transactionRef(row.transactionRef())
+                    .loanId(outcome.loanId() != null ? outcome.loanId() : row.loanId())
+                    .amount(row.amount())
+                    .paymentDate(row.paymentDate())
+                    .status(outcome.status().name())
+                    .reason(outcome.reason())
+                    .build());
+        }
+    }
+}
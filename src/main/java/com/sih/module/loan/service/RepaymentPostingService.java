@@ -0,0 +1,84 @@
+package com.sih.module.loan.service;
+
+import com.sih.common.exception.ServiceUnavailableException;
+import com.sih.module.loan.dto.PaymentRequest;
+import com.sih.module.loan.dto.RepaymentResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retry shell around {@link LoanService#makeRepayment}. Each attempt is its
+ * own transaction; it is retried when another writer bumped the loan version
+ * first, or when a concurrent request posted the same transactionRef (the
+ * retry then sees that row and returns it as a duplicate). Any other
+ * integrity violation is a real error and propagates unchanged.
+ */
+@Slf4j
+@Service
+public class RepaymentPostingService {
+
+    private static final String TRANSACTION_REF_INDEX = "uq_repay_transaction_ref";
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private final LoanService loanService;
+    private final int maxAttempts;
+    private final long backoffMillis;
+
+    public RepaymentPostingService(LoanService loanService,
+            @Value("${app.loans.repayment.max-attempts:5}") int maxAttempts,
+            @Value("${app.loans.repayment.backoff-ms:20}") long backoffMillis) {
+        this.loanService = loanService;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMillis = backoffMillis;
+    }
+
+    public RepaymentResponse makeRepayment(Long loanId, Long userId, PaymentRequest request) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return loanService.makeRepayment(loanId, userId, request);
+            } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                if (e instanceof DataIntegrityViolationException && !isTransactionRefReplay(e)) {
+                    throw e;
+                }
+                if (attempt >= maxAttempts) {
+                    log.warn("Repayment for loan {} gave up after {} attempts: {}", loanId, attempt, e.getMessage());
+                    throw new ServiceUnavailableException("Loan is being updated concurrently, please retry");
+                }
+                log.debug("Repayment for loan {} conflicted (attempt {}), retrying", loanId, attempt);
+                backoff(attempt);
+            }
+        }
+    }
+
+    private static boolean isTransactionRefReplay(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof ConstraintViolationException cve && cve.getConstraintName() != null) {
+                return TRANSACTION_REF_INDEX.equalsIgnoreCase(cve.getConstraintName());
+            }
+            if (t instanceof SQLException sql && UNIQUE_VIOLATION.equals(sql.getSQLState())) {
+                String message = sql.getMessage();
+                return message != null && message.toLowerCase(Locale.ROOT).contains(TRANSACTION_REF_INDEX);
+            }
+        }
+        return false;
+    }
+
+    private void backoff(int attempt) {
+        // Jittered so a burst of webhooks for one loan does not retry in lockstep
+        long bound = backoffMillis << Math.min(attempt - 1, 5);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Repayment interrupted");
+        }
+    }
+}
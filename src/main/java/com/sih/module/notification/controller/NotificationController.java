@@ -1,6 +1,7 @@
 package com.sih.module.notification.controller;
 
 import com.sih.common.dto.ApiResponse;
+import com.sih.common.dto.CursorPage;
 import com.sih.module.notification.entity.Notification;
 import com.sih.module.notification.service.NotificationService;
 import lombok.RequiredArgsConstructor;
@@ -8,8 +9,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/v1/notifications")
 @RequiredArgsConstructor
@@ -18,10 +17,12 @@ public class NotificationController {
     private final NotificationService notificationService;
     
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Notification>>> getMyNotifications(
+    public ResponseEntity<ApiResponse<CursorPage<Notification>>> getMyNotifications(
             @AuthenticationPrincipal Long userId,
-            @RequestParam(required = false) Boolean isRead) {
-        List<Notification> notifications = notificationService.getMyNotifications(userId, isRead);
+            @RequestParam(required = false) Boolean isRead,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<Notification> notifications = notificationService.getMyNotifications(userId, isRead, cursor, size);
         return ResponseEntity.ok(ApiResponse.success(notifications));
     }
     
@@ -1,6 +1,7 @@
 package com.sih.module.notification.repository;
 
 import com.sih.module.notification.entity.Notification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -10,6 +11,10 @@ import java.util.List;
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     List<Notification> findByUserUserId(Long userId);
     List<Notification> findByUserUserIdAndIsRead(Long userId, Boolean isRead);
+    List<Notification> findByUserUserIdAndNotificationIdLessThanOrderByNotificationIdDesc(
+            Long userId, Long notificationId, Pageable pageable);
+    List<Notification> findByUserUserIdAndIsReadAndNotificationIdLessThanOrderByNotificationIdDesc(
+            Long userId, Boolean isRead, Long notificationId, Pageable pageable);
     List<Notification> findByStatus(String status);
 }
 
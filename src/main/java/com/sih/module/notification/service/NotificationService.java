@@ -1,5 +1,8 @@
 package com.sih.module.notification.service;
 
+import com.sih.common.config.PaginationConfig;
+import com.sih.common.dto.CursorPage;
+import com.sih.common.dto.KeysetCursor;
 import com.sih.module.auth.entity.User;
 import com.sih.module.auth.repository.UserRepository;
 import com.sih.module.notification.entity.Notification;
@@ -20,6 +23,7 @@ public class NotificationService {
 
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
+    private final PaginationConfig paginationConfig;
     private final SmsService smsService;
     private final com.sih.module.auth.service.EmailService emailService;
 
@@ -79,11 +83,15 @@ public class NotificationService {
         return notification;
     }
 
-    public List<Notification> getMyNotifications(Long userId, Boolean isRead) {
-        if (isRead != null) {
-            return notificationRepository.findByUserUserIdAndIsRead(userId, isRead);
-        }
-        return notificationRepository.findByUserUserId(userId);
+    public CursorPage<Notification> getMyNotifications(Long userId, Boolean isRead, String cursor, Integer size) {
+        int pageSize = paginationConfig.resolvePageSize(size);
+        long after = KeysetCursor.decode(cursor, Long.MAX_VALUE);
+        List<Notification> rows = isRead != null
+                ? notificationRepository.findByUserUserIdAndIsReadAndNotificationIdLessThanOrderByNotificationIdDesc(
+                        userId, isRead, after, paginationConfig.keysetLimit(pageSize))
+                : notificationRepository.findByUserUserIdAndNotificationIdLessThanOrderByNotificationIdDesc(
+                        userId, after, paginationConfig.keysetLimit(pageSize));
+        return CursorPage.of(rows, pageSize, Notification::getNotificationId, notification -> notification);
     }
 
     @Transactional
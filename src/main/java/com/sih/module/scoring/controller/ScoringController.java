@@ -2,9 +2,14 @@ package com.sih.module.scoring.controller;
 
 import com.sih.common.dto.ApiResponse;
 import com.sih.module.scoring.dto.AssessmentResponse;
+import com.sih.module.scoring.dto.RescoreReport;
+import com.sih.module.scoring.service.BatchScoringService;
+import com.sih.module.scoring.service.ModelRegistry;
+import com.sih.module.scoring.service.RegionalParameterService;
 import com.sih.module.scoring.service.ScoringService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -13,6 +18,9 @@ import org.springframework.web.bind.annotation.*;
 public class ScoringController {
     
     private final ScoringService scoringService;
+    private final BatchScoringService batchScoringService;
+    private final ModelRegistry modelRegistry;
+    private final RegionalParameterService regionalParameterService;
     
     @PostMapping("/assess/{applicationId}")
     public ResponseEntity<ApiResponse<AssessmentResponse>> assessApplication(@PathVariable Long applicationId) {
@@ -25,5 +33,32 @@ public class ScoringController {
         AssessmentResponse response = scoringService.getAssessment(applicationId);
         return ResponseEntity.ok(ApiResponse.success(response));
     }
-}
 
+    @PostMapping("/rescore")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<RescoreReport>> rescoreAll() {
+        RescoreReport job = batchScoringService.startRescore("MANUAL");
+        return ResponseEntity.accepted().body(ApiResponse.success("Rescore started", job));
+    }
+
+    @GetMapping("/rescore/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<RescoreReport>> getRescoreJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(ApiResponse.success(batchScoringService.getRescoreJob(jobId)));
+    }
+
+    @PostMapping("/models/{modelId}/activate")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<String>> activateModel(@PathVariable Long modelId) {
+        ModelRegistry.ActiveModel model = modelRegistry.activate(modelId);
+        return ResponseEntity.ok(ApiResponse.success("Model activated",
+                model.name() + " " + model.version()));
+    }
+
+    @PostMapping("/regional-parameters/refresh")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Integer>> refreshRegionalParameters() {
+        regionalParameterService.refresh();
+        return ResponseEntity.ok(ApiResponse.success("Regional parameters reloaded", regionalParameterService.size()));
+    }
+}
@@ -0,0 +1,21 @@
+package com.sih.module.scoring.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RescoreReport {
+    private String jobId;
+    private String status; // 'RUNNING', 'COMPLETED', 'FAILED'
+    private String error;
+    private String triggeredBy;
+    private long applicationsScored;
+    private long scoresChanged;
+    private int chunks;
+    private long durationMs;
+}
@@ -0,0 +1,61 @@
+package com.sih.module.scoring.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+/**
+ * Per-user feature row maintained by {@code FeatureStoreService}. Read-only
+ * from JPA: every write goes through the delta upserts in
+ * {@code BeneficiaryFeaturesRepository}.
+ */
+@Entity
+@Table(name = "beneficiary_features")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeneficiaryFeatures {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "bill_total_3m", precision = 15, scale = 2, nullable = false)
+    private BigDecimal billTotal3m;
+
+    @Column(name = "bill_total_6m", precision = 15, scale = 2, nullable = false)
+    private BigDecimal billTotal6m;
+
+    @Column(name = "bill_total_12m", precision = 15, scale = 2, nullable = false)
+    private BigDecimal billTotal12m;
+
+    @Column(name = "bill_count_12m", nullable = false)
+    private Integer billCount12m;
+
+    @Column(name = "verified_ratio_12m", precision = 5, scale = 4, nullable = false)
+    private BigDecimal verifiedRatio12m;
+
+    @Column(name = "repayment_count", nullable = false)
+    private Integer repaymentCount;
+
+    @Column(name = "total_delay_days", nullable = false)
+    private Long totalDelayDays;
+
+    @Column(name = "max_delay_days", nullable = false)
+    private Integer maxDelayDays;
+
+    @Column(name = "avg_delay_days", precision = 10, scale = 2, nullable = false)
+    private BigDecimal avgDelayDays;
+
+    @Column(name = "group_size", nullable = false)
+    private Integer groupSize;
+
+    @Column(name = "updated_at")
+    private OffsetDateTime updatedAt;
+}
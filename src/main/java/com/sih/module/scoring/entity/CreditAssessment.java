@@ -31,7 +31,8 @@ public class CreditAssessment {
     @Column(name = "assessment_id")
     private Long assessmentId;
     
-    @OneToOne(fetch = FetchType.LAZY)
+    // History is kept: one current row per application, older ones superseded
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "application_id", nullable = false)
     private LoanApplication application;
     
@@ -68,5 +69,8 @@ public class CreditAssessment {
     @Column(name = "assessed_at", nullable = false)
     @Builder.Default
     private OffsetDateTime assessedAt = OffsetDateTime.now();
+
+    @Column(name = "superseded_at")
+    private OffsetDateTime supersededAt;
 }
 
@@ -1,16 +1,46 @@
 package com.sih.module.scoring.entity;
 
+import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 
+@Entity
+@Table(name = "regional_parameters", indexes = {
+    @Index(name = "idx_regional_state_type", columnList = "state, region_type"),
+    @Index(name = "idx_regional_pincode", columnList = "pincode")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class RegionalParameter {
-    private BigDecimal costAdjustmentFactor;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "region_id")
+    private Integer regionId;
+
+    @Column(name = "state", length = 100)
+    private String state;
+
+    @Column(name = "region_type", length = 20)
+    private String regionType; // 'RURAL', 'URBAN'
+
+    @Column(name = "district", length = 100)
+    private String district;
+
+    @Column(name = "pincode", length = 20)
+    private String pincode;
+
+    @Column(name = "cost_adjustment_factor", precision = 5, scale = 4)
+    private BigDecimal costAdjustmentFactor; // e.g., 1.10 for +10%
+
+    @Column(name = "last_updated")
+    @Builder.Default
+    private LocalDate lastUpdated = LocalDate.now();
 }
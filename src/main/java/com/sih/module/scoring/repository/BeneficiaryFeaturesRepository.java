@@ -0,0 +1,135 @@
+package com.sih.module.scoring.repository;
+
+import com.sih.module.scoring.entity.BeneficiaryFeatures;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+
+@Repository
+public interface BeneficiaryFeaturesRepository extends JpaRepository<BeneficiaryFeatures, Long> {
+
+    String WINDOW_COLUMNS =
+            "COALESCE(SUM(total_amount) FILTER (WHERE month >= date_trunc('month', CURRENT_DATE) - INTERVAL '2 months'), 0), " +
+            "COALESCE(SUM(total_amount) FILTER (WHERE month >= date_trunc('month', CURRENT_DATE) - INTERVAL '5 months'), 0), " +
+            "COALESCE(SUM(total_amount), 0), " +
+            "COALESCE(SUM(entry_count), 0), " +
+            "CASE WHEN COALESCE(SUM(entry_count), 0) > 0 " +
+            "THEN ROUND(CAST(SUM(verified_count) AS numeric) / SUM(entry_count), 4) ELSE 0 END ";
+
+    String IN_WINDOW = "month >= date_trunc('month', CURRENT_DATE) - INTERVAL '11 months'";
+
+    /**
+     * Atomically add deltas to a (user, billing month) consumption bucket, creating it if needed.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO beneficiary_consumption_months " +
+            "(user_id, month, entry_count, verified_count, total_amount) " +
+            "VALUES (:userId, :month, :entryDelta, :verifiedDelta, :amountDelta) " +
+            "ON CONFLICT (user_id, month) DO UPDATE SET " +
+            "entry_count = beneficiary_consumption_months.entry_count + EXCLUDED.entry_count, " +
+            "verified_count = beneficiary_consumption_months.verified_count + EXCLUDED.verified_count, " +
+            "total_amount = beneficiary_consumption_months.total_amount + EXCLUDED.total_amount",
+            nativeQuery = true)
+    void applyConsumptionDelta(
+        @Param("userId") Long userId,
+        @Param("month") LocalDate month,
+        @Param("entryDelta") long entryDelta,
+        @Param("verifiedDelta") long verifiedDelta,
+        @Param("amountDelta") BigDecimal amountDelta
+    );
+
+    /**
+     * Create the user's feature row if it is missing, so {@link #lockForUpdate} always has a row to lock.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO beneficiary_features (user_id, updated_at) VALUES (:userId, now()) " +
+            "ON CONFLICT (user_id) DO NOTHING", nativeQuery = true)
+    void ensureRow(@Param("userId") Long userId);
+
+    /**
+     * Row lock that serialises window re-sums for one user until the transaction ends.
+     */
+    @Query(value = "SELECT user_id FROM beneficiary_features WHERE user_id = :userId FOR UPDATE", nativeQuery = true)
+    Long lockForUpdate(@Param("userId") Long userId);
+
+    /**
+     * Re-sum one user's rolling consumption windows from at most 12 bucket rows.
+     * Callers hold {@link #lockForUpdate} so a concurrent bucket delta is committed
+     * (and visible to this statement's snapshot) before the totals are overwritten.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO beneficiary_features " +
+            "(user_id, bill_total_3m, bill_total_6m, bill_total_12m, bill_count_12m, verified_ratio_12m, updated_at) " +
+            "SELECT :userId, " + WINDOW_COLUMNS + ", now() " +
+            "FROM beneficiary_consumption_months WHERE user_id = :userId AND " + IN_WINDOW + " " +
+            "ON CONFLICT (user_id) DO UPDATE SET " +
+            "bill_total_3m = EXCLUDED.bill_total_3m, " +
+            "bill_total_6m = EXCLUDED.bill_total_6m, " +
+            "bill_total_12m = EXCLUDED.bill_total_12m, " +
+            "bill_count_12m = EXCLUDED.bill_count_12m, " +
+            "verified_ratio_12m = EXCLUDED.verified_ratio_12m, " +
+            "updated_at = now()", nativeQuery = true)
+    void refreshConsumptionWindows(@Param("userId") Long userId);
+
+    /**
+     * Roll every user's windows forward; only needed when the calendar month changes.
+     */
+    @Modifying
+    @Query(value = "UPDATE beneficiary_features f SET " +
+            "bill_total_3m = COALESCE(c.total_3m, 0), " +
+            "bill_total_6m = COALESCE(c.total_6m, 0), " +
+            "bill_total_12m = COALESCE(c.total_12m, 0), " +
+            "bill_count_12m = COALESCE(c.count_12m, 0), " +
+            "verified_ratio_12m = COALESCE(c.verified_ratio, 0), " +
+            "updated_at = now() " +
+            "FROM beneficiary_features f2 LEFT JOIN (" +
+            "SELECT user_id, " +
+            "SUM(total_amount) FILTER (WHERE month >= date_trunc('month', CURRENT_DATE) - INTERVAL '2 months') AS total_3m, " +
+            "SUM(total_amount) FILTER (WHERE month >= date_trunc('month', CURRENT_DATE) - INTERVAL '5 months') AS total_6m, " +
+            "SUM(total_amount) AS total_12m, " +
+            "SUM(entry_count) AS count_12m, " +
+            "CASE WHEN SUM(entry_count) > 0 THEN ROUND(CAST(SUM(verified_count) AS numeric) / SUM(entry_count), 4) END AS verified_ratio " +
+            "FROM beneficiary_consumption_months WHERE " + IN_WINDOW + " GROUP BY user_id" +
+            ") c ON c.user_id = f2.user_id " +
+            "WHERE f.user_id = f2.user_id", nativeQuery = true)
+    int refreshAllConsumptionWindows();
+
+    @Modifying
+    @Query(value = "INSERT INTO beneficiary_features " +
+            "(user_id, repayment_count, total_delay_days, max_delay_days, avg_delay_days, updated_at) " +
+            "VALUES (:userId, 1, :delayDays, :delayDays, :delayDays, now()) " +
+            "ON CONFLICT (user_id) DO UPDATE SET " +
+            "repayment_count = beneficiary_features.repayment_count + 1, " +
+            "total_delay_days = beneficiary_features.total_delay_days + EXCLUDED.total_delay_days, " +
+            "max_delay_days = GREATEST(beneficiary_features.max_delay_days, EXCLUDED.max_delay_days), " +
+            "avg_delay_days = ROUND(CAST(beneficiary_features.total_delay_days + EXCLUDED.total_delay_days AS numeric) " +
+            "/ (beneficiary_features.repayment_count + 1), 2), " +
+            "updated_at = now()", nativeQuery = true)
+    void applyRepayment(@Param("userId") Long userId, @Param("delayDays") int delayDays);
+
+    /**
+     * Size of the largest active group each user is an approved member of.
+     * Flushes first so membership changes made through JPA in the same transaction are visible.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO beneficiary_features (user_id, group_size, updated_at) " +
+            "SELECT u.user_id, COALESCE(MAX(sizes.member_count), 0), now() " +
+            "FROM users u " +
+            "LEFT JOIN group_members gm ON gm.user_id = u.user_id AND gm.status = 'APPROVED' " +
+            "LEFT JOIN (SELECT gm2.group_id, COUNT(*) AS member_count FROM group_members gm2 " +
+            "JOIN borrower_groups bg ON bg.group_id = gm2.group_id AND bg.is_active = TRUE " +
+            "WHERE gm2.status = 'APPROVED' " +
+            "AND gm2.group_id IN (SELECT group_id FROM group_members WHERE user_id IN (:userIds)) " +
+            "GROUP BY gm2.group_id) sizes ON sizes.group_id = gm.group_id " +
+            "WHERE u.user_id IN (:userIds) " +
+            "GROUP BY u.user_id " +
+            "ON CONFLICT (user_id) DO UPDATE SET group_size = EXCLUDED.group_size, updated_at = now()",
+            nativeQuery = true)
+    void refreshGroupSizes(@Param("userIds") Collection<Long> userIds);
+}
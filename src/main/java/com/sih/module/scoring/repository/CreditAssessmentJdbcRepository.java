@@ -0,0 +1,145 @@
+package com.sih.module.scoring.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sih.module.scoring.service.ScoringFeatures;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set-based access for batch rescoring. Reads applications together with the
+ * profile and feature-store fields they are scored on, and writes
+ * assessments and rescore logs with JDBC batches instead of per-row entity saves.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CreditAssessmentJdbcRepository {
+
+    private static final String SELECT_SCORING_CHUNK = """
+            SELECT a.application_id, a.user_id, p.verified_annual_income, p.is_profile_verified,
+                   p.literacy_score, p.state, p.district, p.pincode, p.region_type,
+                   (SELECT c.composite_score FROM credit_assessments c
+                     WHERE c.application_id = a.application_id AND c.superseded_at IS NULL
+                     ORDER BY c.assessed_at DESC LIMIT 1) AS previous_score,
+                   f.bill_total_3m, f.bill_total_6m, f.bill_total_12m, f.verified_ratio_12m,
+                   f.avg_delay_days, f.max_delay_days, f.group_size
+            FROM loan_applications a
+            JOIN beneficiary_profiles p ON p.user_id = a.user_id
+            LEFT JOIN beneficiary_features f ON f.user_id = a.user_id
+            WHERE a.status NOT IN ('WITHDRAWN', 'REJECTED') AND a.application_id > ?
+            ORDER BY a.application_id
+            LIMIT ?
+            """;
+
+    private static final String INSERT_ASSESSMENT = """
+            INSERT INTO credit_assessments (application_id, raw_income_score, adjusted_income_score,
+                credit_risk_score, composite_score, risk_band, eligibility_status, explainability_data,
+                explainability_summary, model_id, assessed_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?::jsonb, ?, ?, now())
+            """;
+
+    private static final String INSERT_RESCORE_LOG =
+            "INSERT INTO rescore_logs (user_id, old_score, new_score, triggered_by) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Next keyset chunk of scorable applications (everything except withdrawn/rejected).
+     */
+    public List<ScoringInput> findScoringChunk(long afterApplicationId, int limit) {
+        return jdbcTemplate.query(SELECT_SCORING_CHUNK, (rs, rowNum) -> new ScoringInput(
+                rs.getLong("application_id"),
+                rs.getLong("user_id"),
+                rs.getBigDecimal("verified_annual_income"),
+                rs.getBoolean("is_profile_verified"),
+                (Integer) rs.getObject("literacy_score"),
+                rs.getString("state"),
+                rs.getString("district"),
+                rs.getString("pincode"),
+                rs.getString("region_type"),
+                rs.getBigDecimal("previous_score"),
+                // absent feature rows read as zeros, same as ScoringFeatures.Behaviour.EMPTY
+                new ScoringFeatures.Behaviour(
+                        rs.getDouble("bill_total_3m"),
+                        rs.getDouble("bill_total_6m"),
+                        rs.getDouble("bill_total_12m"),
+                        rs.getDouble("verified_ratio_12m"),
+                        rs.getDouble("avg_delay_days"),
+                        rs.getInt("max_delay_days"),
+                        rs.getInt("group_size"))), afterApplicationId, limit);
+    }
+
+    /**
+     * Records new assessments for the given applications. Their current rows
+     * are marked superseded rather than deleted, so score history is kept.
+     */
+    public void supersedeAssessments(List<AssessmentRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        namedParameterJdbcTemplate.update(
+                "UPDATE credit_assessments SET superseded_at = now() " +
+                "WHERE application_id IN (:ids) AND superseded_at IS NULL",
+                new MapSqlParameterSource("ids", rows.stream().map(AssessmentRow::applicationId).toList()));
+
+        jdbcTemplate.batchUpdate(INSERT_ASSESSMENT, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, row.applicationId());
+            ps.setBigDecimal(2, row.rawIncomeScore());
+            ps.setBigDecimal(3, row.adjustedIncomeScore());
+            ps.setBigDecimal(4, row.creditRiskScore());
+            ps.setBigDecimal(5, row.compositeScore());
+            ps.setString(6, row.riskBand());
+            ps.setString(7, row.eligibilityStatus());
+            ps.setString(8, toJson(row.explainabilityData()));
+            ps.setString(9, row.explainabilitySummary());
+            if (row.modelId() != null) {
+                ps.setLong(10, row.modelId());
+            } else {
+                ps.setNull(10, Types.BIGINT);
+            }
+        });
+    }
+
+    public void insertRescoreLogs(List<RescoreLogRow> rows, String triggeredBy) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_RESCORE_LOG, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, row.userId());
+            ps.setBigDecimal(2, row.oldScore());
+            ps.setBigDecimal(3, row.newScore());
+            ps.setString(4, triggeredBy);
+        });
+    }
+
+    private String toJson(Map<String, Object> data) {
+        try {
+            return objectMapper.writeValueAsString(data != null ? data : Map.of());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize explainability data", e);
+        }
+    }
+
+    public record ScoringInput(long applicationId, long userId, BigDecimal verifiedAnnualIncome,
+            boolean profileVerified, Integer literacyScore, String state, String district, String pincode, String regionType,
+            BigDecimal previousScore, ScoringFeatures.Behaviour behaviour) {
+    }
+
+    public record AssessmentRow(long applicationId, BigDecimal rawIncomeScore, BigDecimal adjustedIncomeScore,
+            BigDecimal creditRiskScore, BigDecimal compositeScore, String riskBand, String eligibilityStatus,
+            Map<String, Object> explainabilityData, String explainabilitySummary, Long modelId) {
+    }
+
+    public record RescoreLogRow(long userId, BigDecimal oldScore, BigDecimal newScore) {
+    }
+}
@@ -2,12 +2,23 @@ package com.sih.module.scoring.repository;
 
 import com.sih.module.scoring.entity.CreditAssessment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
 import java.util.Optional;
 
 @Repository
 public interface CreditAssessmentRepository extends JpaRepository<CreditAssessment, Long> {
-    Optional<CreditAssessment> findByApplicationApplicationId(Long applicationId);
+
+    Optional<CreditAssessment> findFirstByApplicationApplicationIdAndSupersededAtIsNullOrderByAssessedAtDesc(
+            Long applicationId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE CreditAssessment c SET c.supersededAt = :at " +
+           "WHERE c.application.applicationId = :applicationId AND c.supersededAt IS NULL")
+    int supersedeCurrent(@Param("applicationId") Long applicationId, @Param("at") OffsetDateTime at);
 }
 
@@ -2,6 +2,9 @@ package com.sih.module.scoring.repository;
 
 import com.sih.module.scoring.entity.MLModel;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,5 +14,13 @@ import java.util.Optional;
 public interface MLModelRepository extends JpaRepository<MLModel, Long> {
     List<MLModel> findByIsActive(Boolean isActive);
     Optional<MLModel> findByIsActiveTrue();
+
+    @Query(value = "SELECT model_id FROM ml_models WHERE is_active = TRUE ORDER BY created_at DESC LIMIT 1",
+            nativeQuery = true)
+    Optional<Long> findActiveModelId();
+
+    @Modifying
+    @Query("UPDATE MLModel m SET m.isActive = false WHERE m.isActive = true AND m.modelId <> :modelId")
+    int deactivateAllExcept(@Param("modelId") Long modelId);
 }
 
@@ -0,0 +1,9 @@
+package com.sih.module.scoring.repository;
+
+import com.sih.module.scoring.entity.RegionalParameter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RegionalParameterRepository extends JpaRepository<RegionalParameter, Integer> {
+}
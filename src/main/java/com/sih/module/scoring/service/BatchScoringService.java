@@ -0,0 +1,268 @@
+package com.sih.module.scoring.service;
+
+import com.sih.common.config.FailSafeConfig;
+import com.sih.common.exception.BadRequestException;
+import com.sih.common.exception.ResourceNotFoundException;
+import com.sih.common.exception.ServiceUnavailableException;
+import com.sih.config.AsyncConfig;
+import com.sih.module.scoring.dto.RescoreReport;
+import com.sih.module.scoring.repository.CreditAssessmentJdbcRepository;
+import com.sih.module.scoring.repository.CreditAssessmentJdbcRepository.AssessmentRow;
+import com.sih.module.scoring.repository.CreditAssessmentJdbcRepository.RescoreLogRow;
+import com.sih.module.scoring.repository.CreditAssessmentJdbcRepository.ScoringInput;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+/**
+ * Full-portfolio rescoring. Applications are streamed in keyset chunks (one
+ * query joins application and profile), scored in parallel on a dedicated
+ * fork-join pool with one vectorized model pass per chunk, and written back
+ * with JDBC batches. Each chunk commits on its own, so a failure only loses
+ * the chunk in flight. Admin-triggered runs go to a dedicated executor and are
+ * polled by job id.
+ */
+@Slf4j
+@Service
+public class BatchScoringService {
+
+    private static final String RUNNING = "RUNNING";
+    private static final String COMPLETED = "COMPLETED";
+    private static final String FAILED = "FAILED";
+    private static final int MAX_TRACKED_JOBS = 20;
+
+    private final CreditAssessmentJdbcRepository jdbcRepository;
+    private final ScoreCalculator scoreCalculator;
+    private final ModelRegistry modelRegistry;
+    private final RegionalParameterService regionalParameterService;
+    private final FailSafeConfig failSafeConfig;
+    private final TransactionTemplate transactionTemplate;
+    private final ForkJoinPool scoringPool;
+    private final int chunkSize;
+    private final ThreadPoolTaskExecutor rescoreExecutor;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final Map<String, RescoreReport> jobs = new LinkedHashMap<>(16, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, RescoreReport> eldest) {
+            return size() > MAX_TRACKED_JOBS;
+        }
+    };
+
+    public BatchScoringService(CreditAssessmentJdbcRepository jdbcRepository,
+            ScoreCalculator scoreCalculator,
+            ModelRegistry modelRegistry,
+            RegionalParameterService regionalParameterService,
+            FailSafeConfig failSafeConfig,
+            PlatformTransactionManager transactionManager,
+            @Qualifier(AsyncConfig.RESCORE_EXECUTOR) ThreadPoolTaskExecutor rescoreExecutor,
+            @Value("${app.scoring.rescore.chunk-size:1000}") int chunkSize,
+            @Value("${app.scoring.rescore.parallelism:0}") int parallelism) {
+        this.jdbcRepository = jdbcRepository;
+        this.scoreCalculator = scoreCalculator;
+        this.modelRegistry = modelRegistry;
+        this.regionalParameterService = regionalParameterService;
+        this.failSafeConfig = failSafeConfig;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rescoreExecutor = rescoreExecutor;
+        this.chunkSize = chunkSize;
+        // 0 = one worker per core
+        this.scoringPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @Scheduled(cron = "${app.scoring.rescore.cron:0 0 2 * * *}")
+    public void nightlyRescore() {
+        if (!failSafeConfig.isRescoreCronEnabled()) {
+            log.info("Nightly rescore skipped: rescore_cron_enabled is off");
+            return;
+        }
+        try {
+            rescoreAll("CRON");
+        } catch (BadRequestException e) {
+            log.warn("Nightly rescore skipped: {}", e.getMessage());
+        }
+    }
+
+    public RescoreReport rescoreAll(String triggeredBy) {
+        if (!running.compareAndSet(false, true)) {
+            throw new BadRequestException("A rescore is already running");
+        }
+        try {
+            return rescore(null, triggeredBy);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Starts a rescore on the rescore executor and returns its RUNNING job;
+     * poll {@link #getRescoreJob} for the report.
+     */
+    public RescoreReport startRescore(String triggeredBy) {
+        if (!running.compareAndSet(false, true)) {
+            throw new BadRequestException("A rescore is already running");
+        }
+        String jobId = UUID.randomUUID().toString();
+        RescoreReport job = RescoreReport.builder().jobId(jobId).status(RUNNING).triggeredBy(triggeredBy).build();
+        putJob(job);
+        try {
+            rescoreExecutor.execute(() -> {
+                try {
+                    putJob(rescore(jobId, triggeredBy));
+                } catch (RuntimeException e) {
+                    log.error("Rescore job {} failed", jobId, e);
+                    putJob(RescoreReport.builder().jobId(jobId).status(FAILED).error(e.getMessage())
+                            .triggeredBy(triggeredBy).build());
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+            synchronized (jobs) {
+                jobs.remove(jobId);
+            }
+            throw new ServiceUnavailableException("Rescore executor is busy, try again later");
+        }
+        return job;
+    }
+
+    public RescoreReport getRescoreJob(String jobId) {
+        synchronized (jobs) {
+            RescoreReport job = jobs.get(jobId);
+            if (job == null) {
+                throw new ResourceNotFoundException("Rescore job not found");
+            }
+            return job;
+        }
+    }
+
+    private void putJob(RescoreReport job) {
+        synchronized (jobs) {
+            jobs.put(job.getJobId(), job);
+        }
+    }
+
+    private RescoreReport rescore(String jobId, String triggeredBy) {
+        long started = System.currentTimeMillis();
+        long scored = 0;
+        long changed = 0;
+        int chunks = 0;
+        long afterId = 0;
+        List<ScoringInput> chunk;
+        while (!(chunk = jdbcRepository.findScoringChunk(afterId, chunkSize)).isEmpty()) {
+            changed += processChunk(chunk, triggeredBy);
+            scored += chunk.size();
+            chunks++;
+            afterId = chunk.get(chunk.size() - 1).applicationId();
+        }
+
+        long duration = System.currentTimeMillis() - started;
+        log.info("Rescore ({}) completed: {} applications in {} chunks, {} changed, {} ms",
+                triggeredBy, scored, chunks, changed, duration);
+        return RescoreReport.builder()
+                .jobId(jobId)
+                .status(COMPLETED)
+                .triggeredBy(triggeredBy)
+                .applicationsScored(scored)
+                .scoresChanged(changed)
+                .chunks(chunks)
+                .durationMs(duration)
+                .build();
+    }
+
+    private int processChunk(List<ScoringInput> chunk, String triggeredBy) {
+        // one model for the whole chunk, even if a hot-swap lands mid-chunk
+        ModelRegistry.ActiveModel activeModel = modelRegistry.current().orElse(null);
+        List<ScoreCalculator.ScoreBreakdown> ruleBased = scoringPool.submit(
+                () -> chunk.parallelStream().map(this::scoreRules).toList()).join();
+        double[] probabilities = predict(activeModel, chunk, ruleBased);
+
+        List<AssessmentRow> rows = scoringPool.submit(() -> IntStream.range(0, chunk.size()).parallel()
+                .mapToObj(i -> toRow(chunk.get(i), ruleBased.get(i), activeModel,
+                        probabilities != null ? probabilities[i] : Double.NaN))
+                .toList()).join();
+
+        List<RescoreLogRow> changes = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            BigDecimal oldScore = chunk.get(i).previousScore();
+            BigDecimal newScore = rows.get(i).compositeScore();
+            if (oldScore == null || oldScore.compareTo(newScore) != 0) {
+                changes.add(new RescoreLogRow(chunk.get(i).userId(), oldScore, newScore));
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcRepository.supersedeAssessments(rows);
+            jdbcRepository.insertRescoreLogs(changes, triggeredBy);
+        });
+        return changes.size();
+    }
+
+    private ScoreCalculator.ScoreBreakdown scoreRules(ScoringInput input) {
+        BigDecimal regionalFactor = regionalParameterService.factor(input.state(), input.district(),
+                input.pincode(), input.regionType());
+        return scoreCalculator.score(input.verifiedAnnualIncome(), regionalFactor, input.profileVerified(),
+                input.literacyScore());
+    }
+
+    private double[] predict(ModelRegistry.ActiveModel activeModel, List<ScoringInput> chunk,
+            List<ScoreCalculator.ScoreBreakdown> ruleBased) {
+        if (activeModel == null) {
+            return null;
+        }
+        int rows = chunk.size();
+        double[][] columns = ScoringFeatures.columns(rows);
+        for (int i = 0; i < rows; i++) {
+            ScoringInput input = chunk.get(i);
+            ScoringFeatures.setRow(columns, i, ruleBased.get(i).rawIncome().doubleValue(), input.profileVerified(),
+                    input.literacyScore() != null ? input.literacyScore() : 0,
+                    ruleBased.get(i).regionalFactor().doubleValue(), input.behaviour());
+        }
+        double[] probabilities = new double[rows];
+        try {
+            activeModel.model().predictBatch(columns, rows, probabilities);
+            return probabilities;
+        } catch (Exception e) {
+            log.warn("ML model {} failed on chunk, using rule-based scores: {}", activeModel.modelId(),
+                    e.getMessage());
+            return null;
+        }
+    }
+
+    private AssessmentRow toRow(ScoringInput input, ScoreCalculator.ScoreBreakdown ruleBased,
+            ModelRegistry.ActiveModel activeModel, double probability) {
+        ScoreCalculator.ScoreBreakdown breakdown = scoreCalculator.withModelProbability(ruleBased, probability);
+        return new AssessmentRow(input.applicationId(),
+                breakdown.rawIncomeScore(),
+                breakdown.adjustedIncomeScore(),
+                breakdown.creditRiskScore(),
+                breakdown.compositeScore(),
+                breakdown.riskBand(),
+                breakdown.eligibilityStatus(),
+                scoreCalculator.explainabilityData(breakdown, input.literacyScore()),
+                scoreCalculator.explainabilitySummary(breakdown),
+                breakdown.modelScore() != null ? activeModel.modelId() : null);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scoringPool.shutdown();
+    }
+}
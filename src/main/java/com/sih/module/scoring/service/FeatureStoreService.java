@@ -0,0 +1,96 @@
+package com.sih.module.scoring.service;
+
+import com.sih.module.scoring.entity.BeneficiaryFeatures;
+import com.sih.module.scoring.repository.BeneficiaryFeaturesRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Per-user feature store. Write paths report what changed (a bill, a posted
+ * repayment, a group membership) and only the affected user's row is touched:
+ * bills go into monthly buckets and the rolling windows are re-summed from at
+ * most 12 of them; repayments and group sizes are single-row upserts.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FeatureStoreService {
+
+    private final BeneficiaryFeaturesRepository featuresRepository;
+
+    public Optional<BeneficiaryFeatures> getFeatures(Long userId) {
+        return featuresRepository.findById(userId);
+    }
+
+    /**
+     * @param before the bill as it was, or {@code null} when it was just created
+     * @param after  the bill as it is now, or {@code null} when it was deleted
+     */
+    @Transactional
+    public void onBillChanged(Long userId, BillFact before, BillFact after) {
+        if (userId == null || Objects.equals(before, after)) {
+            return;
+        }
+        // Lock the feature row before touching buckets: concurrent writers for the same user
+        // then re-sum one after another (and always take the locks in the same order)
+        featuresRepository.ensureRow(userId);
+        featuresRepository.lockForUpdate(userId);
+        boolean changed = applyBucket(userId, before, -1);
+        changed |= applyBucket(userId, after, 1);
+        if (changed) {
+            featuresRepository.refreshConsumptionWindows(userId);
+            log.debug("Consumption features refreshed for user {}", userId);
+        }
+    }
+
+    @Transactional
+    public void onRepaymentPosted(Long userId, int delayDays) {
+        featuresRepository.applyRepayment(userId, delayDays);
+    }
+
+    /**
+     * @param userIds every member of the changed group, including anyone who just left it
+     */
+    @Transactional
+    public void onGroupMembershipChanged(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        featuresRepository.refreshGroupSizes(userIds);
+    }
+
+    /**
+     * Rolling windows only move when the month does.
+     */
+    @Scheduled(cron = "${app.scoring.features.window-roll-cron:0 30 0 1 * *}")
+    @Transactional
+    public void rollConsumptionWindows() {
+        int rows = featuresRepository.refreshAllConsumptionWindows();
+        log.info("Rolled consumption feature windows for {} users", rows);
+    }
+
+    private boolean applyBucket(Long userId, BillFact fact, int sign) {
+        if (fact == null || fact.billingDate() == null) {
+            return false;
+        }
+        BigDecimal amount = fact.amount() != null ? fact.amount() : BigDecimal.ZERO;
+        featuresRepository.applyConsumptionDelta(userId, fact.billingDate().withDayOfMonth(1), sign,
+                fact.verified() ? sign : 0, sign > 0 ? amount : amount.negate());
+        return true;
+    }
+
+    /**
+     * The parts of a consumption entry that feed the consumption features.
+     */
+    public record BillFact(LocalDate billingDate, BigDecimal amount, boolean verified) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.sih.module.scoring.service;
+
+/**
+ * Compiled, immutable model evaluated in-process over {@link ScoringFeatures} vectors.
+ * Implementations are thread-safe.
+ */
+public interface InferenceModel {
+
+    /**
+     * Probability (0..1) that the applicant is creditworthy.
+     */
+    double predict(double[] features);
+
+    /**
+     * Scores {@code rows} applicants from a column-major matrix ({@code columns[feature][row]})
+     * into {@code out}.
+     */
+    default void predictBatch(double[][] columns, int rows, double[] out) {
+        double[] row = new double[columns.length];
+        for (int r = 0; r < rows; r++) {
+            for (int f = 0; f < columns.length; f++) {
+                row[f] = columns[f][r];
+            }
+            out[r] = predict(row);
+        }
+    }
+
+    static double sigmoid(double logit) {
+        return 1.0 / (1.0 + Math.exp(-logit));
+    }
+}
@@ -0,0 +1,53 @@
+package com.sih.module.scoring.service;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Logistic regression: {@code sigmoid(intercept + w . x)}.
+ */
+public final class LogisticInferenceModel implements InferenceModel {
+
+    private final double intercept;
+    // dense over the full feature schema, zero for unused features
+    private final double[] weights;
+
+    private LogisticInferenceModel(double intercept, double[] weights) {
+        this.intercept = intercept;
+        this.weights = weights;
+    }
+
+    public static LogisticInferenceModel of(Map<String, Double> coefficients, double intercept) {
+        double[] weights = new double[ScoringFeatures.COUNT];
+        coefficients.forEach((name, weight) -> weights[ScoringFeatures.indexOf(name)] = weight);
+        return new LogisticInferenceModel(intercept, weights);
+    }
+
+    @Override
+    public double predict(double[] features) {
+        double logit = intercept;
+        for (int f = 0; f < weights.length; f++) {
+            logit += weights[f] * features[f];
+        }
+        return InferenceModel.sigmoid(logit);
+    }
+
+    @Override
+    public void predictBatch(double[][] columns, int rows, double[] out) {
+        // feature-major loops over contiguous columns, which the JIT can vectorize
+        Arrays.fill(out, 0, rows, intercept);
+        for (int f = 0; f < weights.length; f++) {
+            double weight = weights[f];
+            if (weight == 0.0) {
+                continue;
+            }
+            double[] column = columns[f];
+            for (int r = 0; r < rows; r++) {
+                out[r] += weight * column[r];
+            }
+        }
+        for (int r = 0; r < rows; r++) {
+            out[r] = InferenceModel.sigmoid(out[r]);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.sih.module.scoring.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sih.common.exception.BadRequestException;
+import com.sih.common.exception.ResourceNotFoundException;
+import com.sih.module.scoring.entity.MLModel;
+import com.sih.module.scoring.repository.MLModelRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the compiled active model in memory. Parameters come from the
+ * {@code ml_models.metrics} document, or from the JSON file named by its
+ * {@code model_path} key. The registry polls for a change of the active model
+ * id and swaps atomically, so in-flight scoring keeps the model it started with.
+ * A model that fails to load leaves scoring on rules and is retried on the next
+ * refresh. Swaps are serialized, so a refresh that read the database before an
+ * activation committed cannot overwrite the newly activated model.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ModelRegistry {
+
+    private final MLModelRepository modelRepository;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicReference<ActiveModel> active = new AtomicReference<>();
+    // last active id seen in the database and successfully applied
+    private Long observedModelId;
+
+    @PostConstruct
+    public void init() {
+        refresh();
+    }
+
+    public Optional<ActiveModel> current() {
+        return Optional.ofNullable(active.get());
+    }
+
+    @Scheduled(fixedDelayString = "${app.scoring.model.refresh-interval:60000}",
+            initialDelayString = "${app.scoring.model.refresh-interval:60000}")
+    public synchronized void refresh() {
+        try {
+            Long activeId = modelRepository.findActiveModelId().orElse(null);
+            if (Objects.equals(activeId, observedModelId)) {
+                return;
+            }
+            if (activeId == null) {
+                observedModelId = null;
+                active.set(null);
+                log.info("No active ML model, scoring is rule-based");
+                return;
+            }
+            MLModel model = modelRepository.findById(activeId).orElse(null);
+            if (model != null && load(model)) {
+                observedModelId = activeId;
+            }
+        } catch (Exception e) {
+            log.warn("Failed to refresh active ML model, keeping current one: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Makes {@code modelId} the only active model and swaps it in once the
+     * transaction commits. Other instances pick the change up on their next refresh.
+     */
+    @Transactional
+    public ActiveModel activate(Long modelId) {
+        MLModel model = modelRepository.findById(modelId)
+                .orElseThrow(() -> new ResourceNotFoundException("Model not found"));
+        ActiveModel compiled;
+        try {
+            compiled = compile(model);
+        } catch (Exception e) {
+            throw new BadRequestException("Model " + modelId + " cannot be loaded: " + e.getMessage());
+        }
+        modelRepository.deactivateAllExcept(modelId);
+        model.setIsActive(true);
+        modelRepository.save(model);
+
+        String label = model.getName() + " " + model.getVersion();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    swapIn(compiled, label);
+                }
+            });
+        } else {
+            swapIn(compiled, label);
+        }
+        return compiled;
+    }
+
+    private synchronized void swapIn(ActiveModel compiled, String label) {
+        observedModelId = compiled.modelId();
+        active.set(compiled);
+        log.info("Activated ML model {} ({})", compiled.modelId(), label);
+    }
+
+    private boolean load(MLModel model) {
+        try {
+            active.set(compile(model));
+            log.info("Loaded ML model {} ({} {})", model.getModelId(), model.getName(), model.getVersion());
+            return true;
+        } catch (Exception e) {
+            active.set(null);
+            log.error("Active ML model {} could not be loaded, scoring is rule-based: {}",
+                    model.getModelId(), e.getMessage());
+            return false;
+        }
+    }
+
+    private ActiveModel compile(MLModel model) throws IOException {
+        ModelSpec spec = readSpec(model.getMetrics());
+        InferenceModel inferenceModel;
+        if (spec.trees() != null && !spec.trees().isEmpty()) {
+            inferenceModel = TreeEnsembleInferenceModel.of(spec.trees(),
+                    spec.baseScore() != null ? spec.baseScore() : 0.0,
+                    !"probability".equalsIgnoreCase(spec.output()));
+        } else if (spec.coefficients() != null && !spec.coefficients().isEmpty()) {
+            inferenceModel = LogisticInferenceModel.of(spec.coefficients(),
+                    spec.intercept() != null ? spec.intercept() : 0.0);
+        } else {
+            throw new IllegalArgumentException("Model parameters need either 'trees' or 'coefficients'");
+        }
+        return new ActiveModel(model.getModelId(), model.getName(), model.getVersion(), inferenceModel);
+    }
+
+    private ModelSpec readSpec(Map<String, Object> metrics) throws IOException {
+        if (metrics == null) {
+            throw new IllegalArgumentException("Model has no parameters");
+        }
+        ModelSpec spec = objectMapper.convertValue(metrics, ModelSpec.class);
+        if (spec.modelPath() != null) {
+            return objectMapper.readValue(Files.readAllBytes(Path.of(spec.modelPath())), ModelSpec.class);
+        }
+        return spec;
+    }
+
+    public record ActiveModel(Long modelId, String name, String version, InferenceModel model) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private record ModelSpec(
+            Map<String, Double> coefficients,
+            Double intercept,
+            List<TreeEnsembleInferenceModel.Tree> trees,
+            @JsonProperty("base_score") Double baseScore,
+            String output,
+            @JsonProperty("model_path") String modelPath) {
+    }
+}
@@ -0,0 +1,179 @@
+package com.sih.module.scoring.service;
+
+import com.sih.module.scoring.entity.RegionalParameter;
+import com.sih.module.scoring.repository.RegionalParameterRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * In-memory regional cost-adjustment lookup. The whole {@code regional_parameters}
+ * table is loaded into an immutable snapshot at startup and on every refresh,
+ * so scoring never queries it. Most specific match wins: pincode, then
+ * state + district, then state + region type, then state; otherwise 1.0.
+ * Factors are kept at scale 4, the same scale {@link ScoringKernel} uses.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RegionalParameterService {
+
+    public static final long DEFAULT_FACTOR_SCALE4 = 10_000L;
+
+    private final RegionalParameterRepository regionalParameterRepository;
+
+    private volatile Lookup lookup = Lookup.EMPTY;
+
+    @PostConstruct
+    public void init() {
+        refreshQuietly();
+    }
+
+    @Scheduled(fixedDelayString = "${app.scoring.regional.refresh-interval:600000}",
+            initialDelayString = "${app.scoring.regional.refresh-interval:600000}")
+    public void refreshQuietly() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("Failed to refresh regional parameters, keeping current table: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reloads the snapshot. A failure leaves the current table in place and
+     * propagates, so an admin-triggered reload does not report success.
+     */
+    public void refresh() {
+        List<RegionalParameter> rows = regionalParameterRepository.findAll();
+        lookup = Lookup.build(rows);
+        log.info("Loaded {} regional parameters", rows.size());
+    }
+
+    public long factorScale4(String state, String district, String pincode, String regionType) {
+        return lookup.find(state, district, pincode, regionType);
+    }
+
+    public BigDecimal factor(String state, String district, String pincode, String regionType) {
+        return BigDecimal.valueOf(factorScale4(state, district, pincode, regionType), 4);
+    }
+
+    public int size() {
+        return lookup.size;
+    }
+
+    /**
+     * Immutable snapshot. Pincodes are numeric, so they live in sorted primitive
+     * arrays; the coarser string-keyed levels are small unmodifiable maps.
+     */
+    private static final class Lookup {
+
+        static final Lookup EMPTY = new Lookup(new int[0], new long[0], Map.of(), Map.of(), Map.of(), 0);
+
+        private final int[] pincodes;
+        private final long[] pincodeFactors;
+        private final Map<String, Long> byDistrict;
+        private final Map<String, Long> byStateAndType;
+        private final Map<String, Long> byState;
+        private final int size;
+
+        private Lookup(int[] pincodes, long[] pincodeFactors, Map<String, Long> byDistrict,
+                Map<String, Long> byStateAndType, Map<String, Long> byState, int size) {
+            this.pincodes = pincodes;
+            this.pincodeFactors = pincodeFactors;
+            this.byDistrict = byDistrict;
+            this.byStateAndType = byStateAndType;
+            this.byState = byState;
+            this.size = size;
+        }
+
+        static Lookup build(List<RegionalParameter> rows) {
+            TreeMap<Integer, Long> pincodeMap = new TreeMap<>();
+            Map<String, Long> byDistrict = new HashMap<>();
+            Map<String, Long> byStateAndType = new HashMap<>();
+            Map<String, Long> byState = new HashMap<>();
+
+            // later updates win when two rows cover the same key
+            rows.stream()
+                    .filter(row -> row.getCostAdjustmentFactor() != null)
+                    .sorted(Comparator.comparing(RegionalParameter::getLastUpdated,
+                            Comparator.nullsFirst(Comparator.naturalOrder()))
+                            .thenComparing(RegionalParameter::getRegionId))
+                    .forEach(row -> {
+                        long factor = row.getCostAdjustmentFactor().setScale(4, RoundingMode.HALF_UP)
+                                .unscaledValue().longValueExact();
+                        int pincode = parsePincode(row.getPincode());
+                        String state = normalize(row.getState());
+                        String district = normalize(row.getDistrict());
+                        String regionType = normalize(row.getRegionType());
+                        if (pincode > 0) {
+                            pincodeMap.put(pincode, factor);
+                        } else if (state != null && district != null) {
+                            byDistrict.put(state + '|' + district, factor);
+                        } else if (state != null && regionType != null) {
+                            byStateAndType.put(state + '|' + regionType, factor);
+                        } else if (state != null) {
+                            byState.put(state, factor);
+                        }
+                    });
+
+            int[] pincodes = pincodeMap.keySet().stream().mapToInt(Integer::intValue).toArray();
+            long[] pincodeFactors = pincodeMap.values().stream().mapToLong(Long::longValue).toArray();
+            return new Lookup(pincodes, pincodeFactors, Map.copyOf(byDistrict), Map.copyOf(byStateAndType),
+                    Map.copyOf(byState), rows.size());
+        }
+
+        long find(String state, String district, String pincode, String regionType) {
+            int pin = parsePincode(pincode);
+            if (pin > 0) {
+                int index = Arrays.binarySearch(pincodes, pin);
+                if (index >= 0) {
+                    return pincodeFactors[index];
+                }
+            }
+            String stateKey = normalize(state);
+            if (stateKey == null) {
+                return DEFAULT_FACTOR_SCALE4;
+            }
+            String districtKey = normalize(district);
+            Long factor = districtKey != null ? byDistrict.get(stateKey + '|' + districtKey) : null;
+            if (factor == null) {
+                String typeKey = normalize(regionType);
+                factor = typeKey != null ? byStateAndType.get(stateKey + '|' + typeKey) : null;
+            }
+            if (factor == null) {
+                factor = byState.get(stateKey);
+            }
+            return factor != null ? factor : DEFAULT_FACTOR_SCALE4;
+        }
+
+        private static String normalize(String value) {
+            if (value == null || value.isBlank()) {
+                return null;
+            }
+            return value.trim().toUpperCase(Locale.ROOT);
+        }
+
+        private static int parsePincode(String pincode) {
+            if (pincode == null) {
+                return -1;
+            }
+            String trimmed = pincode.trim();
+            if (trimmed.isEmpty() || trimmed.length() > 9 || !trimmed.chars().allMatch(Character::isDigit)) {
+                return -1;
+            }
+            return Integer.parseInt(trimmed);
+        }
+    }
+}
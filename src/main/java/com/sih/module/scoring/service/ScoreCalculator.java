@@ -0,0 +1,91 @@
+package com.sih.module.scoring.service;
+
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Credit scoring shared by single assessments and batch rescoring. The
+ * rule-based arithmetic runs in {@link ScoringKernel}; this class only converts
+ * between {@code BigDecimal} and scaled longs at the persistence boundary.
+ */
+@Component
+public class ScoreCalculator {
+
+    public ScoreBreakdown score(BigDecimal verifiedIncome, BigDecimal regionalFactor, boolean profileVerified,
+            Integer literacyScore) {
+        BigDecimal rawIncome = verifiedIncome != null ? verifiedIncome : BigDecimal.ZERO;
+        BigDecimal factor = regionalFactor != null ? regionalFactor : BigDecimal.ONE;
+
+        long incomePaise = toScaledLong(rawIncome, 2);
+        long factorScale4 = toScaledLong(factor, 4);
+        int rawIncomeScore = ScoringKernel.incomeScore(incomePaise);
+        int adjustedIncomeScore = ScoringKernel.adjustedIncomeScore(incomePaise, factorScale4);
+        int creditRiskScore = ScoringKernel.creditRiskScore(profileVerified,
+                literacyScore != null ? literacyScore : 0);
+        int compositeScore = ScoringKernel.compositeScore(rawIncomeScore, adjustedIncomeScore, creditRiskScore);
+
+        BigDecimal ruleBasedScore = toScore(compositeScore);
+        return new ScoreBreakdown(rawIncome, rawIncome.multiply(factor), factor,
+                toScore(rawIncomeScore), toScore(adjustedIncomeScore), toScore(creditRiskScore),
+                ruleBasedScore, null, ruleBasedScore, ScoringKernel.riskBand(compositeScore),
+                ScoringKernel.eligibility(compositeScore));
+    }
+
+    /**
+     * Replaces the composite score with the model's probability (scaled to 0-100),
+     * keeping the rule-based components for explainability.
+     */
+    public ScoreBreakdown withModelProbability(ScoreBreakdown ruleBased, double probability) {
+        if (Double.isNaN(probability)) {
+            return ruleBased;
+        }
+        int modelScore = (int) Math.round(Math.min(1.0, Math.max(0.0, probability)) * ScoringKernel.MAX_SCORE);
+        return new ScoreBreakdown(ruleBased.rawIncome(), ruleBased.adjustedIncome(), ruleBased.regionalFactor(),
+                ruleBased.rawIncomeScore(), ruleBased.adjustedIncomeScore(), ruleBased.creditRiskScore(),
+                ruleBased.ruleBasedScore(), toScore(modelScore), toScore(modelScore),
+                ScoringKernel.riskBand(modelScore), ScoringKernel.eligibility(modelScore));
+    }
+
+    public Map<String, Object> explainabilityData(ScoreBreakdown breakdown, Integer literacyScore) {
+        Map<String, Object> explainabilityData = new HashMap<>();
+        explainabilityData.put("rawIncome", breakdown.rawIncome());
+        explainabilityData.put("adjustedIncome", breakdown.adjustedIncome());
+        explainabilityData.put("regionalFactor", breakdown.regionalFactor());
+        explainabilityData.put("literacyScore", literacyScore);
+        explainabilityData.put("scoringMethod", breakdown.scoringMethod());
+        if (breakdown.modelScore() != null) {
+            explainabilityData.put("ruleBasedScore", breakdown.ruleBasedScore());
+            explainabilityData.put("modelScore", breakdown.modelScore());
+        }
+        return explainabilityData;
+    }
+
+    public String explainabilitySummary(ScoreBreakdown breakdown) {
+        return String.format(
+                "Score based on income: %.2f, regional adjustment: %.2f, credit risk: %.2f (Method: %s)",
+                breakdown.rawIncomeScore(), breakdown.adjustedIncomeScore(), breakdown.creditRiskScore(),
+                breakdown.scoringMethod());
+    }
+
+    private static long toScaledLong(BigDecimal value, int scale) {
+        return value.setScale(scale, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal toScore(int hundredths) {
+        return BigDecimal.valueOf(hundredths, 2);
+    }
+
+    public record ScoreBreakdown(BigDecimal rawIncome, BigDecimal adjustedIncome, BigDecimal regionalFactor,
+            BigDecimal rawIncomeScore, BigDecimal adjustedIncomeScore, BigDecimal creditRiskScore,
+            BigDecimal ruleBasedScore, BigDecimal modelScore, BigDecimal compositeScore, String riskBand,
+            String eligibilityStatus) {
+
+        public String scoringMethod() {
+            return modelScore != null ? "ML" : "RULE_BASED";
+        }
+    }
+}
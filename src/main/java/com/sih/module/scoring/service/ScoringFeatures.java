@@ -0,0 +1,112 @@
+package com.sih.module.scoring.service;
+
+import com.sih.module.scoring.entity.BeneficiaryFeatures;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Fixed feature schema shared by every inference model. Models name the
+ * features they use; the names are resolved to these indices once at load
+ * time, so evaluation only touches primitive arrays.
+ */
+public final class ScoringFeatures {
+
+    public static final int ANNUAL_INCOME = 0;
+    public static final int PROFILE_VERIFIED = 1;
+    public static final int LITERACY_SCORE = 2;
+    public static final int REGIONAL_FACTOR = 3;
+    public static final int BILL_TOTAL_3M = 4;
+    public static final int BILL_TOTAL_6M = 5;
+    public static final int BILL_TOTAL_12M = 6;
+    public static final int VERIFIED_RATIO_12M = 7;
+    public static final int AVG_DELAY_DAYS = 8;
+    public static final int MAX_DELAY_DAYS = 9;
+    public static final int GROUP_SIZE = 10;
+
+    public static final List<String> NAMES = List.of(
+            "annual_income",
+            "profile_verified",
+            "literacy_score",
+            "regional_factor",
+            "bill_total_3m",
+            "bill_total_6m",
+            "bill_total_12m",
+            "verified_ratio_12m",
+            "avg_delay_days",
+            "max_delay_days",
+            "group_size");
+
+    public static final int COUNT = NAMES.size();
+
+    private ScoringFeatures() {
+    }
+
+    public static int indexOf(String name) {
+        int index = NAMES.indexOf(name);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown model feature '" + name + "', expected one of " + NAMES);
+        }
+        return index;
+    }
+
+    public static double[] vector(double annualIncome, boolean profileVerified, int literacyScore,
+            double regionalFactor, Behaviour behaviour) {
+        double[][] columns = columns(1);
+        setRow(columns, 0, annualIncome, profileVerified, literacyScore, regionalFactor, behaviour);
+        double[] features = new double[COUNT];
+        for (int f = 0; f < COUNT; f++) {
+            features[f] = columns[f][0];
+        }
+        return features;
+    }
+
+    /**
+     * Column-major feature matrix for batch scoring: {@code columns[feature][row]}.
+     */
+    public static double[][] columns(int rows) {
+        double[][] columns = new double[COUNT][];
+        Arrays.setAll(columns, i -> new double[rows]);
+        return columns;
+    }
+
+    public static void setRow(double[][] columns, int row, double annualIncome, boolean profileVerified,
+            int literacyScore, double regionalFactor, Behaviour behaviour) {
+        columns[ANNUAL_INCOME][row] = annualIncome;
+        columns[PROFILE_VERIFIED][row] = profileVerified ? 1.0 : 0.0;
+        columns[LITERACY_SCORE][row] = literacyScore;
+        columns[REGIONAL_FACTOR][row] = regionalFactor;
+        columns[BILL_TOTAL_3M][row] = behaviour.billTotal3m();
+        columns[BILL_TOTAL_6M][row] = behaviour.billTotal6m();
+        columns[BILL_TOTAL_12M][row] = behaviour.billTotal12m();
+        columns[VERIFIED_RATIO_12M][row] = behaviour.verifiedRatio12m();
+        columns[AVG_DELAY_DAYS][row] = behaviour.avgDelayDays();
+        columns[MAX_DELAY_DAYS][row] = behaviour.maxDelayDays();
+        columns[GROUP_SIZE][row] = behaviour.groupSize();
+    }
+
+    /**
+     * Consumption, repayment and group features from the feature store row.
+     */
+    public record Behaviour(double billTotal3m, double billTotal6m, double billTotal12m, double verifiedRatio12m,
+            double avgDelayDays, int maxDelayDays, int groupSize) {
+
+        public static final Behaviour EMPTY = new Behaviour(0, 0, 0, 0, 0, 0, 0);
+
+        public static Behaviour of(BeneficiaryFeatures features) {
+            if (features == null) {
+                return EMPTY;
+            }
+            return new Behaviour(toDouble(features.getBillTotal3m()), toDouble(features.getBillTotal6m()),
+                    toDouble(features.getBillTotal12m()), toDouble(features.getVerifiedRatio12m()),
+                    toDouble(features.getAvgDelayDays()),
+                    features.getMaxDelayDays() != null ? features.getMaxDelayDays() : 0,
+                    features.getGroupSize() != null ? features.getGroupSize() : 0);
+        }
+
+        private static double toDouble(BigDecimal value) {
+            return value != null ? value.doubleValue() : 0.0;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.sih.module.scoring.service;
+
+/**
+ * Allocation-free scoring arithmetic on scaled longs.
+ * Amounts are in paise (scale 2), the regional factor in basis points of a
+ * ten-thousandth (scale 4, matching {@code cost_adjustment_factor DECIMAL(5,4)})
+ * and every score in hundredths (scale 2). Rounding is HALF_UP at each step,
+ * so results are identical to the original {@code BigDecimal} implementation.
+ */
+public final class ScoringKernel {
+
+    public static final int MAX_SCORE = 10_000;
+
+    public static final String RISK_LOW = "LOW";
+    public static final String RISK_MEDIUM = "MEDIUM";
+    public static final String RISK_HIGH = "HIGH";
+    public static final String ELIGIBLE = "ELIGIBLE";
+    public static final String NOT_ELIGIBLE = "NOT_ELIGIBLE";
+
+    // score = income / 5000 (rupees), i.e. paise / 5000 in hundredths
+    private static final long INCOME_DIVISOR = 5_000L;
+    // beyond this many paise every factor >= 0.0001 already caps the adjusted score
+    private static final long ADJUSTED_CAP_PAISE = 1_000_000_000_000L;
+
+    private ScoringKernel() {
+    }
+
+    /**
+     * Income score in hundredths: income / 5000, capped at 100.
+     */
+    public static int incomeScore(long incomePaise) {
+        if (incomePaise == 0) {
+            return 0;
+        }
+        return (int) Math.min(divideHalfUp(incomePaise, INCOME_DIVISOR), MAX_SCORE);
+    }
+
+    /**
+     * Income score of {@code income * factor}, computed without materializing the product.
+     */
+    public static int adjustedIncomeScore(long incomePaise, long factorScale4) {
+        if (incomePaise == 0 || factorScale4 == 0) {
+            return 0;
+        }
+        if (incomePaise >= ADJUSTED_CAP_PAISE && factorScale4 > 0) {
+            return MAX_SCORE;
+        }
+        // product has scale 6; dividing by 5000 at scale 2 means dividing by 5000 * 10^4
+        return (int) Math.min(divideHalfUp(incomePaise * factorScale4, INCOME_DIVISOR * 10_000L), MAX_SCORE);
+    }
+
+    /**
+     * Base 50, +20 for a verified profile, +10 for literacy above 50, capped at 100.
+     */
+    public static int creditRiskScore(boolean profileVerified, int literacyScore) {
+        int score = 5_000;
+        if (profileVerified) {
+            score += 2_000;
+        }
+        if (literacyScore > 50) {
+            score += 1_000;
+        }
+        return Math.min(score, MAX_SCORE);
+    }
+
+    /**
+     * 0.4 * raw + 0.3 * adjusted + 0.3 * risk, in hundredths.
+     */
+    public static int compositeScore(int rawIncomeScore, int adjustedIncomeScore, int creditRiskScore) {
+        // weights of one decimal place give an exact sum in thousandths
+        long thousandths = 4L * rawIncomeScore + 3L * adjustedIncomeScore + 3L * creditRiskScore;
+        return (int) divideHalfUp(thousandths, 10L);
+    }
+
+    public static String riskBand(int compositeScore) {
+        if (compositeScore >= 7_000)
+            return RISK_LOW;
+        if (compositeScore >= 4_000)
+            return RISK_MEDIUM;
+        return RISK_HIGH;
+    }
+
+    public static String eligibility(int compositeScore) {
+        return compositeScore >= 5_000 ? ELIGIBLE : NOT_ELIGIBLE;
+    }
+
+    private static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) * 2 >= divisor) {
+            quotient += Long.signum(dividend);
+        }
+        return quotient;
+    }
+}
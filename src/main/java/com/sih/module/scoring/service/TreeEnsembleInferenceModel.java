@@ -0,0 +1,119 @@
+package com.sih.module.scoring.service;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Additive tree ensemble (gradient boosting or averaged forest). All trees are
+ * flattened into shared node arrays; a node with feature {@code -1} is a leaf.
+ * Internal nodes go left when {@code x[feature] <= threshold}.
+ */
+public final class TreeEnsembleInferenceModel implements InferenceModel {
+
+    private final int[] roots;
+    private final int[] feature;
+    private final double[] threshold;
+    private final int[] left;
+    private final int[] right;
+    private final double[] value;
+    private final double baseScore;
+    private final boolean logitOutput;
+
+    private TreeEnsembleInferenceModel(int[] roots, int[] feature, double[] threshold, int[] left, int[] right,
+            double[] value, double baseScore, boolean logitOutput) {
+        this.roots = roots;
+        this.feature = feature;
+        this.threshold = threshold;
+        this.left = left;
+        this.right = right;
+        this.value = value;
+        this.baseScore = baseScore;
+        this.logitOutput = logitOutput;
+    }
+
+    /**
+     * @param logitOutput {@code true} when the summed leaves are a logit (boosting),
+     *                    {@code false} when they already are a probability
+     */
+    public static TreeEnsembleInferenceModel of(List<Tree> trees, double baseScore, boolean logitOutput) {
+        int total = trees.stream().mapToInt(tree -> tree.threshold().length).sum();
+        int[] roots = new int[trees.size()];
+        int[] feature = new int[total];
+        double[] threshold = new double[total];
+        int[] left = new int[total];
+        int[] right = new int[total];
+        double[] value = new double[total];
+
+        int offset = 0;
+        for (int t = 0; t < trees.size(); t++) {
+            Tree tree = trees.get(t);
+            int size = tree.threshold().length;
+            if (size == 0 || tree.feature().size() != size || tree.left().length != size
+                    || tree.right().length != size || tree.value().length != size) {
+                throw new IllegalArgumentException("Tree " + t + " has inconsistent node arrays");
+            }
+            roots[t] = offset;
+            for (int n = 0; n < size; n++) {
+                String name = tree.feature().get(n);
+                int node = offset + n;
+                threshold[node] = tree.threshold()[n];
+                value[node] = tree.value()[n];
+                if (name == null) {
+                    feature[node] = -1;
+                    continue;
+                }
+                // children after their parent rules out cycles
+                if (tree.left()[n] <= n || tree.left()[n] >= size || tree.right()[n] <= n || tree.right()[n] >= size) {
+                    throw new IllegalArgumentException("Tree " + t + " node " + n + " has invalid children");
+                }
+                feature[node] = ScoringFeatures.indexOf(name);
+                left[node] = offset + tree.left()[n];
+                right[node] = offset + tree.right()[n];
+            }
+            offset += size;
+        }
+        return new TreeEnsembleInferenceModel(roots, feature, threshold, left, right, value, baseScore, logitOutput);
+    }
+
+    @Override
+    public double predict(double[] features) {
+        double sum = baseScore;
+        for (int root : roots) {
+            int node = root;
+            while (feature[node] >= 0) {
+                node = features[feature[node]] <= threshold[node] ? left[node] : right[node];
+            }
+            sum += value[node];
+        }
+        return link(sum);
+    }
+
+    @Override
+    public void predictBatch(double[][] columns, int rows, double[] out) {
+        // tree-major so each tree's nodes stay in cache across the whole batch
+        Arrays.fill(out, 0, rows, baseScore);
+        for (int root : roots) {
+            for (int r = 0; r < rows; r++) {
+                int node = root;
+                while (feature[node] >= 0) {
+                    node = columns[feature[node]][r] <= threshold[node] ? left[node] : right[node];
+                }
+                out[r] += value[node];
+            }
+        }
+        for (int r = 0; r < rows; r++) {
+            out[r] = link(out[r]);
+        }
+    }
+
+    private double link(double sum) {
+        return logitOutput ? InferenceModel.sigmoid(sum) : Math.min(1.0, Math.max(0.0, sum));
+    }
+
+    /**
+     * One tree as parallel node arrays (scikit-learn / XGBoost dump layout);
+     * {@code feature} is {@code null} for leaves.
+     */
+    public record Tree(List<String> feature, double[] threshold, int[] left, int[] right, double[] value) {
+    }
+}
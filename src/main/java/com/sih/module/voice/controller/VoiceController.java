@@ -2,12 +2,16 @@ package com.sih.module.voice.controller;
 
 import com.sih.common.dto.ApiResponse;
 import com.sih.module.voice.entity.VoiceInteraction;
+import com.sih.module.voice.repository.VoiceInteractionAudioJdbcRepository;
 import com.sih.module.voice.service.VoiceService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -24,7 +28,7 @@ public class VoiceController {
             @RequestParam("audio") MultipartFile audioFile) {
         try {
             VoiceInteraction interaction = voiceService.processVoiceCommand(
-                    userId, audioFile.getBytes(), audioFile.getOriginalFilename());
+                    userId, audioFile.getBytes(), audioFile.getOriginalFilename(), audioFile.getContentType());
             return ResponseEntity.ok(ApiResponse.success("Voice command processed", interaction));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -39,6 +43,24 @@ public class VoiceController {
         return ResponseEntity.ok(ApiResponse.success(history));
     }
     
+    @GetMapping("/history/{id}/audio")
+    public ResponseEntity<StreamingResponseBody> downloadAudio(
+            @AuthenticationPrincipal Long userId,
+            @PathVariable Long id) {
+        VoiceInteractionAudioJdbcRepository.AudioMetadata audio = voiceService.getAudioMetadata(userId, id);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(audio.mimeType() != null
+                ? MediaType.parseMediaType(audio.mimeType())
+                : MediaType.APPLICATION_OCTET_STREAM);
+        headers.setContentLength(audio.size());
+        headers.setContentDispositionFormData("attachment", "voice_" + id);
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(voiceService.streamAudio(id));
+    }
+
     @GetMapping("/supported-languages")
     public ResponseEntity<ApiResponse<List<String>>> getSupportedLanguages() {
         List<String> languages = voiceService.getSupportedLanguages();
@@ -50,9 +50,6 @@ public class VoiceInteraction {
     @Builder.Default
     private String storageType = "S3";
     
-    @Column(name = "audio_blob", columnDefinition = "BYTEA")
-    private byte[] audioBlob;
-    
     @Column(name = "created_at", nullable = false, updatable = false)
     @Builder.Default
     private OffsetDateTime createdAt = OffsetDateTime.now();
@@ -0,0 +1,39 @@
+package com.sih.module.voice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Recorded audio for a {@link VoiceInteraction}, kept apart so history queries
+ * only read metadata.
+ */
+@Entity
+@Table(name = "voice_interaction_audio")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VoiceInteractionAudio {
+
+    @Id
+    @Column(name = "interaction_id")
+    private Long interactionId;
+
+    @Column(name = "audio_blob", columnDefinition = "BYTEA", nullable = false)
+    private byte[] audioBlob;
+
+    @Column(name = "mime_type", length = 100)
+    private String mimeType;
+
+    @Column(name = "file_size")
+    private Long fileSize;
+
+    @Column(name = "created_at", updatable = false)
+    @Builder.Default
+    private OffsetDateTime createdAt = OffsetDateTime.now();
+}
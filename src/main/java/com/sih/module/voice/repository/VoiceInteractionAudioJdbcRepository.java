@@ -0,0 +1,54 @@
+package com.sih.module.voice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Chunked reads of recorded audio, so a download never holds the whole
+ * clip in memory (bytea values are not streamed by the JDBC driver).
+ */
+@Repository
+@RequiredArgsConstructor
+public class VoiceInteractionAudioJdbcRepository {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private static final String SELECT_METADATA = """
+            SELECT mime_type, octet_length(audio_blob) AS size
+            FROM voice_interaction_audio
+            WHERE interaction_id = ?
+            """;
+
+    private static final String SELECT_CHUNK =
+            "SELECT substring(audio_blob FROM ? FOR ?) FROM voice_interaction_audio WHERE interaction_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<AudioMetadata> findMetadata(long interactionId) {
+        return jdbcTemplate.query(SELECT_METADATA, (rs, rowNum) ->
+                new AudioMetadata(rs.getString("mime_type"), rs.getLong("size")), interactionId);
+    }
+
+    public void copyTo(long interactionId, OutputStream out) throws IOException {
+        // substring() offsets are 1-based
+        for (long offset = 1; ; offset += CHUNK_SIZE) {
+            List<byte[]> chunk = jdbcTemplate.query(SELECT_CHUNK, (rs, rowNum) -> rs.getBytes(1),
+                    offset, CHUNK_SIZE, interactionId);
+            if (chunk.isEmpty() || chunk.get(0) == null || chunk.get(0).length == 0) {
+                return;
+            }
+            out.write(chunk.get(0));
+            if (chunk.get(0).length < CHUNK_SIZE) {
+                return;
+            }
+        }
+    }
+
+    public record AudioMetadata(String mimeType, long size) {
+    }
+}
@@ -0,0 +1,9 @@
+package com.sih.module.voice.repository;
+
+import com.sih.module.voice.entity.VoiceInteractionAudio;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface VoiceInteractionAudioRepository extends JpaRepository<VoiceInteractionAudio, Long> {
+}
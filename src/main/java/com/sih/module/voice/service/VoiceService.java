@@ -2,14 +2,19 @@ package com.sih.module.voice.service;
 
 import com.sih.common.config.FailSafeConfig;
 import com.sih.common.exception.BadRequestException;
+import com.sih.common.exception.ResourceNotFoundException;
 import com.sih.module.auth.entity.User;
 import com.sih.module.auth.repository.UserRepository;
 import com.sih.module.voice.entity.VoiceInteraction;
+import com.sih.module.voice.entity.VoiceInteractionAudio;
+import com.sih.module.voice.repository.VoiceInteractionAudioJdbcRepository;
+import com.sih.module.voice.repository.VoiceInteractionAudioRepository;
 import com.sih.module.voice.repository.VoiceInteractionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
 import java.util.List;
@@ -21,11 +26,13 @@ import java.util.Map;
 public class VoiceService {
     
     private final VoiceInteractionRepository interactionRepository;
+    private final VoiceInteractionAudioRepository audioRepository;
+    private final VoiceInteractionAudioJdbcRepository audioJdbcRepository;
     private final UserRepository userRepository;
     private final FailSafeConfig failSafeConfig;
     
     @Transactional
-    public VoiceInteraction processVoiceCommand(Long userId, byte[] audioData, String fileName) {
+    public VoiceInteraction processVoiceCommand(Long userId, byte[] audioData, String fileName, String contentType) {
         // Fail-safe: Check if voice interaction is enabled
         if (!failSafeConfig.isVoiceInteractionEnabled()) {
             throw new BadRequestException("Voice interaction is currently disabled");
@@ -56,7 +63,6 @@ public class VoiceService {
         
         VoiceInteraction interaction = VoiceInteraction.builder()
                 .user(user)
-                .audioBlob(audioData)
                 .transcribedText(transcribedText)
                 .intentDetected(intent)
                 .actionTaken(actionTaken)
@@ -64,6 +70,12 @@ public class VoiceService {
                 .build();
         
         interaction = interactionRepository.save(interaction);
+        audioRepository.save(VoiceInteractionAudio.builder()
+                .interactionId(interaction.getInteractionId())
+                .audioBlob(audioData)
+                .mimeType(contentType)
+                .fileSize((long) audioData.length)
+                .build());
         log.info("Voice command processed for user: {} - Intent: {}", userId, intent);
         
         return interaction;
@@ -72,6 +84,30 @@ public class VoiceService {
     public List<VoiceInteraction> getHistory(Long userId) {
         return interactionRepository.findByUserUserId(userId);
     }
+
+    /**
+     * Metadata of the recorded audio for one interaction; the bytes are streamed
+     * separately by {@link #streamAudio}, so neither history nor downloads load
+     * the whole clip.
+     */
+    @Transactional(readOnly = true)
+    public VoiceInteractionAudioJdbcRepository.AudioMetadata getAudioMetadata(Long userId, Long interactionId) {
+        VoiceInteraction interaction = interactionRepository.findById(interactionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Voice interaction not found"));
+        if (!interaction.getUser().getUserId().equals(userId)) {
+            throw new ResourceNotFoundException("Voice interaction not found");
+        }
+        return audioJdbcRepository.findMetadata(interactionId).stream()
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Audio not found"));
+    }
+
+    /**
+     * Call only after {@link #getAudioMetadata} has checked ownership.
+     */
+    public StreamingResponseBody streamAudio(Long interactionId) {
+        return out -> audioJdbcRepository.copyTo(interactionId, out);
+    }
     
     public List<String> getSupportedLanguages() {
         return List.of("en", "hi", "ta", "te", "kn", "mr", "gu", "bn");
@@ -0,0 +1,20 @@
+-- Unique (user_id, document_hash) index for duplicate bill detection
+-- Migration for Consumption Module Dedup
+
+-- Existing duplicates (the dedup check was disabled) keep the oldest entry's hash;
+-- later copies get a suffixed hash so the unique index can be created without data loss
+UPDATE consumption_entries c
+SET document_hash = c.document_hash || ':dup:' || c.entry_id
+WHERE c.document_hash IS NOT NULL
+  AND EXISTS (
+      SELECT 1 FROM consumption_entries o
+      WHERE o.user_id = c.user_id
+        AND o.document_hash = c.document_hash
+        AND o.entry_id < c.entry_id
+  );
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_consumption_user_document_hash
+    ON consumption_entries(user_id, document_hash)
+    WHERE document_hash IS NOT NULL;
+
+COMMENT ON INDEX uk_consumption_user_document_hash IS 'One entry per document hash per user (duplicate detection)';
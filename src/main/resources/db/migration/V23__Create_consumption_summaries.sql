@@ -0,0 +1,32 @@
+-- ================================================================================
+-- CONSUMPTION SUMMARIES (per user, per data source rollup)
+-- ================================================================================
+
+CREATE TABLE IF NOT EXISTS consumption_summaries (
+    user_id BIGINT NOT NULL REFERENCES users(user_id) ON DELETE CASCADE,
+    data_source VARCHAR(50) NOT NULL,
+
+    entry_count BIGINT NOT NULL DEFAULT 0,
+    verified_count BIGINT NOT NULL DEFAULT 0,
+    pending_count BIGINT NOT NULL DEFAULT 0,
+    total_amount DECIMAL(15, 2) NOT NULL DEFAULT 0,
+
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+
+    PRIMARY KEY (user_id, data_source)
+);
+
+-- Backfill from existing entries
+INSERT INTO consumption_summaries (user_id, data_source, entry_count, verified_count, pending_count, total_amount)
+SELECT user_id,
+       data_source,
+       COUNT(*),
+       COUNT(*) FILTER (WHERE verification_status = 'VERIFIED'),
+       COUNT(*) FILTER (WHERE verification_status = 'PENDING'),
+       COALESCE(SUM(billing_amount), 0)
+FROM consumption_entries
+WHERE user_id IS NOT NULL
+GROUP BY user_id, data_source
+ON CONFLICT (user_id, data_source) DO NOTHING;
+
+COMMENT ON TABLE consumption_summaries IS 'Incrementally maintained consumption totals backing /consumption/summary';
@@ -0,0 +1,38 @@
+-- ================================================================================
+-- FILE BLOBS IN SIDE TABLES
+-- Binary payloads move out of consumption_entries / voice_interactions so that
+-- list queries on those tables only read metadata.
+-- ================================================================================
+
+CREATE TABLE IF NOT EXISTS consumption_entry_files (
+    entry_id BIGINT PRIMARY KEY REFERENCES consumption_entries(entry_id) ON DELETE CASCADE,
+    file_blob BYTEA NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO consumption_entry_files (entry_id, file_blob)
+SELECT entry_id, file_blob
+FROM consumption_entries
+WHERE file_blob IS NOT NULL
+ON CONFLICT (entry_id) DO NOTHING;
+
+ALTER TABLE consumption_entries DROP COLUMN IF EXISTS file_blob;
+
+CREATE TABLE IF NOT EXISTS voice_interaction_audio (
+    interaction_id BIGINT PRIMARY KEY REFERENCES voice_interactions(interaction_id) ON DELETE CASCADE,
+    audio_blob BYTEA NOT NULL,
+    mime_type VARCHAR(100),
+    file_size BIGINT,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO voice_interaction_audio (interaction_id, audio_blob, file_size)
+SELECT interaction_id, audio_blob, octet_length(audio_blob)
+FROM voice_interactions
+WHERE audio_blob IS NOT NULL
+ON CONFLICT (interaction_id) DO NOTHING;
+
+ALTER TABLE voice_interactions DROP COLUMN IF EXISTS audio_blob;
+
+COMMENT ON TABLE consumption_entry_files IS 'Bill file bytes for entries kept in the database instead of object storage; served by the download API';
+COMMENT ON TABLE voice_interaction_audio IS 'Recorded audio for voice interactions; served by the download API';
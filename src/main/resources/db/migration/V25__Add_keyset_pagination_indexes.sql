@@ -0,0 +1,11 @@
+-- Composite indexes backing the keyset (cursor) paginated list endpoints:
+-- filter column(s) first, then the primary key used as the seek key
+
+CREATE INDEX IF NOT EXISTS idx_consumption_user_entry ON consumption_entries(user_id, entry_id);
+CREATE INDEX IF NOT EXISTS idx_loans_user_loan ON loans(user_id, loan_id);
+CREATE INDEX IF NOT EXISTS idx_notify_user_id ON notifications(user_id, notification_id);
+CREATE INDEX IF NOT EXISTS idx_notify_user_read_id ON notifications(user_id, is_read, notification_id);
+CREATE INDEX IF NOT EXISTS idx_fraud_resolved_alert ON fraud_alerts(is_resolved, alert_id);
+CREATE INDEX IF NOT EXISTS idx_audit_action_by_log ON audit_logs(action_by, log_id);
+CREATE INDEX IF NOT EXISTS idx_audit_action_type_log ON audit_logs(action_type, log_id);
+CREATE INDEX IF NOT EXISTS idx_app_status_application ON loan_applications(status, application_id);
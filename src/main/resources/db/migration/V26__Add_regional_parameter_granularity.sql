@@ -0,0 +1,7 @@
+-- Optional district / pincode granularity for regional cost adjustment.
+-- Lookup precedence: pincode, then state + district, then state + region_type, then state.
+
+ALTER TABLE regional_parameters ADD COLUMN IF NOT EXISTS district VARCHAR(100);
+ALTER TABLE regional_parameters ADD COLUMN IF NOT EXISTS pincode VARCHAR(20);
+
+CREATE INDEX IF NOT EXISTS idx_regional_pincode ON regional_parameters(pincode);
@@ -0,0 +1,97 @@
+-- ================================================================================
+-- BENEFICIARY FEATURE STORE
+-- One narrow row per user read by scoring and fraud checks, kept current by
+-- entry, repayment and group membership events instead of per-request scans.
+-- ================================================================================
+
+-- Monthly consumption buckets: the rolling windows are re-summed from at most
+-- 12 rows per user, so entries can age out without rescanning consumption_entries
+CREATE TABLE IF NOT EXISTS beneficiary_consumption_months (
+    user_id BIGINT NOT NULL REFERENCES users(user_id) ON DELETE CASCADE,
+    month DATE NOT NULL, -- first day of the billing month
+
+    entry_count BIGINT NOT NULL DEFAULT 0,
+    verified_count BIGINT NOT NULL DEFAULT 0,
+    total_amount DECIMAL(15, 2) NOT NULL DEFAULT 0,
+
+    PRIMARY KEY (user_id, month)
+);
+
+CREATE TABLE IF NOT EXISTS beneficiary_features (
+    user_id BIGINT PRIMARY KEY REFERENCES users(user_id) ON DELETE CASCADE,
+
+    bill_total_3m DECIMAL(15, 2) NOT NULL DEFAULT 0,
+    bill_total_6m DECIMAL(15, 2) NOT NULL DEFAULT 0,
+    bill_total_12m DECIMAL(15, 2) NOT NULL DEFAULT 0,
+    bill_count_12m INT NOT NULL DEFAULT 0,
+    verified_ratio_12m DECIMAL(5, 4) NOT NULL DEFAULT 0,
+
+    repayment_count INT NOT NULL DEFAULT 0,
+    total_delay_days BIGINT NOT NULL DEFAULT 0,
+    max_delay_days INT NOT NULL DEFAULT 0,
+    avg_delay_days DECIMAL(10, 2) NOT NULL DEFAULT 0,
+
+    group_size INT NOT NULL DEFAULT 0,
+
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Backfill buckets from existing entries
+INSERT INTO beneficiary_consumption_months (user_id, month, entry_count, verified_count, total_amount)
+SELECT user_id,
+       date_trunc('month', billing_date)::date,
+       COUNT(*),
+       COUNT(*) FILTER (WHERE verification_status = 'VERIFIED'),
+       COALESCE(SUM(billing_amount), 0)
+FROM consumption_entries
+WHERE user_id IS NOT NULL AND billing_date IS NOT NULL
+GROUP BY user_id, date_trunc('month', billing_date)
+ON CONFLICT (user_id, month) DO NOTHING;
+
+-- Backfill feature rows for every user with a profile
+INSERT INTO beneficiary_features (user_id, bill_total_3m, bill_total_6m, bill_total_12m, bill_count_12m,
+                                  verified_ratio_12m, repayment_count, total_delay_days, max_delay_days,
+                                  avg_delay_days, group_size)
+SELECT p.user_id,
+       COALESCE(c.total_3m, 0), COALESCE(c.total_6m, 0), COALESCE(c.total_12m, 0), COALESCE(c.count_12m, 0),
+       CASE WHEN COALESCE(c.count_12m, 0) > 0 THEN ROUND(c.verified_12m::numeric / c.count_12m, 4) ELSE 0 END,
+       COALESCE(r.repayment_count, 0), COALESCE(r.total_delay, 0), COALESCE(r.max_delay, 0),
+       CASE WHEN COALESCE(r.repayment_count, 0) > 0 THEN ROUND(r.total_delay::numeric / r.repayment_count, 2) ELSE 0 END,
+       COALESCE(g.group_size, 0)
+FROM beneficiary_profiles p
+LEFT JOIN (
+    SELECT user_id,
+           SUM(total_amount) FILTER (WHERE month >= (date_trunc('month', CURRENT_DATE) - INTERVAL '2 months')) AS total_3m,
+           SUM(total_amount) FILTER (WHERE month >= (date_trunc('month', CURRENT_DATE) - INTERVAL '5 months')) AS total_6m,
+           SUM(total_amount) AS total_12m,
+           SUM(entry_count) AS count_12m,
+           SUM(verified_count) AS verified_12m
+    FROM beneficiary_consumption_months
+    WHERE month >= (date_trunc('month', CURRENT_DATE) - INTERVAL '11 months')
+    GROUP BY user_id
+) c ON c.user_id = p.user_id
+LEFT JOIN (
+    SELECT l.user_id, COUNT(*) AS repayment_count, SUM(COALESCE(r.delay_days, 0)) AS total_delay,
+           MAX(COALESCE(r.delay_days, 0)) AS max_delay
+    FROM repayments r
+    JOIN loans l ON l.loan_id = r.loan_id
+    WHERE r.paid_date IS NOT NULL
+    GROUP BY l.user_id
+) r ON r.user_id = p.user_id
+LEFT JOIN (
+    SELECT gm.user_id, MAX(sizes.member_count) AS group_size
+    FROM group_members gm
+    JOIN (
+        SELECT gm2.group_id, COUNT(*) AS member_count
+        FROM group_members gm2
+        JOIN borrower_groups bg ON bg.group_id = gm2.group_id AND bg.is_active = TRUE
+        WHERE gm2.status = 'APPROVED'
+        GROUP BY gm2.group_id
+    ) sizes ON sizes.group_id = gm.group_id
+    WHERE gm.status = 'APPROVED'
+    GROUP BY gm.user_id
+) g ON g.user_id = p.user_id
+WHERE p.user_id IS NOT NULL
+ON CONFLICT (user_id) DO NOTHING;
+
+COMMENT ON TABLE beneficiary_features IS 'Incrementally maintained per-user scoring/fraud features';
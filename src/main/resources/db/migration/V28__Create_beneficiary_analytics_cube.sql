@@ -0,0 +1,50 @@
+-- ================================================================================
+-- BENEFICIARY ANALYTICS CUBE
+-- One cell per (state, district, pincode, caste, gender, region type, verified)
+-- combination holding counts and sums. Profile writes apply deltas; heatmap,
+-- cluster and demographic endpoints aggregate cells instead of profiles.
+-- Missing dimension values are stored as '' so they can be part of the key.
+-- ================================================================================
+
+CREATE TABLE IF NOT EXISTS beneficiary_analytics_cube (
+    cell_id BIGSERIAL PRIMARY KEY,
+
+    state VARCHAR(100) NOT NULL DEFAULT '',
+    district VARCHAR(100) NOT NULL DEFAULT '',
+    pincode VARCHAR(20) NOT NULL DEFAULT '',
+    caste_category VARCHAR(50) NOT NULL DEFAULT '',
+    gender VARCHAR(20) NOT NULL DEFAULT '',
+    region_type VARCHAR(20) NOT NULL DEFAULT '',
+    is_verified BOOLEAN NOT NULL DEFAULT FALSE,
+
+    beneficiary_count BIGINT NOT NULL DEFAULT 0,
+    income_count BIGINT NOT NULL DEFAULT 0,     -- profiles with a verified income
+    income_sum DECIMAL(20, 2) NOT NULL DEFAULT 0,
+    geo_count BIGINT NOT NULL DEFAULT 0,        -- profiles with both coordinates
+    lat_sum DECIMAL(20, 8) NOT NULL DEFAULT 0,
+    long_sum DECIMAL(20, 8) NOT NULL DEFAULT 0,
+
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT uq_analytics_cube_cell
+        UNIQUE (state, district, pincode, caste_category, gender, region_type, is_verified)
+);
+
+CREATE INDEX IF NOT EXISTS idx_analytics_cube_verified_state ON beneficiary_analytics_cube(is_verified, state);
+
+-- Backfill from existing profiles
+INSERT INTO beneficiary_analytics_cube (state, district, pincode, caste_category, gender, region_type, is_verified,
+                                        beneficiary_count, income_count, income_sum, geo_count, lat_sum, long_sum)
+SELECT COALESCE(state, ''), COALESCE(district, ''), COALESCE(pincode, ''), COALESCE(caste_category, ''),
+       COALESCE(gender, ''), COALESCE(region_type, ''), COALESCE(is_profile_verified, FALSE),
+       COUNT(*),
+       COUNT(verified_annual_income),
+       COALESCE(SUM(verified_annual_income), 0),
+       COUNT(*) FILTER (WHERE geo_lat IS NOT NULL AND geo_long IS NOT NULL),
+       COALESCE(SUM(geo_lat) FILTER (WHERE geo_lat IS NOT NULL AND geo_long IS NOT NULL), 0),
+       COALESCE(SUM(geo_long) FILTER (WHERE geo_lat IS NOT NULL AND geo_long IS NOT NULL), 0)
+FROM beneficiary_profiles
+GROUP BY 1, 2, 3, 4, 5, 6, 7
+ON CONFLICT ON CONSTRAINT uq_analytics_cube_cell DO NOTHING;
+
+COMMENT ON TABLE beneficiary_analytics_cube IS 'Incrementally maintained beneficiary counts/sums backing /analytics';
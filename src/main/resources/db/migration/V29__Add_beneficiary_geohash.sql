@@ -0,0 +1,59 @@
+-- Geohash of (geo_lat, geo_long) at full precision, maintained by the application on profile writes.
+-- "C" collation keeps byte ordering so prefix ranges (geohash >= 'tt' AND geohash < 'tt~') use the index.
+
+ALTER TABLE beneficiary_profiles ADD COLUMN IF NOT EXISTS geohash VARCHAR(12) COLLATE "C";
+
+-- Same bisection as com.sih.common.util.GeoHash.encode; only needed for the backfill
+CREATE OR REPLACE FUNCTION tmp_geohash_encode(lat DOUBLE PRECISION, lon DOUBLE PRECISION, hash_length INT)
+RETURNS VARCHAR AS $$
+DECLARE
+    base32 CONSTANT TEXT := '0123456789bcdefghjkmnpqrstuvwxyz';
+    lat_lo DOUBLE PRECISION := -90;
+    lat_hi DOUBLE PRECISION := 90;
+    lon_lo DOUBLE PRECISION := -180;
+    lon_hi DOUBLE PRECISION := 180;
+    mid DOUBLE PRECISION;
+    even BOOLEAN := TRUE;
+    bits INT := 0;
+    ch INT := 0;
+    result TEXT := '';
+BEGIN
+    WHILE length(result) < hash_length LOOP
+        IF even THEN
+            mid := (lon_lo + lon_hi) / 2;
+            IF lon >= mid THEN
+                ch := ch * 2 + 1;
+                lon_lo := mid;
+            ELSE
+                ch := ch * 2;
+                lon_hi := mid;
+            END IF;
+        ELSE
+            mid := (lat_lo + lat_hi) / 2;
+            IF lat >= mid THEN
+                ch := ch * 2 + 1;
+                lat_lo := mid;
+            ELSE
+                ch := ch * 2;
+                lat_hi := mid;
+            END IF;
+        END IF;
+        even := NOT even;
+        bits := bits + 1;
+        IF bits = 5 THEN
+            result := result || substr(base32, ch + 1, 1);
+            bits := 0;
+            ch := 0;
+        END IF;
+    END LOOP;
+    RETURN result;
+END;
+$$ LANGUAGE plpgsql IMMUTABLE;
+
+UPDATE beneficiary_profiles
+SET geohash = tmp_geohash_encode(CAST(geo_lat AS DOUBLE PRECISION), CAST(geo_long AS DOUBLE PRECISION), 12)
+WHERE geo_lat IS NOT NULL AND geo_long IS NOT NULL;
+
+DROP FUNCTION tmp_geohash_encode(DOUBLE PRECISION, DOUBLE PRECISION, INT);
+
+CREATE INDEX IF NOT EXISTS idx_benef_geohash ON beneficiary_profiles(geohash) WHERE geohash IS NOT NULL;
@@ -0,0 +1,32 @@
+-- ================================================================================
+-- LOAN INSTALLMENTS
+-- Full amortization schedule, written once when a loan is created and rewritten
+-- from the first open installment on reschedule. Repayments are allocated to
+-- these rows, so schedule and outstanding reads need no EMI math.
+-- ================================================================================
+
+CREATE TABLE IF NOT EXISTS loan_installments (
+    installment_id BIGSERIAL PRIMARY KEY,
+    loan_id BIGINT NOT NULL REFERENCES loans(loan_id) ON DELETE CASCADE,
+    installment_no INT NOT NULL,
+    due_date DATE NOT NULL,
+
+    opening_balance DECIMAL(15, 2) NOT NULL,
+    emi_amount DECIMAL(15, 2) NOT NULL,
+    principal_component DECIMAL(15, 2) NOT NULL,
+    interest_component DECIMAL(15, 2) NOT NULL,
+    closing_balance DECIMAL(15, 2) NOT NULL,
+
+    principal_paid DECIMAL(15, 2) NOT NULL DEFAULT 0,
+    interest_paid DECIMAL(15, 2) NOT NULL DEFAULT 0,
+    paid_date DATE,
+    status VARCHAR(20) NOT NULL DEFAULT 'DUE', -- 'DUE', 'PARTIALLY_PAID', 'PAID', 'CANCELLED'
+
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT uq_loan_installment_no UNIQUE (loan_id, installment_no)
+);
+
+-- Open installments by due date: next payment and days-past-due lookups
+CREATE INDEX IF NOT EXISTS idx_installments_open_due ON loan_installments(due_date, loan_id)
+    WHERE status IN ('DUE', 'PARTIALLY_PAID');
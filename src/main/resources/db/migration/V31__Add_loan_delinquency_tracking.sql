@@ -0,0 +1,32 @@
+-- ================================================================================
+-- LOAN DELINQUENCY (DPD)
+-- Days past due and bucket per active loan, refreshed by the nightly DPD job.
+-- loan_dpd_runs checkpoints each run so a restart resumes after the last
+-- committed chunk instead of starting over.
+-- ================================================================================
+
+ALTER TABLE loans ADD COLUMN IF NOT EXISTS days_past_due INT NOT NULL DEFAULT 0;
+ALTER TABLE loans ADD COLUMN IF NOT EXISTS dpd_bucket VARCHAR(20) NOT NULL DEFAULT 'CURRENT'; -- 'CURRENT', 'SMA_0', 'SMA_1', 'SMA_2', 'NPA'
+ALTER TABLE loans ADD COLUMN IF NOT EXISTS dpd_as_of DATE;
+
+-- Keyset walk over active loans
+CREATE INDEX IF NOT EXISTS idx_loans_active_id ON loans(loan_id) WHERE loan_status = 'ACTIVE';
+CREATE INDEX IF NOT EXISTS idx_loans_dpd_bucket ON loans(dpd_bucket) WHERE loan_status = 'ACTIVE';
+
+CREATE TABLE IF NOT EXISTS loan_dpd_runs (
+    run_date DATE PRIMARY KEY,
+    status VARCHAR(20) NOT NULL DEFAULT 'RUNNING', -- 'RUNNING', 'COMPLETED'
+    last_loan_id BIGINT NOT NULL DEFAULT 0,
+
+    loans_processed BIGINT NOT NULL DEFAULT 0,
+    loans_overdue BIGINT NOT NULL DEFAULT 0,
+    loans_updated BIGINT NOT NULL DEFAULT 0,
+    reminders_sent BIGINT NOT NULL DEFAULT 0,
+
+    started_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    finished_at TIMESTAMP WITH TIME ZONE
+);
+
+INSERT INTO feature_flags(flag_name, flag_value, description) VALUES
+('dpd_job_enabled', TRUE, 'Nightly loan delinquency (DPD) job')
+ON CONFLICT(flag_name) DO NOTHING;
@@ -0,0 +1,7 @@
+-- Optimistic locking on loan balances and idempotent repayment posting.
+
+ALTER TABLE loans ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- A gateway reference can be posted once; replays resolve to the original repayment
+CREATE UNIQUE INDEX IF NOT EXISTS uq_repay_transaction_ref ON repayments(transaction_ref)
+    WHERE transaction_ref IS NOT NULL;
@@ -0,0 +1,39 @@
+-- Cross-user inverted index: bill identifier -> users who presented it.
+-- One row per (identifier, user), so "who else uploaded this bill" is a primary-key
+-- prefix probe instead of a scan of consumption_entries.
+-- Rows are kept when an entry is deleted: having presented the bill is what matters.
+
+CREATE TABLE IF NOT EXISTS bill_identifier_index (
+    identifier_type VARCHAR(20) NOT NULL,   -- 'DOCUMENT_HASH', 'BILL_NUMBER', 'CONSUMER_NUMBER'
+    identifier_value VARCHAR(128) NOT NULL, -- bill/consumer numbers upper-cased with whitespace removed
+    user_id BIGINT NOT NULL REFERENCES users(user_id),
+    first_entry_id BIGINT,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (identifier_type, identifier_value, user_id)
+);
+
+-- Backfill from existing entries (suffixed ':dup:' hashes are same-user copies, see V22)
+INSERT INTO bill_identifier_index (identifier_type, identifier_value, user_id, first_entry_id)
+SELECT 'DOCUMENT_HASH', document_hash, user_id, MIN(entry_id)
+FROM consumption_entries
+WHERE document_hash IS NOT NULL AND document_hash NOT LIKE '%:dup:%'
+GROUP BY document_hash, user_id
+ON CONFLICT DO NOTHING;
+
+INSERT INTO bill_identifier_index (identifier_type, identifier_value, user_id, first_entry_id)
+SELECT 'BILL_NUMBER', v.value, v.user_id, MIN(v.entry_id)
+FROM (SELECT upper(regexp_replace(bill_number, '\s', '', 'g')) AS value, user_id, entry_id
+      FROM consumption_entries WHERE bill_number IS NOT NULL) v
+WHERE v.value <> ''
+GROUP BY v.value, v.user_id
+ON CONFLICT DO NOTHING;
+
+INSERT INTO bill_identifier_index (identifier_type, identifier_value, user_id, first_entry_id)
+SELECT 'CONSUMER_NUMBER', v.value, v.user_id, MIN(v.entry_id)
+FROM (SELECT upper(regexp_replace(consumer_number, '\s', '', 'g')) AS value, user_id, entry_id
+      FROM consumption_entries WHERE consumer_number IS NOT NULL) v
+WHERE v.value <> ''
+GROUP BY v.value, v.user_id
+ON CONFLICT DO NOTHING;
+
+COMMENT ON TABLE bill_identifier_index IS 'Bill identifier -> user inverted index for cross-user duplicate detection';
@@ -0,0 +1,7 @@
+-- Consumption uploads used to record storage_type 'SUPABASE', while profile documents
+-- (and StorageService.getStorageType() for the Supabase backend) use 'S3'.
+-- One value per backend, so storage_type checks answer the same for old and new rows.
+
+UPDATE consumption_entries
+SET storage_type = 'S3'
+WHERE storage_type = 'SUPABASE';
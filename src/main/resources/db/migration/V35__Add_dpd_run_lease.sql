@@ -0,0 +1,7 @@
+-- Cross-instance claim on a DPD run. The instance holding an unexpired lease is
+-- the only one allowed to process and checkpoint the run; each checkpoint
+-- extends the lease, and an expired lease (crashed instance) can be taken over
+-- and resumed from last_loan_id.
+
+ALTER TABLE loan_dpd_runs ADD COLUMN IF NOT EXISTS claimed_by VARCHAR(64);
+ALTER TABLE loan_dpd_runs ADD COLUMN IF NOT EXISTS lease_until TIMESTAMP WITH TIME ZONE;
@@ -0,0 +1,13 @@
+-- Keep every credit assessment. A new assessment supersedes the application's
+-- current one instead of replacing it, so score history stays auditable.
+
+ALTER TABLE credit_assessments ADD COLUMN IF NOT EXISTS superseded_at TIMESTAMP WITH TIME ZONE;
+
+-- Only the latest row per application is current
+UPDATE credit_assessments c SET superseded_at = now()
+WHERE c.superseded_at IS NULL
+  AND EXISTS (SELECT 1 FROM credit_assessments n
+              WHERE n.application_id = c.application_id
+                AND (n.assessed_at, n.assessment_id) > (c.assessed_at, c.assessment_id));
+
+CREATE INDEX IF NOT EXISTS idx_assessment_current ON credit_assessments(application_id) WHERE superseded_at IS NULL;